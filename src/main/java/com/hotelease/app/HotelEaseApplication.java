@@ -1,39 +1,108 @@
 package com.hotelease.app;
 
 import com.hotelease.config.DatabaseConfig;
+import com.hotelease.context.ApplicationContext;
+import com.hotelease.context.StartupContext;
 import com.hotelease.controller.AdminLoginController;
 import com.hotelease.controller.EmployeeLoginController;
 import com.hotelease.controller.GuestLoginController;
 import com.hotelease.controller.GuestRegisterController;
 import com.hotelease.controller.LaunchController;
-import com.hotelease.repository.jdbc.JdbcRoleRepository;
-import com.hotelease.repository.jdbc.JdbcUserRepository;
+import com.hotelease.controller.RegisterEmployeeController;
+import com.hotelease.controller.billing.BillingController;
+import com.hotelease.controller.booking.BookingController;
+import com.hotelease.controller.dashboard.DashboardController;
+import com.hotelease.controller.help.HelpController;
+import com.hotelease.controller.housekeeping.HousekeepingController;
+import com.hotelease.controller.room.RoomController;
+import com.hotelease.controller.support.ViewRegistry;
+import com.hotelease.repository.jdbc.QueryPlanVerifier;
 import com.hotelease.service.AuthService;
+import com.hotelease.service.OccupancyCalendar;
+import com.hotelease.util.StartupTimings;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Entry point for the HotelEase desktop application.
  */
 public class HotelEaseApplication extends Application {
 
+    private static final System.Logger LOGGER = System.getLogger(HotelEaseApplication.class.getName());
+    private static final long BOOTSTRAP_SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private ApplicationContext context;
     private AuthService authService;
+    private ExecutorService bootstrapExecutor;
+    private CompletableFuture<Void> bootstrap;
 
+    /**
+     * Builds the services without touching the database and starts the database bootstrap in the
+     * background, so {@link #start(Stage)} can show the launch screen straight away.
+     */
     @Override
     public void init() {
-        DatabaseConfig.startTcpServer();
-        DatabaseConfig.initializeSchema();
+        StartupTimings.milestone("init");
+        context = new ApplicationContext();
+        authService = context.getAuthService();
+        registerViews(context);
+        bootstrapExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hotelease-bootstrap");
+            thread.setDaemon(true);
+            return thread;
+        });
+        bootstrap = CompletableFuture.runAsync(this::bootstrapDatabase, bootstrapExecutor);
+        StartupContext.getInstance().setDatabaseReady(bootstrap);
+    }
+
+    /**
+     * Tells the view registry how to build the module controllers from the shared services.
+     */
+    public static void registerViews(ApplicationContext context) {
+        ViewRegistry views = context.getViewRegistry();
+        views.register(ViewRegistry.DASHBOARD, DashboardController.class, () -> new DashboardController(views));
+        views.register(ViewRegistry.BOOKINGS, BookingController.class,
+                () -> new BookingController(context.getBookingService(), views));
+        views.register(ViewRegistry.ROOMS, RoomController.class,
+                () -> new RoomController(context.getRoomService(), context.getBookingService(), views));
+        views.register(ViewRegistry.BILLING, BillingController.class,
+                () -> new BillingController(context.getBillService(), views));
+        views.register(ViewRegistry.HOUSEKEEPING, HousekeepingController.class,
+                () -> new HousekeepingController(context.getRoomService(), views));
+        views.register(ViewRegistry.HELP, HelpController.class,
+                () -> new HelpController(context.getBookingService(), context.getHelpChatService(), views));
+        views.register(ViewRegistry.REGISTER_EMPLOYEE, RegisterEmployeeController.class,
+                () -> new RegisterEmployeeController(context.getAuthService()));
+    }
 
-        JdbcRoleRepository roleRepository = new JdbcRoleRepository();
-        JdbcUserRepository userRepository = new JdbcUserRepository();
-        authService = new AuthService(userRepository, roleRepository);
-        authService.initializeDefaults();
+    private void bootstrapDatabase() {
+        StartupTimings.time("h2-tcp-server", DatabaseConfig::startTcpServer);
+        StartupTimings.time("schema-migration", DatabaseConfig::migrateSchema);
+        if (Boolean.getBoolean(QueryPlanVerifier.ENABLE_PROPERTY)) {
+            StartupTimings.time("query-plan-verification", QueryPlanVerifier::verify);
+        }
+        StartupTimings.time("password-cost", authService::configurePasswordCost);
+        StartupTimings.time("default-users", authService::initializeDefaults);
+        StartupTimings.time("booking-interval-index",
+                () -> context.getBookingIntervalIndex().load(context.getBookingRepository()));
+        StartupTimings.time("occupancy-calendar", () -> context.openOccupancyCalendar(
+                DatabaseConfig.resolveDataFile(OccupancyCalendar.FILE_EXTENSION)));
+        StartupTimings.time("help-chat-changes", context.getHelpChatChangePoller()::start);
+        StartupTimings.milestone("database-ready");
     }
 
     @Override
@@ -42,25 +111,26 @@ public class HotelEaseApplication extends Application {
             String stylesheet = Objects.requireNonNull(getClass().getResource("/css/application.css"),
                     "Stylesheet /css/application.css not found").toExternalForm();
 
+            ViewRegistry views = context.getViewRegistry();
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/launch.fxml"));
             loader.setControllerFactory(param -> {
                 if (param == LaunchController.class) {
-                    LaunchController controller = new LaunchController(authService);
+                    LaunchController controller = new LaunchController(authService, views);
                     controller.setStage(primaryStage);
                     controller.setStylesheet(stylesheet);
                     return controller;
                 }
                 if (param == GuestLoginController.class) {
-                    return new GuestLoginController(authService);
+                    return new GuestLoginController(authService, views);
                 }
                 if (param == GuestRegisterController.class) {
-                    return new GuestRegisterController(authService);
+                    return new GuestRegisterController(authService, views);
                 }
                 if (param == AdminLoginController.class) {
-                    return new AdminLoginController(authService);
+                    return new AdminLoginController(authService, views);
                 }
                 if (param == EmployeeLoginController.class) {
-                    return new EmployeeLoginController(authService);
+                    return new EmployeeLoginController(authService, views);
                 }
                 try {
                     return param.getDeclaredConstructor().newInstance();
@@ -75,19 +145,63 @@ public class HotelEaseApplication extends Application {
 
             Scene scene = new Scene(root, 800, 600);
             scene.getStylesheets().add(stylesheet);
+            recordFirstFrame(scene);
             primaryStage.setTitle("HotelEase");
             primaryStage.setScene(scene);
             primaryStage.show();
+            views.preload(List.of(ViewRegistry.DASHBOARD));
+            bootstrap.whenComplete((ignored, failure) -> Platform.runLater(() -> {
+                if (failure == null) {
+                    StartupTimings.milestone("interactive");
+                } else {
+                    LOGGER.log(System.Logger.Level.ERROR, "Database startup failed", failure);
+                }
+                StartupTimings.report();
+            }));
         } catch (IOException e) {
             throw new IllegalStateException("Failed to load launch view", e);
         }
     }
 
+    /**
+     * The first layout pass of the launch scene happens in the same pulse that draws its first frame. The
+     * listener is removed on a later turn of the FX thread, since the scene is still iterating its listeners.
+     */
+    private static void recordFirstFrame(Scene scene) {
+        Runnable listener = new Runnable() {
+            @Override
+            public void run() {
+                StartupTimings.milestone("first-frame");
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
+            }
+        };
+        scene.addPostLayoutPulseListener(listener);
+    }
+
     @Override
     public void stop() {
+        awaitBootstrap();
+        LOGGER.log(System.Logger.Level.INFO, "Connection pool statistics: {0}", DatabaseConfig.getPoolStatistics());
+        context.close();
+        DatabaseConfig.closePool();
         DatabaseConfig.stopTcpServer();
     }
 
+    /**
+     * Lets a bootstrap that is still running finish before the pool it uses is closed underneath it.
+     */
+    private void awaitBootstrap() {
+        try {
+            bootstrap.get(BOOTSTRAP_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Shutting down without a completed database startup", e);
+        } finally {
+            bootstrapExecutor.shutdownNow();
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
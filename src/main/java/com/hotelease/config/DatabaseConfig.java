@@ -1,34 +1,61 @@
 package com.hotelease.config;
 
+import com.hotelease.config.migration.MigrationReport;
+import com.hotelease.config.migration.SchemaMigrator;
+import com.hotelease.config.pool.ConnectionPool;
+import com.hotelease.config.pool.PoolConfig;
+import com.hotelease.config.pool.PoolStatistics;
 import org.h2.tools.Server;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * Provides access to the embedded H2 database using JDBC.
  */
 public final class DatabaseConfig {
 
-    private static final String JDBC_URL = "jdbc:h2:./database/hotelease;AUTO_SERVER=TRUE";
-    private static final String JDBC_USER = "sa";
-    private static final String JDBC_PASSWORD = "";
+    private static final String DEFAULT_DATABASE_PATH = "./database/hotelease";
+    private static final String JDBC_URL = System.getProperty("hotelease.db.url", "jdbc:h2:" + DEFAULT_DATABASE_PATH + ";AUTO_SERVER=TRUE");
+    private static final String JDBC_USER = System.getProperty("hotelease.db.user", "sa");
+    private static final String JDBC_PASSWORD = System.getProperty("hotelease.db.password", "");
 
     private static Server tcpServer;
+    private static volatile ConnectionPool connectionPool;
 
     private DatabaseConfig() {
     }
 
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+        return pool().getConnection();
+    }
+
+    public static PoolStatistics getPoolStatistics() {
+        return pool().statistics();
+    }
+
+    public static synchronized void closePool() {
+        if (connectionPool == null) {
+            return;
+        }
+        connectionPool.close();
+        connectionPool = null;
+    }
+
+    private static ConnectionPool pool() {
+        ConnectionPool pool = connectionPool;
+        if (pool != null) {
+            return pool;
+        }
+        synchronized (DatabaseConfig.class) {
+            if (connectionPool == null) {
+                connectionPool = new ConnectionPool(PoolConfig.fromSystemProperties(JDBC_URL, JDBC_USER, JDBC_PASSWORD));
+            }
+            return connectionPool;
+        }
     }
 
     public static void startTcpServer() {
@@ -50,31 +77,26 @@ public final class DatabaseConfig {
         tcpServer = null;
     }
 
-    public static void initializeSchema() {
-        try (Connection connection = getConnection(); Statement statement = connection.createStatement()) {
-            for (String sql : loadSchemaStatements()) {
-                if (sql.isBlank()) {
-                    continue;
-                }
-                statement.execute(sql.trim());
-            }
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to initialize database schema", ex);
+    /**
+     * A file kept next to the database files, such as {@code ./database/hotelease.occupancy} for the default
+     * URL. In-memory and remote databases have no local directory, so their files go beside the default
+     * database path instead.
+     */
+    public static Path resolveDataFile(String extension) {
+        String location = JDBC_URL.substring(JDBC_URL.indexOf(':', "jdbc:".length()) + 1).split(";", 2)[0];
+        if (location.startsWith("file:")) {
+            location = location.substring("file:".length());
+        }
+        if (location.startsWith("mem:") || location.startsWith("tcp:") || location.startsWith("ssl:")) {
+            location = DEFAULT_DATABASE_PATH;
         }
+        if (location.startsWith("~")) {
+            location = System.getProperty("user.home") + location.substring(1);
+        }
+        return Paths.get(location + extension);
     }
 
-    private static String[] loadSchemaStatements() {
-        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-        try (InputStream inputStream = classLoader.getResourceAsStream("db/schema.sql")) {
-            if (inputStream == null) {
-                throw new IllegalStateException("Schema resource db/schema.sql not found on classpath");
-            }
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-                String sql = reader.lines().collect(Collectors.joining("\n"));
-                return sql.split(";\\s*(?=\n|$)");
-            }
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to read schema resource", e);
-        }
+    public static MigrationReport migrateSchema() {
+        return new SchemaMigrator(DatabaseConfig::getConnection).migrate();
     }
 }
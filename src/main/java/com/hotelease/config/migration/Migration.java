@@ -0,0 +1,55 @@
+package com.hotelease.config.migration;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A numbered migration script loaded from {@code db/migration}.
+ */
+record Migration(int version, String description, String script, String sql, String checksum) {
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    static Migration of(String script, String sql) {
+        Matcher matcher = FILE_NAME.matcher(script);
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Migration script " + script + " does not follow the V<n>__<description>.sql pattern");
+        }
+        String normalized = sql.replace("\r\n", "\n");
+        return new Migration(Integer.parseInt(matcher.group(1)),
+                matcher.group(2).replace('_', ' '),
+                script,
+                normalized,
+                sha256(normalized));
+    }
+
+    List<String> statements() {
+        return Arrays.stream(sql.split(";\\s*(?=\n|$)"))
+                .map(Migration::stripCommentLines)
+                .filter(statement -> !statement.isBlank())
+                .collect(Collectors.toList());
+    }
+
+    private static String stripCommentLines(String statement) {
+        return statement.lines()
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"))
+                .trim();
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
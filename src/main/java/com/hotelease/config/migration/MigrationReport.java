@@ -0,0 +1,28 @@
+package com.hotelease.config.migration;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Outcome of a {@link SchemaMigrator} run.
+ */
+public record MigrationReport(int schemaVersion, List<AppliedMigration> applied, long totalMillis) {
+
+    public boolean upToDate() {
+        return applied.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        if (upToDate()) {
+            return String.format("Schema at version %d is current (checked in %d ms)", schemaVersion, totalMillis);
+        }
+        String details = applied.stream()
+                .map(migration -> String.format("V%d %s (%d ms)", migration.version(), migration.description(), migration.millis()))
+                .collect(Collectors.joining(", "));
+        return String.format("Schema migrated to version %d in %d ms: %s", schemaVersion, totalMillis, details);
+    }
+
+    public record AppliedMigration(int version, String description, long millis) {
+    }
+}
@@ -0,0 +1,211 @@
+package com.hotelease.config.migration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the numbered scripts listed in {@code db/migration/migrations.txt} that are not yet recorded
+ * in {@code SCHEMA_VERSION}. Applied scripts are verified by checksum so an edited script is reported
+ * instead of silently diverging from production databases.
+ *
+ * <p>A script is not atomic: H2 commits every DDL statement as it runs, so only the data changes since
+ * the last DDL statement are rolled back when a script fails. A script that stopped partway is run again
+ * from the top on the next start, which is why every script must be safe to re-run ({@code IF NOT EXISTS},
+ * {@code IF EXISTS}, guarded inserts).</p>
+ */
+public class SchemaMigrator {
+
+    private static final System.Logger LOGGER = System.getLogger(SchemaMigrator.class.getName());
+    private static final String MIGRATION_DIRECTORY = "db/migration/";
+    private static final String MIGRATION_INDEX = MIGRATION_DIRECTORY + "migrations.txt";
+    private static final String DUPLICATE_KEY_STATE = "23505";
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS SCHEMA_VERSION (" +
+            "VERSION INT PRIMARY KEY, " +
+            "DESCRIPTION VARCHAR(200) NOT NULL, " +
+            "SCRIPT VARCHAR(200) NOT NULL, " +
+            "CHECKSUM VARCHAR(64) NOT NULL, " +
+            "INSTALLED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL, " +
+            "EXECUTION_MS BIGINT NOT NULL)";
+    private static final String SELECT_APPLIED = "SELECT version, checksum FROM schema_version";
+    private static final String INSERT_APPLIED = "INSERT INTO schema_version (version, description, script, checksum, execution_ms) VALUES (?, ?, ?, ?, ?)";
+
+    private final ConnectionSource connectionSource;
+
+    public SchemaMigrator(ConnectionSource connectionSource) {
+        this.connectionSource = connectionSource;
+    }
+
+    public MigrationReport migrate() {
+        long start = System.nanoTime();
+        List<Migration> migrations = loadMigrations();
+        try (Connection connection = connectionSource.getConnection()) {
+            Map<Integer, String> applied = loadAppliedChecksums(connection);
+            verifyChecksums(migrations, applied);
+
+            List<Migration> pending = migrations.stream()
+                    .filter(migration -> !applied.containsKey(migration.version()))
+                    .collect(Collectors.toList());
+            List<MigrationReport.AppliedMigration> appliedNow = new ArrayList<>();
+            if (!pending.isEmpty()) {
+                ensureVersionTable(connection);
+                for (Migration migration : pending) {
+                    appliedNow.add(apply(connection, migration));
+                }
+            }
+
+            int currentVersion = migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version();
+            MigrationReport report = new MigrationReport(currentVersion, appliedNow, (System.nanoTime() - start) / 1_000_000);
+            LOGGER.log(System.Logger.Level.INFO, report.toString());
+            return report;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to migrate database schema", e);
+        }
+    }
+
+    private Map<Integer, String> loadAppliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        if (!versionTableExists(connection)) {
+            return applied;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_APPLIED);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt("version"), resultSet.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private boolean versionTableExists(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet tables = metaData.getTables(null, null, "SCHEMA_VERSION", new String[]{"TABLE", "BASE TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    private void ensureVersionTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_VERSION_TABLE);
+        }
+    }
+
+    private void verifyChecksums(List<Migration> migrations, Map<Integer, String> applied) {
+        Map<Integer, Migration> known = migrations.stream()
+                .collect(Collectors.toMap(Migration::version, migration -> migration));
+        applied.forEach((version, checksum) -> {
+            Migration migration = known.get(version);
+            if (migration == null) {
+                LOGGER.log(System.Logger.Level.WARNING,
+                        "Database has migration V{0} applied that this build does not know about", version);
+                return;
+            }
+            if (!migration.checksum().equals(checksum)) {
+                throw new IllegalStateException("Checksum mismatch for migration " + migration.script()
+                        + ": the script was modified after it was applied");
+            }
+        });
+    }
+
+    /**
+     * Runs the script and records it in one transaction. That only makes the data changes and the version
+     * row atomic; DDL has already been committed by the time a later statement fails. A duplicate version
+     * row means another client applied the same script meanwhile; any other failure, including a duplicate
+     * key raised by the script itself, fails the migration.
+     */
+    private MigrationReport.AppliedMigration apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.statements()) {
+                statement.execute(sql);
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            if (!recordApplied(connection, migration, millis)) {
+                connection.rollback();
+                LOGGER.log(System.Logger.Level.INFO, "Migration {0} was applied concurrently by another client", migration.script());
+                return new MigrationReport.AppliedMigration(migration.version(), migration.description(), 0);
+            }
+            connection.commit();
+            return new MigrationReport.AppliedMigration(migration.version(), migration.description(), millis);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Migration " + migration.script() + " failed", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * False if the version is already recorded.
+     */
+    private boolean recordApplied(Connection connection, Migration migration, long millis) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_APPLIED)) {
+            statement.setInt(1, migration.version());
+            statement.setString(2, migration.description());
+            statement.setString(3, migration.script());
+            statement.setString(4, migration.checksum());
+            statement.setLong(5, millis);
+            statement.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (DUPLICATE_KEY_STATE.equals(e.getSQLState())) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private List<Migration> loadMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+        for (String script : readResource(MIGRATION_INDEX).lines().map(String::trim).collect(Collectors.toList())) {
+            if (script.isEmpty() || script.startsWith("#")) {
+                continue;
+            }
+            migrations.add(Migration.of(script, readResource(MIGRATION_DIRECTORY + script)));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 0; i < migrations.size(); i++) {
+            if (migrations.get(i).version() != i + 1) {
+                throw new IllegalStateException("Migration versions must be contiguous starting at 1, found "
+                        + migrations.get(i).script());
+            }
+        }
+        return migrations;
+    }
+
+    private String readResource(String path) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try (InputStream inputStream = classLoader.getResourceAsStream(path)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Migration resource " + path + " not found on classpath");
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                return reader.lines().collect(Collectors.joining("\n"));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read migration resource " + path, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ConnectionSource {
+        Connection getConnection() throws SQLException;
+    }
+}
@@ -0,0 +1,122 @@
+package com.hotelease.config.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One borrow of a {@link PooledConnection}. The proxy handed to callers returns the connection to the
+ * pool on {@code close()} and refuses further use afterwards.
+ */
+final class ConnectionLease implements InvocationHandler {
+
+    private final ConnectionPool pool;
+    private final PooledConnection pooledConnection;
+    private final long borrowedAtNanos;
+    private final Throwable borrowSite;
+    private final Connection proxy;
+    private volatile boolean closed;
+    private volatile boolean leakReported;
+
+    ConnectionLease(ConnectionPool pool, PooledConnection pooledConnection, boolean captureBorrowSite) {
+        this.pool = pool;
+        this.pooledConnection = pooledConnection;
+        this.borrowedAtNanos = System.nanoTime();
+        this.borrowSite = captureBorrowSite ? new Throwable("Connection borrowed here") : null;
+        this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, this);
+    }
+
+    Connection proxy() {
+        return proxy;
+    }
+
+    PooledConnection pooledConnection() {
+        return pooledConnection;
+    }
+
+    long borrowedAtNanos() {
+        return borrowedAtNanos;
+    }
+
+    /**
+     * Null unless the pool captures borrow sites.
+     */
+    Throwable borrowSite() {
+        return borrowSite;
+    }
+
+    boolean markLeakReported() {
+        if (leakReported) {
+            return false;
+        }
+        leakReported = true;
+        return true;
+    }
+
+    @Override
+    public Object invoke(Object proxyInstance, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                if (!closed) {
+                    closed = true;
+                    pool.release(this);
+                }
+                return null;
+            case "isClosed":
+                return closed || pooledConnection.physical().isClosed();
+            case "equals":
+                return proxyInstance == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxyInstance);
+            case "toString":
+                return "PooledConnection[" + pooledConnection.physical() + (closed ? ", closed]" : "]");
+            default:
+                break;
+        }
+        if (closed) {
+            throw new SQLException("Connection has already been returned to the pool", "08003");
+        }
+        if (isStatementFactory(method)) {
+            StatementCounter.recordStatement();
+        }
+        if ("prepareStatement".equals(method.getName()) && isCacheable(method)) {
+            int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+            PreparedStatement cached = pooledConnection.statementCache()
+                    .borrow(pooledConnection.physical(), proxy, (String) args[0], autoGeneratedKeys);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        try {
+            return method.invoke(pooledConnection.physical(), args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException && isConnectionFailure(sqlException)) {
+                pooledConnection.markBroken();
+            }
+            throw cause;
+        }
+    }
+
+    private boolean isStatementFactory(Method method) {
+        String name = method.getName();
+        return "prepareStatement".equals(name) || "prepareCall".equals(name) || "createStatement".equals(name);
+    }
+
+    private boolean isCacheable(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        return parameterTypes.length == 1
+                || (parameterTypes.length == 2 && parameterTypes[1] == int.class);
+    }
+
+    private boolean isConnectionFailure(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+}
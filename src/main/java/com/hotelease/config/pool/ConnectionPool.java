@@ -0,0 +1,210 @@
+package com.hotelease.config.pool;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool with validation on borrow, idle eviction and leak detection.
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(ConnectionPool.class.getName());
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final PoolConfig config;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<ConnectionLease> leases = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private final LatencyHistogram borrowLatency = new LatencyHistogram();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsDestroyed = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final StatementCache.Metrics statementCacheMetrics = new StatementCache.Metrics();
+    private volatile boolean closed;
+
+    public ConnectionPool(PoolConfig config) {
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hotelease-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = config.housekeepingInterval().toMillis();
+        housekeeper.scheduleWithFixedDelay(this::runHousekeeping, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(config.borrowTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        long waited = System.nanoTime() - start;
+        recordWait(waited);
+        if (!acquired) {
+            borrowTimeouts.incrementAndGet();
+            throw new SQLException(String.format("Timed out after %d ms waiting for a database connection (active=%d, max=%d)",
+                    config.borrowTimeout().toMillis(), leases.size(), config.maxSize()), "08001");
+        }
+        try {
+            PooledConnection pooledConnection = takeIdleOrCreate();
+            ConnectionLease lease = new ConnectionLease(this, pooledConnection, config.captureBorrowSites());
+            leases.add(lease);
+            borrowCount.incrementAndGet();
+            StatementCounter.recordConnection();
+            borrowLatency.record(System.nanoTime() - start);
+            return lease.proxy();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public PoolStatistics statistics() {
+        return new PoolStatistics(leases.size(),
+                idle.size(),
+                config.maxSize(),
+                permits.getQueueLength(),
+                borrowCount.get(),
+                borrowTimeouts.get(),
+                connectionsCreated.get(),
+                connectionsDestroyed.get(),
+                validationFailures.get(),
+                leaksDetected.get(),
+                totalWaitNanos.get(),
+                maxWaitNanos.get(),
+                borrowLatency.snapshot(),
+                statementCacheMetrics.hits.get(),
+                statementCacheMetrics.misses.get(),
+                statementCacheMetrics.evictions.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idle.pollFirst()) != null) {
+            destroy(pooledConnection);
+        }
+        if (!leases.isEmpty()) {
+            LOGGER.log(System.Logger.Level.WARNING, "Connection pool shut down with {0} connection(s) still in use", leases.size());
+        }
+    }
+
+    void release(ConnectionLease lease) {
+        if (!leases.remove(lease)) {
+            return;
+        }
+        PooledConnection pooledConnection = lease.pooledConnection();
+        try {
+            if (closed || pooledConnection.isBroken()) {
+                destroy(pooledConnection);
+                return;
+            }
+            try {
+                pooledConnection.resetForReuse();
+                pooledConnection.markReturned(System.nanoTime());
+                idle.offerFirst(pooledConnection);
+            } catch (SQLException e) {
+                destroy(pooledConnection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        long validationIntervalNanos = config.validationInterval().toNanos();
+        PooledConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            boolean stale = System.nanoTime() - candidate.lastValidatedNanos() > validationIntervalNanos;
+            if (!stale || candidate.validate(VALIDATION_TIMEOUT_SECONDS)) {
+                return candidate;
+            }
+            validationFailures.incrementAndGet();
+            destroy(candidate);
+        }
+        return create();
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(config.jdbcUrl(), config.username(), config.password());
+        connectionsCreated.incrementAndGet();
+        return new PooledConnection(physical, new StatementCache(config.statementCacheSize(), statementCacheMetrics));
+    }
+
+    private void destroy(PooledConnection pooledConnection) {
+        pooledConnection.closeQuietly();
+        connectionsDestroyed.incrementAndGet();
+    }
+
+    private void recordWait(long waitedNanos) {
+        totalWaitNanos.addAndGet(waitedNanos);
+        maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+    }
+
+    private void runHousekeeping() {
+        try {
+            evictIdle();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Connection pool housekeeping failed", e);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        long idleTimeoutNanos = config.idleTimeout().toNanos();
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext()) {
+            PooledConnection pooledConnection = oldestFirst.next();
+            if (idle.size() <= config.minIdle()) {
+                return;
+            }
+            if (now - pooledConnection.lastReturnedNanos() > idleTimeoutNanos && idle.remove(pooledConnection)) {
+                destroy(pooledConnection);
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        long thresholdNanos = config.leakThreshold().toNanos();
+        for (ConnectionLease lease : leases) {
+            if (now - lease.borrowedAtNanos() > thresholdNanos && lease.markLeakReported()) {
+                leaksDetected.incrementAndGet();
+                String message = "Possible connection leak: connection held for more than " + config.leakThreshold().toMillis() + " ms";
+                if (lease.borrowSite() != null) {
+                    LOGGER.log(System.Logger.Level.WARNING, message, lease.borrowSite());
+                } else {
+                    LOGGER.log(System.Logger.Level.WARNING, message + "; set -D" + PoolConfig.CAPTURE_BORROW_SITES_PROPERTY
+                            + "=true to log where it was borrowed");
+                }
+            }
+        }
+    }
+}
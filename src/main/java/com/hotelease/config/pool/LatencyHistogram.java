@@ -0,0 +1,78 @@
+package com.hotelease.config.pool;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with fixed exponential buckets measured in microseconds.
+ */
+public final class LatencyHistogram {
+
+    private static final long[] BUCKET_UPPER_BOUNDS_MICROS = {
+            50, 100, 250, 500,
+            1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, Long.MAX_VALUE
+    };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_UPPER_BOUNDS_MICROS.length);
+
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MICROS.length; i++) {
+            if (micros <= BUCKET_UPPER_BOUNDS_MICROS[i]) {
+                counts.incrementAndGet(i);
+                return;
+            }
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] values = new long[counts.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = counts.get(i);
+        }
+        return new Snapshot(BUCKET_UPPER_BOUNDS_MICROS.clone(), values);
+    }
+
+    public record Snapshot(long[] upperBoundsMicros, long[] counts) {
+
+        public long totalCount() {
+            return Arrays.stream(counts).sum();
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the given percentile, or 0 when empty.
+         */
+        public long percentileMicros(double percentile) {
+            long total = totalCount();
+            if (total == 0) {
+                return 0;
+            }
+            long threshold = (long) Math.ceil(total * Math.min(Math.max(percentile, 0.0), 100.0) / 100.0);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= threshold) {
+                    return upperBoundsMicros[i];
+                }
+            }
+            return upperBoundsMicros[upperBoundsMicros.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("{");
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    continue;
+                }
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(upperBoundsMicros[i] == Long.MAX_VALUE ? "inf" : "<=" + upperBoundsMicros[i] + "us")
+                        .append('=').append(counts[i]);
+            }
+            return builder.append('}').toString();
+        }
+    }
+}
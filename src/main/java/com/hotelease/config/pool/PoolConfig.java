@@ -0,0 +1,55 @@
+package com.hotelease.config.pool;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Sizing and timing settings for {@link ConnectionPool}. {@code captureBorrowSites} records a stack trace
+ * on every borrow so a leak warning can say where the connection was taken; it is off by default because
+ * it costs more than the borrow itself.
+ */
+public record PoolConfig(String jdbcUrl,
+                         String username,
+                         String password,
+                         int maxSize,
+                         int minIdle,
+                         Duration borrowTimeout,
+                         Duration validationInterval,
+                         Duration idleTimeout,
+                         Duration leakThreshold,
+                         boolean captureBorrowSites,
+                         Duration housekeepingInterval,
+                         int statementCacheSize) {
+
+    private static final String PROPERTY_PREFIX = "hotelease.db.pool.";
+    static final String CAPTURE_BORROW_SITES_PROPERTY = PROPERTY_PREFIX + "captureBorrowSites";
+
+    public PoolConfig {
+        Objects.requireNonNull(jdbcUrl, "jdbcUrl");
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool maxSize must be at least 1");
+        }
+        if (minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Pool minIdle must be between 0 and maxSize");
+        }
+    }
+
+    public static PoolConfig fromSystemProperties(String jdbcUrl, String username, String password) {
+        return new PoolConfig(jdbcUrl,
+                username,
+                password,
+                Integer.getInteger(PROPERTY_PREFIX + "maxSize", 8),
+                Integer.getInteger(PROPERTY_PREFIX + "minIdle", 1),
+                millisProperty("borrowTimeoutMs", 5_000),
+                millisProperty("validationIntervalMs", 30_000),
+                millisProperty("idleTimeoutMs", 300_000),
+                millisProperty("leakThresholdMs", 60_000),
+                Boolean.getBoolean(CAPTURE_BORROW_SITES_PROPERTY),
+                millisProperty("housekeepingIntervalMs", 15_000),
+                Integer.getInteger(PROPERTY_PREFIX + "statementCacheSize", 64));
+    }
+
+    private static Duration millisProperty(String name, long defaultMillis) {
+        return Duration.ofMillis(Long.getLong(PROPERTY_PREFIX + name, defaultMillis));
+    }
+}
@@ -0,0 +1,46 @@
+package com.hotelease.config.pool;
+
+/**
+ * Point-in-time view of {@link ConnectionPool} usage.
+ */
+public record PoolStatistics(int active,
+                             int idle,
+                             int maxSize,
+                             int waitingThreads,
+                             long borrowCount,
+                             long borrowTimeouts,
+                             long connectionsCreated,
+                             long connectionsDestroyed,
+                             long validationFailures,
+                             long leaksDetected,
+                             long totalWaitNanos,
+                             long maxWaitNanos,
+                             LatencyHistogram.Snapshot borrowLatency,
+                             long statementCacheHits,
+                             long statementCacheMisses,
+                             long statementCacheEvictions) {
+
+    public int total() {
+        return active + idle;
+    }
+
+    public double averageWaitMillis() {
+        return borrowCount == 0 ? 0.0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+    }
+
+    public double statementCacheHitRatio() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0.0 : (double) statementCacheHits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d idle=%d max=%d waiting=%d borrows=%d timeouts=%d created=%d destroyed=%d "
+                        + "validationFailures=%d leaks=%d avgWait=%.3fms maxWait=%.3fms borrowP50=%dus borrowP99=%dus borrowLatency=%s "
+                        + "statementCache[hits=%d misses=%d evictions=%d hitRatio=%.2f]",
+                active, idle, maxSize, waitingThreads, borrowCount, borrowTimeouts, connectionsCreated,
+                connectionsDestroyed, validationFailures, leaksDetected, averageWaitMillis(), maxWaitNanos / 1_000_000.0,
+                borrowLatency.percentileMicros(50), borrowLatency.percentileMicros(99), borrowLatency,
+                statementCacheHits, statementCacheMisses, statementCacheEvictions, statementCacheHitRatio());
+    }
+}
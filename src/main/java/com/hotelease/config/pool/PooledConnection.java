@@ -0,0 +1,87 @@
+package com.hotelease.config.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A physical connection owned by the pool together with its bookkeeping.
+ */
+final class PooledConnection {
+
+    private final Connection physical;
+    private final StatementCache statementCache;
+    private final long createdAtNanos;
+    private volatile long lastReturnedNanos;
+    private volatile long lastValidatedNanos;
+    private volatile boolean broken;
+
+    PooledConnection(Connection physical, StatementCache statementCache) {
+        this.physical = physical;
+        this.statementCache = statementCache;
+        this.createdAtNanos = System.nanoTime();
+        this.lastReturnedNanos = createdAtNanos;
+        this.lastValidatedNanos = createdAtNanos;
+    }
+
+    Connection physical() {
+        return physical;
+    }
+
+    StatementCache statementCache() {
+        return statementCache;
+    }
+
+    long createdAtNanos() {
+        return createdAtNanos;
+    }
+
+    long lastReturnedNanos() {
+        return lastReturnedNanos;
+    }
+
+    void markReturned(long nanos) {
+        lastReturnedNanos = nanos;
+    }
+
+    long lastValidatedNanos() {
+        return lastValidatedNanos;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    void markBroken() {
+        broken = true;
+    }
+
+    boolean validate(int timeoutSeconds) {
+        try {
+            boolean valid = !physical.isClosed() && physical.isValid(timeoutSeconds);
+            if (valid) {
+                lastValidatedNanos = System.nanoTime();
+            }
+            return valid;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void resetForReuse() throws SQLException {
+        statementCache.reclaim();
+        if (!physical.getAutoCommit()) {
+            physical.rollback();
+            physical.setAutoCommit(true);
+        }
+        physical.clearWarnings();
+    }
+
+    void closeQuietly() {
+        statementCache.closeAll();
+        try {
+            physical.close();
+        } catch (SQLException ignored) {
+            // the connection is being discarded either way
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.hotelease.config.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for a single physical connection, keyed by SQL text and
+ * generated-keys mode. Cached statements stay open when callers close them and are only closed on
+ * eviction or when the physical connection is discarded.
+ *
+ * <p>Closing a cached statement does what closing a real one would for the next caller: its result sets
+ * are closed, its parameters and batch cleared, and fetch size, fetch direction, row and field limits and
+ * query timeout go back to the driver defaults. A statement whose other settings were changed is evicted
+ * instead of reused.</p>
+ */
+final class StatementCache {
+
+    private static final Set<String> RESET_SETTERS = Set.of("setFetchSize", "setFetchDirection", "setMaxRows",
+            "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout");
+    private static final Set<String> UNRESETTABLE_SETTERS = Set.of("setCursorName", "setEscapeProcessing", "setPoolable");
+
+    private final int maxSize;
+    private final Metrics metrics;
+    private final Map<Key, CachedStatement> statements;
+
+    StatementCache(int maxSize, Metrics metrics) {
+        this.maxSize = maxSize;
+        this.metrics = metrics;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns a statement proxy for the SQL, or {@code null} when the caller should prepare an uncached
+     * statement (cache disabled or the cached statement is still in use).
+     */
+    synchronized PreparedStatement borrow(Connection physical, Connection logical, String sql, int autoGeneratedKeys)
+            throws SQLException {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Key key = new Key(sql, autoGeneratedKeys);
+        CachedStatement cached = statements.get(key);
+        if (cached != null) {
+            if (cached.inUse) {
+                metrics.misses.incrementAndGet();
+                return null;
+            }
+            metrics.hits.incrementAndGet();
+            return cached.checkOut(logical);
+        }
+        metrics.misses.incrementAndGet();
+        PreparedStatement statement = physical.prepareStatement(sql, autoGeneratedKeys);
+        cached = new CachedStatement(statement);
+        statements.put(key, cached);
+        evictOverflow();
+        return cached.checkOut(logical);
+    }
+
+    synchronized void reclaim() {
+        var iterator = statements.values().iterator();
+        while (iterator.hasNext()) {
+            CachedStatement cached = iterator.next();
+            if (cached.inUse && !cached.reset()) {
+                iterator.remove();
+                cached.closePhysical();
+                metrics.evictions.incrementAndGet();
+                continue;
+            }
+            cached.inUse = false;
+            cached.proxy = null;
+        }
+        evictOverflow();
+    }
+
+    synchronized void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.closePhysical();
+        }
+        statements.clear();
+    }
+
+    private void evictOverflow() {
+        var iterator = statements.values().iterator();
+        while (statements.size() > maxSize && iterator.hasNext()) {
+            CachedStatement eldest = iterator.next();
+            if (eldest.inUse) {
+                continue;
+            }
+            iterator.remove();
+            eldest.closePhysical();
+            metrics.evictions.incrementAndGet();
+        }
+    }
+
+    private synchronized void checkIn(CachedStatement cached) {
+        cached.inUse = false;
+        if (!cached.reset()) {
+            statements.values().remove(cached);
+            cached.closePhysical();
+            metrics.evictions.incrementAndGet();
+            return;
+        }
+        evictOverflow();
+    }
+
+    static final class Metrics {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+    }
+
+    private record Key(String sql, int autoGeneratedKeys) {
+    }
+
+    private final class CachedStatement implements InvocationHandler {
+
+        private final PreparedStatement physical;
+        private final int defaultFetchSize;
+        private final int defaultFetchDirection;
+        private final long defaultMaxRows;
+        private final int defaultMaxFieldSize;
+        private final int defaultQueryTimeout;
+        private final List<ResultSet> results = new ArrayList<>();
+        private boolean settingsChanged;
+        private boolean unresettable;
+        private boolean inUse;
+        private PreparedStatement proxy;
+        private Connection logical;
+
+        private CachedStatement(PreparedStatement physical) throws SQLException {
+            this.physical = physical;
+            this.defaultFetchSize = physical.getFetchSize();
+            this.defaultFetchDirection = physical.getFetchDirection();
+            this.defaultMaxRows = physical.getLargeMaxRows();
+            this.defaultMaxFieldSize = physical.getMaxFieldSize();
+            this.defaultQueryTimeout = physical.getQueryTimeout();
+        }
+
+        private PreparedStatement checkOut(Connection logicalConnection) {
+            inUse = true;
+            logical = logicalConnection;
+            proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+            return proxy;
+        }
+
+        @Override
+        public Object invoke(Object proxyInstance, Method method, Object[] args) throws Throwable {
+            boolean current = proxyInstance == proxy && inUse;
+            switch (method.getName()) {
+                case "close":
+                    if (current) {
+                        proxy = null;
+                        checkIn(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return !current || physical.isClosed();
+                case "getConnection":
+                    return logical;
+                case "equals":
+                    return proxyInstance == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxyInstance);
+                default:
+                    break;
+            }
+            if (!current) {
+                throw new SQLException("Statement has already been closed");
+            }
+            if (RESET_SETTERS.contains(method.getName())) {
+                settingsChanged = true;
+            } else if (UNRESETTABLE_SETTERS.contains(method.getName())) {
+                unresettable = true;
+            }
+            Object result;
+            try {
+                result = method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet resultSet) {
+                results.add(resultSet);
+            }
+            return result;
+        }
+
+        /**
+         * Readies the statement for its next caller.
+         *
+         * @return false if it has to be discarded instead
+         */
+        private boolean reset() {
+            try {
+                for (ResultSet resultSet : results) {
+                    resultSet.close();
+                }
+                results.clear();
+                if (unresettable) {
+                    return false;
+                }
+                physical.clearParameters();
+                physical.clearBatch();
+                if (settingsChanged) {
+                    // H2 rejects a fetch size above the row limit, so the limit goes first.
+                    physical.setLargeMaxRows(defaultMaxRows);
+                    physical.setFetchSize(defaultFetchSize);
+                    physical.setFetchDirection(defaultFetchDirection);
+                    physical.setMaxFieldSize(defaultMaxFieldSize);
+                    physical.setQueryTimeout(defaultQueryTimeout);
+                    settingsChanged = false;
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+                // statement is being discarded either way
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.hotelease.config.pool;
+
+/**
+ * Counts the connections borrowed and the statements prepared or created on the current thread while it
+ * is open, so a tool can check how many round trips an operation costs. Counters nest; closing one resumes
+ * the one it was started inside. Threads without an open counter pay one thread-local read per statement.
+ */
+public final class StatementCounter implements AutoCloseable {
+
+    private static final ThreadLocal<StatementCounter> CURRENT = new ThreadLocal<>();
+
+    private final StatementCounter outer;
+    private int connections;
+    private int statements;
+    private boolean closed;
+
+    private StatementCounter(StatementCounter outer) {
+        this.outer = outer;
+    }
+
+    public static StatementCounter start() {
+        StatementCounter counter = new StatementCounter(CURRENT.get());
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    static void recordConnection() {
+        for (StatementCounter counter = CURRENT.get(); counter != null; counter = counter.outer) {
+            counter.connections++;
+        }
+    }
+
+    static void recordStatement() {
+        for (StatementCounter counter = CURRENT.get(); counter != null; counter = counter.outer) {
+            counter.statements++;
+        }
+    }
+
+    public int connections() {
+        return connections;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (CURRENT.get() != this) {
+            throw new IllegalStateException("Statement counters must be closed in the order they were started");
+        }
+        closed = true;
+        if (outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(outer);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.hotelease.context;
+
+import com.hotelease.controller.support.ViewRegistry;
+import com.hotelease.repository.BillRepository;
+import com.hotelease.repository.BookingRepository;
+import com.hotelease.repository.HelpChatRepository;
+import com.hotelease.repository.RoomRepository;
+import com.hotelease.repository.SettingsRepository;
+import com.hotelease.repository.cache.CachingRoleRepository;
+import com.hotelease.repository.cache.CachingUserRepository;
+import com.hotelease.repository.jdbc.JdbcBillRepository;
+import com.hotelease.repository.jdbc.JdbcBookingRepository;
+import com.hotelease.repository.jdbc.JdbcHelpChatRepository;
+import com.hotelease.repository.jdbc.JdbcRoleRepository;
+import com.hotelease.repository.jdbc.JdbcRoomRepository;
+import com.hotelease.repository.jdbc.JdbcSettingsRepository;
+import com.hotelease.repository.jdbc.JdbcUserRepository;
+import com.hotelease.service.AuthService;
+import com.hotelease.service.BillService;
+import com.hotelease.service.BookingIntervalIndex;
+import com.hotelease.service.BookingService;
+import com.hotelease.service.HelpChatChangePoller;
+import com.hotelease.service.HelpChatEventBus;
+import com.hotelease.service.HelpChatService;
+import com.hotelease.service.OccupancyCalendar;
+import com.hotelease.service.RoomService;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The repositories, services and in-memory layers shared by every screen: the booking interval index, the
+ * occupancy calendar and the view registry included. {@code HotelEaseApplication} builds one at startup
+ * and hands it to the controller factories, so caches, executors and statistics live as long as the
+ * application instead of one screen. Each member is created on first use and shared from then on;
+ * creating one never touches the database. The occupancy calendar is the exception: it is a file next to
+ * the database, opened by {@link #openOccupancyCalendar(Path)} once the schema is in place.
+ */
+public class ApplicationContext {
+
+    private static final System.Logger LOGGER = System.getLogger(ApplicationContext.class.getName());
+
+    private final Lazy<CachingRoleRepository> roleRepository =
+            new Lazy<>(() -> new CachingRoleRepository(new JdbcRoleRepository()));
+    private final Lazy<CachingUserRepository> userRepository =
+            new Lazy<>(() -> new CachingUserRepository(new JdbcUserRepository(), getRoleRepository()));
+    private final Lazy<SettingsRepository> settingsRepository = new Lazy<>(JdbcSettingsRepository::new);
+    private final Lazy<RoomRepository> roomRepository = new Lazy<>(JdbcRoomRepository::new);
+    private final Lazy<BookingRepository> bookingRepository = new Lazy<>(JdbcBookingRepository::new);
+    private final Lazy<BillRepository> billRepository = new Lazy<>(JdbcBillRepository::new);
+    private final Lazy<HelpChatRepository> helpChatRepository = new Lazy<>(JdbcHelpChatRepository::new);
+    private final Lazy<BookingIntervalIndex> bookingIntervalIndex = new Lazy<>(BookingIntervalIndex::new);
+    private final Lazy<ViewRegistry> viewRegistry = new Lazy<>(ViewRegistry::new);
+    private volatile OccupancyCalendar occupancyCalendar;
+
+    private final Lazy<AuthService> authService =
+            new Lazy<>(() -> new AuthService(getUserRepository(), getRoleRepository(), getSettingsRepository()));
+    private final Lazy<RoomService> roomService = new Lazy<>(() -> new RoomService(getRoomRepository()));
+    private final Lazy<BookingService> bookingService =
+            new Lazy<>(() -> new BookingService(getBookingRepository(), getBookingIntervalIndex()));
+    private final Lazy<BillService> billService = new Lazy<>(() -> new BillService(getBillRepository()));
+    private final Lazy<HelpChatEventBus> helpChatEventBus = new Lazy<>(HelpChatEventBus::new);
+    private final Lazy<HelpChatChangePoller> helpChatChangePoller =
+            new Lazy<>(() -> new HelpChatChangePoller(getHelpChatRepository(), getHelpChatEventBus()));
+    private final Lazy<HelpChatService> helpChatService =
+            new Lazy<>(() -> new HelpChatService(getHelpChatRepository(), getRoomRepository(), getHelpChatEventBus()));
+
+    public CachingRoleRepository getRoleRepository() {
+        return roleRepository.get();
+    }
+
+    public CachingUserRepository getUserRepository() {
+        return userRepository.get();
+    }
+
+    public SettingsRepository getSettingsRepository() {
+        return settingsRepository.get();
+    }
+
+    public RoomRepository getRoomRepository() {
+        return roomRepository.get();
+    }
+
+    public BookingRepository getBookingRepository() {
+        return bookingRepository.get();
+    }
+
+    public BillRepository getBillRepository() {
+        return billRepository.get();
+    }
+
+    public HelpChatRepository getHelpChatRepository() {
+        return helpChatRepository.get();
+    }
+
+    public BookingIntervalIndex getBookingIntervalIndex() {
+        return bookingIntervalIndex.get();
+    }
+
+    public ViewRegistry getViewRegistry() {
+        return viewRegistry.get();
+    }
+
+    /**
+     * Opens the occupancy calendar kept in {@code file}, subscribes it to booking saves and hands it to
+     * the room service. While another process has the file open the application runs without a calendar.
+     */
+    public synchronized Optional<OccupancyCalendar> openOccupancyCalendar(Path file) {
+        if (occupancyCalendar == null) {
+            Optional<OccupancyCalendar> opened = OccupancyCalendar.tryOpen(file, getRoomRepository(), getBookingRepository(),
+                    getBookingIntervalIndex());
+            if (opened.isEmpty()) {
+                LOGGER.log(System.Logger.Level.WARNING, "Occupancy calendar {0} is in use by another process; running without it",
+                        file);
+                return opened;
+            }
+            occupancyCalendar = opened.get();
+            getBookingIntervalIndex().addListener(occupancyCalendar);
+            getRoomService().setOccupancyCalendar(occupancyCalendar);
+        }
+        return Optional.of(occupancyCalendar);
+    }
+
+    public Optional<OccupancyCalendar> getOccupancyCalendar() {
+        return Optional.ofNullable(occupancyCalendar);
+    }
+
+    public AuthService getAuthService() {
+        return authService.get();
+    }
+
+    public RoomService getRoomService() {
+        return roomService.get();
+    }
+
+    public BookingService getBookingService() {
+        return bookingService.get();
+    }
+
+    public BillService getBillService() {
+        return billService.get();
+    }
+
+    public HelpChatEventBus getHelpChatEventBus() {
+        return helpChatEventBus.get();
+    }
+
+    public HelpChatChangePoller getHelpChatChangePoller() {
+        return helpChatChangePoller.get();
+    }
+
+    public HelpChatService getHelpChatService() {
+        return helpChatService.get();
+    }
+
+    /**
+     * Logs the statistics of the caches that were used, stops the executors and closes the occupancy
+     * calendar. Call once, after the last screen has closed and before the connection pool is closed.
+     */
+    public void close() {
+        if (userRepository.isCreated()) {
+            LOGGER.log(System.Logger.Level.INFO, "User cache statistics: {0}", userRepository.get().statistics());
+        }
+        if (roleRepository.isCreated()) {
+            LOGGER.log(System.Logger.Level.INFO, "Role cache statistics: {0}", roleRepository.get().statistics());
+        }
+        if (authService.isCreated()) {
+            authService.get().shutdown();
+        }
+        if (helpChatChangePoller.isCreated()) {
+            helpChatChangePoller.get().stop();
+        }
+        if (viewRegistry.isCreated()) {
+            viewRegistry.get().close();
+        }
+        synchronized (this) {
+            if (occupancyCalendar != null) {
+                occupancyCalendar.close();
+                occupancyCalendar = null;
+            }
+        }
+    }
+
+    private static final class Lazy<T> {
+        private final Supplier<T> factory;
+        private volatile T value;
+
+        private Lazy(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        private T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = factory.get();
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private boolean isCreated() {
+            return value != null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.hotelease.context;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tracks the database bootstrap that runs in the background while the launch screen is already showing.
+ * Until it completes, views that need the database keep their actions disabled.
+ */
+public class StartupContext {
+
+    private static final StartupContext INSTANCE = new StartupContext();
+
+    private volatile CompletableFuture<Void> databaseReady = CompletableFuture.completedFuture(null);
+
+    private StartupContext() {
+    }
+
+    public static StartupContext getInstance() {
+        return INSTANCE;
+    }
+
+    public CompletableFuture<Void> getDatabaseReady() {
+        return databaseReady;
+    }
+
+    public void setDatabaseReady(CompletableFuture<Void> databaseReady) {
+        this.databaseReady = Objects.requireNonNull(databaseReady, "databaseReady");
+    }
+
+    public boolean isDatabaseReady() {
+        return databaseReady.isDone() && !databaseReady.isCompletedExceptionally();
+    }
+}
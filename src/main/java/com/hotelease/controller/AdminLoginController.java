@@ -2,12 +2,13 @@ package com.hotelease.controller;
 
 import com.hotelease.model.Role;
 import com.hotelease.model.User;
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.service.AuthService;
 
 public class AdminLoginController extends BaseLoginController {
 
-    public AdminLoginController(AuthService authService) {
-        super(authService);
+    public AdminLoginController(AuthService authService, ViewRegistry views) {
+        super(authService, views);
     }
 
     @Override
@@ -2,19 +2,22 @@ package com.hotelease.controller;
 
 import com.hotelease.context.SessionContext;
 import com.hotelease.controller.dashboard.DashboardController;
+import com.hotelease.controller.support.LoadedView;
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.model.User;
 import com.hotelease.service.AuthService;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
@@ -23,6 +26,8 @@ import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 public abstract class BaseLoginController {
 
@@ -35,14 +40,20 @@ public abstract class BaseLoginController {
     @FXML
     protected Label statusLabel;
 
+    @FXML
+    protected Button loginButton;
+
     protected final AuthService authService;
+    protected final ViewRegistry views;
     protected Stage stage;
     protected String stylesheet;
     private MediaPlayer backgroundPlayer;
     private ImageView fallbackImage;
+    private boolean loginInProgress;
 
-    protected BaseLoginController(AuthService authService) {
+    protected BaseLoginController(AuthService authService, ViewRegistry views) {
         this.authService = authService;
+        this.views = views;
     }
 
     @FXML
@@ -75,6 +86,9 @@ public abstract class BaseLoginController {
 
     @FXML
     protected void handleLogin(ActionEvent event) {
+        if (loginInProgress) {
+            return;
+        }
         Optional<String> validationError = validateBeforeLogin();
         if (validationError.isPresent()) {
             showMessage(validationError.get(), true);
@@ -83,7 +97,21 @@ public abstract class BaseLoginController {
 
         String username = usernameField != null ? usernameField.getText() : null;
         String password = passwordField != null ? passwordField.getText() : null;
-        Optional<User> authenticatedUser = authService.authenticate(username, password);
+        setLoginInProgress(true);
+        showMessage("Signing in...", false);
+        authService.authenticateAsync(username, password).whenComplete((result, failure) -> Platform.runLater(() -> {
+            setLoginInProgress(false);
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                showMessage(cause instanceof IllegalStateException && cause.getCause() instanceof RejectedExecutionException
+                        ? cause.getMessage() : "Sign-in failed. Please try again.", true);
+                return;
+            }
+            completeLogin(result);
+        }));
+    }
+
+    private void completeLogin(Optional<User> authenticatedUser) {
         if (authenticatedUser.isEmpty()) {
             showMessage("Invalid credentials or inactive user.", true);
             return;
@@ -100,6 +128,22 @@ public abstract class BaseLoginController {
         afterSuccessfulLogin(user);
     }
 
+    /**
+     * Locks the form while a sign-in is running, so a second click or an edit cannot race the first.
+     */
+    protected void setLoginInProgress(boolean inProgress) {
+        loginInProgress = inProgress;
+        if (loginButton != null) {
+            loginButton.setDisable(inProgress);
+        }
+        if (usernameField != null) {
+            usernameField.setDisable(inProgress);
+        }
+        if (passwordField != null) {
+            passwordField.setDisable(inProgress);
+        }
+    }
+
     protected Optional<String> validateBeforeLogin() {
         return Optional.empty();
     }
@@ -123,9 +167,9 @@ public abstract class BaseLoginController {
         }
         stopBackgroundVideo();
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/dashboard.fxml"));
-            Pane root = loader.load();
-            DashboardController controller = loader.getController();
+            LoadedView<DashboardController> view = views.load(ViewRegistry.DASHBOARD);
+            Parent root = view.root();
+            DashboardController controller = view.controller();
             controller.setStage(stage);
             controller.setStylesheet(stylesheet);
             controller.setAuthService(authService);
@@ -159,22 +203,22 @@ public abstract class BaseLoginController {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/launch.fxml"));
             loader.setControllerFactory(param -> {
                 if (param == LaunchController.class) {
-                    LaunchController controller = new LaunchController(authService);
+                    LaunchController controller = new LaunchController(authService, views);
                     controller.setStage(stage);
                     controller.setStylesheet(stylesheet);
                     return controller;
                 }
                 if (param == GuestLoginController.class) {
-                    return new GuestLoginController(authService);
+                    return new GuestLoginController(authService, views);
                 }
                 if (param == AdminLoginController.class) {
-                    return new AdminLoginController(authService);
+                    return new AdminLoginController(authService, views);
                 }
                 if (param == EmployeeLoginController.class) {
-                    return new EmployeeLoginController(authService);
+                    return new EmployeeLoginController(authService, views);
                 }
                 if (param == GuestRegisterController.class) {
-                    return new GuestRegisterController(authService);
+                    return new GuestRegisterController(authService, views);
                 }
                 try {
                     return param.getDeclaredConstructor().newInstance();
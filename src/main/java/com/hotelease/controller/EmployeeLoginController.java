@@ -2,6 +2,7 @@ package com.hotelease.controller;
 
 import com.hotelease.model.Role;
 import com.hotelease.model.User;
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.service.AuthService;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -28,8 +29,8 @@ public class EmployeeLoginController extends BaseLoginController {
     private final Map<String, String> displayToCode = ROLE_OPTIONS.stream()
             .collect(Collectors.toMap(RoleOption::displayName, RoleOption::roleCode));
 
-    public EmployeeLoginController(AuthService authService) {
-        super(authService);
+    public EmployeeLoginController(AuthService authService, ViewRegistry views) {
+        super(authService, views);
     }
 
     @Override
@@ -43,6 +44,14 @@ public class EmployeeLoginController extends BaseLoginController {
         }
     }
 
+    @Override
+    protected void setLoginInProgress(boolean inProgress) {
+        super.setLoginInProgress(inProgress);
+        if (roleComboBox != null) {
+            roleComboBox.setDisable(inProgress);
+        }
+    }
+
     @Override
     protected Optional<String> validateBeforeLogin() {
         if (roleComboBox == null || roleComboBox.getSelectionModel().getSelectedItem() == null) {
@@ -1,5 +1,6 @@
 package com.hotelease.controller;
 
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.service.AuthService;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -9,8 +10,8 @@ import javafx.scene.Scene;
 
 public class GuestLoginController extends BaseLoginController {
 
-    public GuestLoginController(AuthService authService) {
-        super(authService);
+    public GuestLoginController(AuthService authService, ViewRegistry views) {
+        super(authService, views);
     }
 
     @FXML
@@ -23,13 +24,13 @@ public class GuestLoginController extends BaseLoginController {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/register.fxml"));
             loader.setControllerFactory(param -> {
                 if (param == GuestRegisterController.class) {
-                    return new GuestRegisterController(authService);
+                    return new GuestRegisterController(authService, views);
                 }
                 if (param == GuestLoginController.class) {
-                    return new GuestLoginController(authService);
+                    return new GuestLoginController(authService, views);
                 }
                 if (param == LaunchController.class) {
-                    LaunchController controller = new LaunchController(authService);
+                    LaunchController controller = new LaunchController(authService, views);
                     controller.setStage(stage);
                     controller.setStylesheet(stylesheet);
                     return controller;
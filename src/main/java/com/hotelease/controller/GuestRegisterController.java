@@ -1,5 +1,6 @@
 package com.hotelease.controller;
 
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.service.AuthService;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -46,14 +47,16 @@ public class GuestRegisterController {
     private StackPane rootPane;
 
     private final AuthService authService;
+    private final ViewRegistry views;
     private Stage stage;
     private String stylesheet;
     private String loginPrefill;
     private MediaPlayer mediaPlayer;
     private ImageView fallbackImage;
 
-    public GuestRegisterController(AuthService authService) {
+    public GuestRegisterController(AuthService authService, ViewRegistry views) {
         this.authService = authService;
+        this.views = views;
     }
 
     @FXML
@@ -114,10 +117,10 @@ public class GuestRegisterController {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/guest-login.fxml"));
             loader.setControllerFactory(param -> {
                 if (param == GuestLoginController.class) {
-                    return new GuestLoginController(authService);
+                    return new GuestLoginController(authService, views);
                 }
                 if (param == LaunchController.class) {
-                    LaunchController controller = new LaunchController(authService);
+                    LaunchController controller = new LaunchController(authService, views);
                     controller.setStage(stage);
                     controller.setStylesheet(stylesheet);
                     return controller;
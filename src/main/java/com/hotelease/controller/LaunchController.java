@@ -1,13 +1,19 @@
 package com.hotelease.controller;
 
+import com.hotelease.context.StartupContext;
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.service.AuthService;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
@@ -16,10 +22,13 @@ import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class LaunchController {
 
     private final AuthService authService;
+    private final ViewRegistry views;
     private Stage stage;
     private String stylesheet;
     private MediaPlayer mediaPlayer;
@@ -31,8 +40,24 @@ public class LaunchController {
     @FXML
     private StackPane rootPane;
 
-    public LaunchController(AuthService authService) {
+    @FXML
+    private Button guestButton;
+
+    @FXML
+    private Button employeeButton;
+
+    @FXML
+    private Button adminButton;
+
+    @FXML
+    private HBox startupPane;
+
+    @FXML
+    private Label startupStatus;
+
+    public LaunchController(AuthService authService, ViewRegistry views) {
         this.authService = Objects.requireNonNull(authService, "authService");
+        this.views = Objects.requireNonNull(views, "views");
     }
 
     public void setStage(Stage stage) {
@@ -46,6 +71,39 @@ public class LaunchController {
     @FXML
     private void initialize() {
         initializeBackground();
+        initializeStartupState();
+    }
+
+    /**
+     * Keeps the portal buttons disabled, with a progress line underneath, until the background database
+     * startup has finished.
+     */
+    private void initializeStartupState() {
+        CompletableFuture<Void> databaseReady = StartupContext.getInstance().getDatabaseReady();
+        if (databaseReady.isDone() && !databaseReady.isCompletedExceptionally()) {
+            return;
+        }
+        setPortalButtonsDisabled(true);
+        startupPane.setVisible(true);
+        startupPane.setManaged(true);
+        databaseReady.whenComplete((ignored, failure) -> Platform.runLater(() -> {
+            if (failure == null) {
+                startupPane.setVisible(false);
+                startupPane.setManaged(false);
+                setPortalButtonsDisabled(false);
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            startupPane.getChildren().removeIf(node -> node != startupStatus);
+            startupStatus.getStyleClass().add("error-label");
+            startupStatus.setText("Could not open the database: " + cause.getMessage());
+        }));
+    }
+
+    private void setPortalButtonsDisabled(boolean disabled) {
+        guestButton.setDisable(disabled);
+        employeeButton.setDisable(disabled);
+        adminButton.setDisable(disabled);
     }
 
     @FXML
@@ -181,16 +239,16 @@ public class LaunchController {
             return this;
         }
         if (controllerClass == GuestLoginController.class) {
-            return new GuestLoginController(authService);
+            return new GuestLoginController(authService, views);
         }
         if (controllerClass == AdminLoginController.class) {
-            return new AdminLoginController(authService);
+            return new AdminLoginController(authService, views);
         }
         if (controllerClass == EmployeeLoginController.class) {
-            return new EmployeeLoginController(authService);
+            return new EmployeeLoginController(authService, views);
         }
         if (controllerClass == GuestRegisterController.class) {
-            return new GuestRegisterController(authService);
+            return new GuestRegisterController(authService, views);
         }
         try {
             return controllerClass.getDeclaredConstructor().newInstance();
@@ -1,6 +1,11 @@
 package com.hotelease.controller.billing;
 
 import com.hotelease.controller.dashboard.DashboardController;
+import com.hotelease.controller.support.BackgroundLoader;
+import com.hotelease.controller.support.KeyedListPatcher;
+import com.hotelease.controller.support.KeysetTableLoader;
+import com.hotelease.controller.support.LoadedView;
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.model.Bill;
 import com.hotelease.model.Role;
 import com.hotelease.model.User;
@@ -12,18 +17,19 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
-import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
 public class BillingController {
@@ -69,15 +75,22 @@ public class BillingController {
     @FXML
     private Label statusLabel;
 
+    @FXML
+    private ProgressIndicator loadingIndicator;
+
     private final ObservableList<Bill> bills = FXCollections.observableArrayList();
+    private KeysetTableLoader<Bill, LocalDate> billLoader;
+    private String activeFilter;
     private final BillService billService;
+    private final ViewRegistry views;
     private Stage stage;
     private String stylesheet;
     private User user;
     private AuthService authService;
 
-    public BillingController(BillService billService) {
+    public BillingController(BillService billService, ViewRegistry views) {
         this.billService = billService;
+        this.views = views;
     }
 
     @FXML
@@ -97,7 +110,12 @@ public class BillingController {
         statusFilterCombo.getSelectionModel().selectFirst();
 
         billTable.setItems(bills);
-        refreshBills();
+        BackgroundLoader backgroundLoader = new BackgroundLoader(billTable, ex -> showMessage("Failed to load bills.", true));
+        backgroundLoader.bindIndicator(loadingIndicator);
+        billLoader = new KeysetTableLoader<>(billTable, bills,
+                (after, pageSize) -> billService.getBillPageForUser(user, activeFilter, after, pageSize), backgroundLoader,
+                new KeyedListPatcher<>(Bill::getId, Bill::getInvoiceNumber, Bill::getGuestName, Bill::getGuestPhone,
+                        Bill::getAmount, Bill::getStatus, Bill::getIssuedDate, Bill::getDueDate, Bill::getGuestUsername));
     }
 
     public void setStage(Stage stage) {
@@ -118,9 +136,7 @@ public class BillingController {
             markPaidButton.setVisible(!guest);
             markPaidButton.setManaged(!guest);
         }
-        if (statusFilterCombo != null) {
-            refreshBills();
-        }
+        refreshBills();
     }
 
     public void setAuthService(AuthService authService) {
@@ -165,9 +181,9 @@ public class BillingController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/dashboard.fxml"));
-            Pane root = loader.load();
-            DashboardController controller = loader.getController();
+            LoadedView<DashboardController> view = views.load(ViewRegistry.DASHBOARD);
+            Parent root = view.root();
+            DashboardController controller = view.controller();
             controller.setStage(stage);
             controller.setStylesheet(stylesheet);
             controller.setAuthService(authService);
@@ -190,8 +206,8 @@ public class BillingController {
     }
 
     private void refreshBills() {
-        String filter = statusFilterCombo.getSelectionModel().getSelectedItem();
-        bills.setAll(billService.getBillsForUser(user, filter));
+        activeFilter = statusFilterCombo.getSelectionModel().getSelectedItem();
+        billLoader.refresh();
         showMessage("", false);
     }
 
@@ -204,7 +220,7 @@ public class BillingController {
         statusLabel.getStyleClass().add(error ? "error-label" : "success-label");
     }
 
-    private String formatDate(java.time.LocalDate date) {
+    private String formatDate(LocalDate date) {
         return date == null ? "-" : DATE_FORMATTER.format(date);
     }
 }
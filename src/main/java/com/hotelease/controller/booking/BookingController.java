@@ -1,5 +1,11 @@
 package com.hotelease.controller.booking;
 
+import com.hotelease.controller.dashboard.DashboardController;
+import com.hotelease.controller.support.BackgroundLoader;
+import com.hotelease.controller.support.KeyedListPatcher;
+import com.hotelease.controller.support.KeysetTableLoader;
+import com.hotelease.controller.support.LoadedView;
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.model.Booking;
 import com.hotelease.model.Role;
 import com.hotelease.model.User;
@@ -9,16 +15,16 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 
 import java.io.IOException;
@@ -67,12 +73,17 @@ public class BookingController {
     @FXML
     private Label statusLabel;
 
+    @FXML
+    private ProgressIndicator loadingIndicator;
+
     private final BookingService bookingService;
+    private final ViewRegistry views;
     private Stage stage;
     private String stylesheet;
     private User currentUser;
     private AuthService authService;
     private final ObservableList<Booking> bookings = FXCollections.observableArrayList();
+    private KeysetTableLoader<Booking, LocalDate> bookingLoader;
 
     private static final List<String> BOOKING_STATUSES = Arrays.asList(
             "PENDING",
@@ -82,8 +93,9 @@ public class BookingController {
             "CANCELLED"
     );
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, ViewRegistry views) {
         this.bookingService = bookingService;
+        this.views = views;
     }
 
     @FXML
@@ -93,8 +105,13 @@ public class BookingController {
         statusChoiceBox.getSelectionModel().selectFirst();
         statusLabel.setText("");
         bookingTable.setItems(bookings);
+        BackgroundLoader backgroundLoader = new BackgroundLoader(bookingTable, ex -> showMessage("Failed to load bookings.", true));
+        backgroundLoader.bindIndicator(loadingIndicator);
+        bookingLoader = new KeysetTableLoader<>(bookingTable, bookings,
+                (after, pageSize) -> bookingService.getBookingPageForUser(currentUser, after, pageSize), backgroundLoader,
+                new KeyedListPatcher<>(Booking::getId, Booking::getGuestName, Booking::getGuestUsername, Booking::getRoomNumber,
+                        Booking::getCheckIn, Booking::getCheckOut, Booking::getStatus));
         bookingTable.getSelectionModel().selectedItemProperty().addListener((obs, oldValue, newValue) -> populateForm(newValue));
-        refreshBookings();
     }
 
     public void setStage(Stage stage) {
@@ -183,7 +200,7 @@ public class BookingController {
     }
 
     private void refreshBookings() {
-        bookings.setAll(bookingService.getBookingsForUser(currentUser));
+        bookingLoader.refresh();
     }
 
     private void clearForm() {
@@ -225,9 +242,9 @@ public class BookingController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/dashboard.fxml"));
-            BorderPane root = loader.load();
-            com.hotelease.controller.dashboard.DashboardController controller = loader.getController();
+            LoadedView<DashboardController> view = views.load(ViewRegistry.DASHBOARD);
+            Parent root = view.root();
+            DashboardController controller = view.controller();
             controller.setStage(stage);
             controller.setStylesheet(stylesheet);
             controller.setUser(currentUser);
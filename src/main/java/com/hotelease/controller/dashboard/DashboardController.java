@@ -7,29 +7,24 @@ import com.hotelease.controller.dashboard.modules.ModuleLauncher;
 import com.hotelease.controller.housekeeping.HousekeepingController;
 import com.hotelease.controller.help.HelpController;
 import com.hotelease.controller.room.RoomController;
+import com.hotelease.controller.support.LoadedView;
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.model.Role;
 import com.hotelease.model.User;
-import com.hotelease.repository.jdbc.JdbcBillRepository;
-import com.hotelease.repository.jdbc.JdbcBookingRepository;
-import com.hotelease.repository.jdbc.JdbcHelpChatRepository;
-import com.hotelease.repository.jdbc.JdbcRoomRepository;
 import com.hotelease.service.AuthService;
-import com.hotelease.service.BookingService;
-import com.hotelease.service.BillService;
-import com.hotelease.service.HelpChatService;
-import com.hotelease.service.RoomService;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.FlowPane;
-import javafx.scene.layout.Pane;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DashboardController {
 
@@ -57,11 +52,16 @@ public class DashboardController {
     @FXML
     private Button billingButton;
 
+    private final ViewRegistry views;
     private Stage stage;
     private User user;
     private String stylesheet;
     private AuthService authService;
 
+    public DashboardController(ViewRegistry views) {
+        this.views = views;
+    }
+
     public void setStage(Stage stage) {
         this.stage = stage;
     }
@@ -73,20 +73,9 @@ public class DashboardController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/housekeeping.fxml"));
-            loader.setControllerFactory(param -> {
-                if (param == HousekeepingController.class) {
-                    RoomService roomService = new RoomService(new JdbcRoomRepository());
-                    return new HousekeepingController(roomService);
-                }
-                try {
-                    return param.getDeclaredConstructor().newInstance();
-                } catch (Exception e) {
-                    throw new IllegalStateException("Failed to create controller instance", e);
-                }
-            });
-            Pane root = loader.load();
-            HousekeepingController controller = loader.getController();
+            LoadedView<HousekeepingController> view = views.load(ViewRegistry.HOUSEKEEPING);
+            Parent root = view.root();
+            HousekeepingController controller = view.controller();
             controller.setStage(stage);
             controller.setStylesheet(stylesheet);
             controller.setAuthService(authService);
@@ -148,15 +137,26 @@ public class DashboardController {
         boolean showHelp = !userHasOnlyHousekeepingRole(isHousekeeping, isAdmin, isManager);
         toggleModuleButton(helpButton, showHelp);
 
-        if (isHousekeeping && !isAdmin && !isManager) {
-            toggleModuleButton(bookingsButton, false);
-            toggleModuleButton(roomsButton, false);
-            toggleModuleButton(billingButton, false);
-        } else {
-            toggleModuleButton(bookingsButton, true);
-            toggleModuleButton(roomsButton, true);
-            toggleModuleButton(billingButton, true);
+        boolean showFrontDesk = !(isHousekeeping && !isAdmin && !isManager);
+        toggleModuleButton(bookingsButton, showFrontDesk);
+        toggleModuleButton(roomsButton, showFrontDesk);
+        toggleModuleButton(billingButton, showFrontDesk);
+
+        List<String> nextViews = new ArrayList<>();
+        nextViews.add(ViewRegistry.DASHBOARD);
+        if (showFrontDesk) {
+            nextViews.addAll(List.of(ViewRegistry.BOOKINGS, ViewRegistry.ROOMS, ViewRegistry.BILLING));
         }
+        if (showHousekeeping) {
+            nextViews.add(ViewRegistry.HOUSEKEEPING);
+        }
+        if (showHelp) {
+            nextViews.add(ViewRegistry.HELP);
+        }
+        if (isAdmin) {
+            nextViews.add(ViewRegistry.REGISTER_EMPLOYEE);
+        }
+        views.preload(nextViews);
     }
 
     private boolean userHasOnlyHousekeepingRole(boolean isHousekeeping, boolean isAdmin, boolean isManager) {
@@ -182,20 +182,9 @@ public class DashboardController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/booking.fxml"));
-            loader.setControllerFactory(param -> {
-                if (param == BookingController.class) {
-                    BookingService bookingService = new BookingService(new JdbcBookingRepository());
-                    return new BookingController(bookingService);
-                }
-                try {
-                    return param.getDeclaredConstructor().newInstance();
-                } catch (Exception e) {
-                    throw new IllegalStateException("Failed to create controller instance", e);
-                }
-            });
-            Pane root = loader.load();
-            BookingController controller = loader.getController();
+            LoadedView<BookingController> view = views.load(ViewRegistry.BOOKINGS);
+            Parent root = view.root();
+            BookingController controller = view.controller();
             controller.setStage(stage);
             controller.setStylesheet(stylesheet);
             controller.setUser(user);
@@ -224,21 +213,9 @@ public class DashboardController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/rooms.fxml"));
-            loader.setControllerFactory(param -> {
-                if (param == RoomController.class) {
-                    RoomService roomService = new RoomService(new JdbcRoomRepository());
-                    BookingService bookingService = new BookingService(new JdbcBookingRepository());
-                    return new RoomController(roomService, bookingService);
-                }
-                try {
-                    return param.getDeclaredConstructor().newInstance();
-                } catch (Exception e) {
-                    throw new IllegalStateException("Failed to create controller instance", e);
-                }
-            });
-            Pane root = loader.load();
-            RoomController controller = loader.getController();
+            LoadedView<RoomController> view = views.load(ViewRegistry.ROOMS);
+            Parent root = view.root();
+            RoomController controller = view.controller();
             controller.setStage(stage);
             controller.setStylesheet(stylesheet);
             controller.setUser(user);
@@ -268,20 +245,9 @@ public class DashboardController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/billing.fxml"));
-            loader.setControllerFactory(param -> {
-                if (param == BillingController.class) {
-                    BillService billService = new BillService(new JdbcBillRepository());
-                    return new BillingController(billService);
-                }
-                try {
-                    return param.getDeclaredConstructor().newInstance();
-                } catch (Exception e) {
-                    throw new IllegalStateException("Failed to create controller instance", e);
-                }
-            });
-            Pane root = loader.load();
-            BillingController controller = loader.getController();
+            LoadedView<BillingController> view = views.load(ViewRegistry.BILLING);
+            Parent root = view.root();
+            BillingController controller = view.controller();
             controller.setStage(stage);
             controller.setStylesheet(stylesheet);
             controller.setAuthService(authService);
@@ -311,21 +277,9 @@ public class DashboardController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/help.fxml"));
-            loader.setControllerFactory(param -> {
-                if (param == HelpController.class) {
-                    BookingService bookingService = new BookingService(new JdbcBookingRepository());
-                    HelpChatService helpChatService = new HelpChatService(new JdbcHelpChatRepository(), new JdbcRoomRepository());
-                    return new HelpController(bookingService, helpChatService);
-                }
-                try {
-                    return param.getDeclaredConstructor().newInstance();
-                } catch (Exception e) {
-                    throw new IllegalStateException("Failed to create controller instance", e);
-                }
-            });
-            Pane root = loader.load();
-            HelpController controller = loader.getController();
+            LoadedView<HelpController> view = views.load(ViewRegistry.HELP);
+            Parent root = view.root();
+            HelpController controller = view.controller();
             controller.setStage(stage);
             controller.setStylesheet(stylesheet);
             controller.setAuthService(authService);
@@ -359,19 +313,9 @@ public class DashboardController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/register-employee.fxml"));
-            loader.setControllerFactory(param -> {
-                if (param == RegisterEmployeeController.class) {
-                    return new RegisterEmployeeController(authService);
-                }
-                try {
-                    return param.getDeclaredConstructor().newInstance();
-                } catch (Exception e) {
-                    throw new IllegalStateException("Failed to create controller instance", e);
-                }
-            });
-            Pane root = loader.load();
-            RegisterEmployeeController controller = loader.getController();
+            LoadedView<RegisterEmployeeController> view = views.load(ViewRegistry.REGISTER_EMPLOYEE);
+            Parent root = view.root();
+            RegisterEmployeeController controller = view.controller();
 
             Stage dialog = new Stage();
             dialog.initOwner(stage);
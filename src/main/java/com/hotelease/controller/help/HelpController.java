@@ -1,7 +1,12 @@
 package com.hotelease.controller.help;
 
 import com.hotelease.controller.dashboard.DashboardController;
+import com.hotelease.controller.support.BackgroundLoader;
+import com.hotelease.controller.support.KeyedListPatcher;
+import com.hotelease.controller.support.LoadedView;
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.model.Booking;
+import com.hotelease.model.HelpChatChange;
 import com.hotelease.model.HelpChatConversationSummary;
 import com.hotelease.model.HelpChatMessage;
 import com.hotelease.model.Role;
@@ -9,28 +14,33 @@ import com.hotelease.model.User;
 import com.hotelease.service.AuthService;
 import com.hotelease.service.BookingService;
 import com.hotelease.service.HelpChatService;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Orientation;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
-import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -38,6 +48,11 @@ import java.util.stream.Collectors;
 public class HelpController {
 
     private static final DateTimeFormatter MESSAGE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm");
+    private static final String GUEST_BOOKINGS_LOAD = "guest-bookings";
+    private static final String STAFF_CONVERSATIONS_LOAD = "staff-conversations";
+    private static final String CONVERSATION_LOAD = "conversation";
+    private static final String OLDER_MESSAGES_LOAD = "older-messages";
+    private static final int MESSAGE_PAGE_SIZE = 50;
 
     @FXML
     private VBox guestSelectionContainer;
@@ -67,7 +82,7 @@ public class HelpController {
     private TableColumn<HelpChatConversationSummary, Number> unreadColumn;
 
     @FXML
-    private ListView<String> messageListView;
+    private ListView<HelpChatMessage> messageListView;
 
     @FXML
     private TextArea messageInput;
@@ -84,13 +99,23 @@ public class HelpController {
     @FXML
     private Label statusLabel;
 
+    @FXML
+    private ProgressIndicator loadingIndicator;
+
     private final ObservableList<Booking> guestBookings = FXCollections.observableArrayList();
     private final ObservableList<HelpChatConversationSummary> staffConversations = FXCollections.observableArrayList();
-    private final ObservableList<String> messages = FXCollections.observableArrayList();
+    private final ObservableList<HelpChatMessage> messages = FXCollections.observableArrayList();
+    private final KeyedListPatcher<Booking> guestBookingPatcher = new KeyedListPatcher<>(Booking::getId,
+            Booking::getRoomNumber, Booking::getCheckIn, Booking::getCheckOut);
+    private final KeyedListPatcher<HelpChatConversationSummary> staffConversationPatcher = new KeyedListPatcher<>(
+            summary -> summary, HelpChatConversationSummary::getGuestName, HelpChatConversationSummary::getUnreadCount,
+            HelpChatConversationSummary::getLastMessageAt, HelpChatConversationSummary::getGuestReadMessageId);
 
     private final BookingService bookingService;
     private final HelpChatService helpChatService;
+    private final ViewRegistry views;
 
+    private BackgroundLoader backgroundLoader;
     private Stage stage;
     private String stylesheet;
     private User user;
@@ -99,16 +124,39 @@ public class HelpController {
     private Booking selectedBooking;
     private HelpChatConversationSummary selectedConversation;
     private boolean suppressConversationSelection;
+    private Runnable chatSubscription;
+
+    private ConversationKey shownConversation;
+    private long oldestMessageId;
+    private long newestMessageId;
+    private boolean hasOlderMessages;
+    private long receiptMessageId;
 
-    public HelpController(BookingService bookingService, HelpChatService helpChatService) {
+    public HelpController(BookingService bookingService, HelpChatService helpChatService, ViewRegistry views) {
         this.bookingService = bookingService;
         this.helpChatService = helpChatService;
+        this.views = views;
     }
 
     @FXML
     private void initialize() {
+        backgroundLoader = new BackgroundLoader(messageListView, ex -> showError("Failed to load conversations."));
+        backgroundLoader.bindIndicator(loadingIndicator);
+        messageListView.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                unsubscribe();
+            }
+        });
         messageListView.setItems(messages);
         messageListView.setPlaceholder(new Label("Select a conversation to view messages."));
+        messageListView.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(HelpChatMessage item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : formatMessage(item));
+            }
+        });
+        messageListView.skinProperty().addListener((obs, oldSkin, newSkin) -> watchScrollToTop());
 
         guestBookingListView.setItems(guestBookings);
         guestBookingListView.setCellFactory(list -> new ListCell<>() {
@@ -153,7 +201,7 @@ public class HelpController {
             if (newSel != null) {
                 loadConversation(newSel.getGuestUsername(), newSel.getRoomNumber(), newSel.getRecipientRole(), true);
             } else {
-                messages.clear();
+                clearMessages();
             }
             updateSendButtonState();
         });
@@ -174,6 +222,9 @@ public class HelpController {
         this.user = user;
         boolean guest = isGuestUser();
         configureVisibility(guest);
+        if (chatSubscription == null) {
+            chatSubscription = helpChatService.subscribe(change -> Platform.runLater(() -> applyChange(change)));
+        }
         if (guest) {
             loadGuestData();
         } else {
@@ -205,7 +256,6 @@ public class HelpController {
                     return;
                 }
                 helpChatService.sendGuestMessage(user.getUsername(), selectedBooking.getRoomNumber(), option.roleCode(), messageText);
-                loadGuestConversation();
             } else {
                 if (selectedConversation == null) {
                     showError("Select a conversation to reply to.");
@@ -216,11 +266,6 @@ public class HelpController {
                         selectedConversation.getRecipientRole(),
                         user.getUsername(),
                         messageText);
-                loadConversation(selectedConversation.getGuestUsername(),
-                        selectedConversation.getRoomNumber(),
-                        selectedConversation.getRecipientRole(),
-                        false);
-                refreshStaffConversations();
             }
             messageInput.clear();
             updateSendButtonState();
@@ -248,9 +293,9 @@ public class HelpController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/dashboard.fxml"));
-            Pane root = loader.load();
-            DashboardController controller = loader.getController();
+            LoadedView<DashboardController> view = views.load(ViewRegistry.DASHBOARD);
+            Parent root = view.root();
+            DashboardController controller = view.controller();
             controller.setStage(stage);
             controller.setStylesheet(stylesheet);
             controller.setAuthService(authService);
@@ -273,13 +318,18 @@ public class HelpController {
     }
 
     private void loadGuestData() {
-        guestBookings.setAll(bookingService.getBookingsForUser(user));
         if (recipientChoiceBox != null && recipientChoiceBox.getItems().isEmpty()) {
             recipientChoiceBox.setItems(FXCollections.observableArrayList(
                     new RecipientOption("Receptionist", "RECEPTIONIST"),
                     new RecipientOption("Manager", "MANAGER")
             ));
         }
+        User guest = user;
+        backgroundLoader.load(GUEST_BOOKINGS_LOAD, () -> bookingService.getBookingsForUser(guest), this::applyGuestBookings);
+    }
+
+    private void applyGuestBookings(List<Booking> bookings) {
+        guestBookingPatcher.patch(guestBookings, bookings);
         if (!guestBookings.contains(selectedBooking)) {
             selectedBooking = null;
             guestBookingListView.getSelectionModel().clearSelection();
@@ -293,9 +343,13 @@ public class HelpController {
 
     private void refreshStaffConversations() {
         List<String> roles = getStaffRecipientRoles();
-        List<HelpChatConversationSummary> updated = helpChatService.getStaffConversationSummaries(roles);
+        backgroundLoader.load(STAFF_CONVERSATIONS_LOAD, () -> helpChatService.getStaffConversationSummaries(roles),
+                this::applyStaffConversations);
+    }
+
+    private void applyStaffConversations(List<HelpChatConversationSummary> updated) {
         suppressConversationSelection = true;
-        staffConversations.setAll(updated);
+        staffConversationPatcher.patch(staffConversations, updated);
 
         HelpChatConversationSummary matching = selectedConversation == null ? null : staffConversations.stream()
                 .filter(summary -> summary.equals(selectedConversation))
@@ -311,7 +365,7 @@ public class HelpController {
         } else {
             selectedConversation = null;
             conversationTable.getSelectionModel().clearSelection();
-            messages.clear();
+            clearMessages();
         }
         suppressConversationSelection = false;
 
@@ -330,30 +384,248 @@ public class HelpController {
         Booking booking = selectedBooking;
         RecipientOption option = recipientChoiceBox != null ? recipientChoiceBox.getSelectionModel().getSelectedItem() : null;
         if (booking == null || option == null) {
-            messages.clear();
+            clearMessages();
             return;
         }
-        loadConversation(user.getUsername(), booking.getRoomNumber(), option.roleCode(), false);
+        loadConversation(user.getUsername(), booking.getRoomNumber(), option.roleCode(), true);
     }
 
+    /**
+     * Opens one conversation in the background; a newer request for another conversation replaces it, so
+     * quickly stepping through the list only shows the last one picked. A conversation that is already shown
+     * only fetches and formats the messages above the newest one on screen; otherwise the newest page is
+     * shown and older pages follow as the list is scrolled to the top. With {@code markRead} the viewer's
+     * read mark moves up to the newest message shown, never past it. The messages, the read mark and the
+     * summary row come back from one transaction, and the summary is applied as is, without another read.
+     */
     private void loadConversation(String guestUsername,
                                   String roomNumber,
                                   String recipientRole,
-                                  boolean markReadForStaff) {
-        try {
-            List<HelpChatMessage> chatMessages = helpChatService.getConversation(guestUsername, roomNumber, recipientRole);
-            messages.setAll(chatMessages.stream()
-                    .map(msg -> String.format("[%s | %s] %s",
-                            formatSender(msg),
-                            msg.getCreatedAt() == null ? "" : MESSAGE_TIME_FORMAT.format(msg.getCreatedAt()),
-                            msg.getMessage()))
-                    .collect(Collectors.toList()));
-            if (!chatMessages.isEmpty() && !isGuestUser() && markReadForStaff) {
-                helpChatService.markConversationAsRead(guestUsername, roomNumber, recipientRole);
-                refreshStaffConversations();
+                                  boolean markRead) {
+        boolean guest = isGuestUser();
+        ConversationKey key = new ConversationKey(guestUsername, roomNumber, recipientRole);
+        boolean append = key.equals(shownConversation);
+        long lastMessageId = append ? newestMessageId : 0;
+        HelpChatChange.Type readMark = !markRead ? null
+                : guest ? HelpChatChange.Type.GUEST_READ : HelpChatChange.Type.READ;
+        if (!append) {
+            backgroundLoader.cancel(OLDER_MESSAGES_LOAD);
+        }
+        backgroundLoader.load(CONVERSATION_LOAD, () -> helpChatService.openConversation(guestUsername, roomNumber,
+                recipientRole, lastMessageId, MESSAGE_PAGE_SIZE, readMark), snapshot -> {
+            if (!append) {
+                showConversation(key, snapshot.getMessages());
+            } else if (key.equals(shownConversation)) {
+                appendMessages(snapshot.getMessages());
+            } else {
+                return;
+            }
+            if (guest) {
+                updateReceipts(snapshot.getSummary());
+            } else {
+                applyConversationSummary(key, snapshot.getSummary());
+            }
+        }, ex -> showError("Failed to load messages."));
+    }
+
+    private void showConversation(ConversationKey key, List<HelpChatMessage> chatMessages) {
+        shownConversation = key;
+        messages.setAll(chatMessages);
+        oldestMessageId = chatMessages.isEmpty() ? 0 : chatMessages.get(0).getId();
+        newestMessageId = chatMessages.isEmpty() ? 0 : chatMessages.get(chatMessages.size() - 1).getId();
+        hasOlderMessages = chatMessages.size() == MESSAGE_PAGE_SIZE;
+        messageListView.scrollTo(Math.max(0, messages.size() - 1));
+    }
+
+    private void appendMessages(List<HelpChatMessage> chatMessages) {
+        List<HelpChatMessage> newer = chatMessages.stream()
+                .filter(msg -> msg.getId() > newestMessageId)
+                .collect(Collectors.toList());
+        if (newer.isEmpty()) {
+            return;
+        }
+        messages.addAll(newer);
+        if (oldestMessageId == 0) {
+            oldestMessageId = newer.get(0).getId();
+        }
+        newestMessageId = newer.get(newer.size() - 1).getId();
+        messageListView.scrollTo(messages.size() - 1);
+    }
+
+    /**
+     * Loads the previous page once the user scrolls the messages to the top. The scroll bar only exists
+     * once the list has a skin.
+     */
+    private void watchScrollToTop() {
+        messageListView.lookupAll(".scroll-bar").stream()
+                .filter(node -> node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL)
+                .map(ScrollBar.class::cast)
+                .findFirst()
+                .ifPresent(bar -> bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    if (newValue.doubleValue() <= bar.getMin()) {
+                        loadOlderMessages();
+                    }
+                }));
+    }
+
+    /**
+     * Prepends the page before the oldest message shown, keeping the message that was at the top in view.
+     */
+    private void loadOlderMessages() {
+        if (shownConversation == null || !hasOlderMessages || backgroundLoader.isLoading(OLDER_MESSAGES_LOAD)) {
+            return;
+        }
+        ConversationKey key = shownConversation;
+        long beforeMessageId = oldestMessageId;
+        backgroundLoader.load(OLDER_MESSAGES_LOAD, () -> helpChatService.getMessagesBefore(key.guestUsername(),
+                key.roomNumber(), key.recipientRole(), beforeMessageId, MESSAGE_PAGE_SIZE), older -> {
+            if (!key.equals(shownConversation) || beforeMessageId != oldestMessageId) {
+                return;
+            }
+            hasOlderMessages = older.size() == MESSAGE_PAGE_SIZE;
+            if (older.isEmpty()) {
+                return;
+            }
+            messages.addAll(0, older);
+            oldestMessageId = older.get(0).getId();
+            messageListView.scrollTo(older.size());
+        }, ex -> showError("Failed to load earlier messages."));
+    }
+
+    /**
+     * Runs only for the cells on screen. The viewer's own messages that the other side has read carry a
+     * receipt.
+     */
+    private String formatMessage(HelpChatMessage msg) {
+        String text = String.format("[%s | %s] %s",
+                formatSender(msg),
+                msg.getCreatedAt() == null ? "" : MESSAGE_TIME_FORMAT.format(msg.getCreatedAt()),
+                msg.getMessage());
+        boolean own = isGuestUser() == "GUEST".equalsIgnoreCase(msg.getSenderType());
+        return own && msg.getId() != null && msg.getId() <= receiptMessageId ? text + "  \u2713 Seen" : text;
+    }
+
+    /**
+     * Takes the other side's read mark from {@code summary} and redraws the visible cells if it moved.
+     */
+    private void updateReceipts(HelpChatConversationSummary summary) {
+        long readMark = summary == null ? 0
+                : isGuestUser() ? summary.getStaffReadMessageId() : summary.getGuestReadMessageId();
+        if (readMark != receiptMessageId) {
+            receiptMessageId = readMark;
+            messageListView.refresh();
+        }
+    }
+
+    private void clearMessages() {
+        backgroundLoader.cancel(CONVERSATION_LOAD);
+        backgroundLoader.cancel(OLDER_MESSAGES_LOAD);
+        messages.clear();
+        receiptMessageId = 0;
+        shownConversation = null;
+        oldestMessageId = 0;
+        newestMessageId = 0;
+        hasOlderMessages = false;
+    }
+
+    /**
+     * Sent messages and read marks arrive here, from this window or another client, instead of through a
+     * refresh: only the conversation that changed is reloaded.
+     */
+    private void applyChange(HelpChatChange change) {
+        if (user == null || chatSubscription == null) {
+            return;
+        }
+        if (change.isLocal() && change.getType() != HelpChatChange.Type.MESSAGE && shownConversation != null
+                && change.concerns(shownConversation.guestUsername(), shownConversation.roomNumber(),
+                shownConversation.recipientRole())) {
+            // This view moved the mark while opening the conversation and already has the summary it left.
+            return;
+        }
+        if (isGuestUser()) {
+            if (shownConversation == null || !change.concerns(shownConversation.guestUsername(),
+                    shownConversation.roomNumber(), shownConversation.recipientRole())) {
+                return;
+            }
+            if (change.getType() == HelpChatChange.Type.MESSAGE) {
+                loadGuestConversation();
+            } else if (change.getType() == HelpChatChange.Type.READ) {
+                refreshConversationSummary(change);
+            }
+            return;
+        }
+        if (!getStaffRecipientRoles().contains(change.getRecipientRole())) {
+            return;
+        }
+        if (change.getType() == HelpChatChange.Type.MESSAGE && selectedConversation != null
+                && change.concerns(selectedConversation.getGuestUsername(), selectedConversation.getRoomNumber(),
+                selectedConversation.getRecipientRole())) {
+            loadConversation(change.getGuestUsername(), change.getRoomNumber(), change.getRecipientRole(), true);
+        } else {
+            refreshConversationSummary(change);
+        }
+    }
+
+    private void refreshConversationSummary(HelpChatChange change) {
+        ConversationKey key = new ConversationKey(change.getGuestUsername(), change.getRoomNumber(), change.getRecipientRole());
+        backgroundLoader.load(key,
+                () -> helpChatService.getConversationSummary(key.guestUsername(), key.roomNumber(), key.recipientRole()),
+                summary -> {
+                    if (!isGuestUser()) {
+                        applyConversationSummary(key, summary.orElse(null));
+                    } else if (key.equals(shownConversation)) {
+                        updateReceipts(summary.orElse(null));
+                    }
+                });
+    }
+
+    /**
+     * Replaces, inserts or removes the one row of {@code key}, keeping the newest-first order of the inbox.
+     */
+    private void applyConversationSummary(ConversationKey key, HelpChatConversationSummary summary) {
+        List<HelpChatConversationSummary> updated = new ArrayList<>(staffConversations);
+        updated.removeIf(key::matches);
+        if (summary != null) {
+            int index = 0;
+            while (index < updated.size() && !isNewer(summary.getLastMessageAt(), updated.get(index).getLastMessageAt())) {
+                index++;
+            }
+            updated.add(index, summary);
+        }
+
+        suppressConversationSelection = true;
+        staffConversationPatcher.patch(staffConversations, updated);
+        if (selectedConversation != null) {
+            HelpChatConversationSummary matching = staffConversations.stream()
+                    .filter(existing -> existing.equals(selectedConversation))
+                    .findFirst()
+                    .orElse(null);
+            selectedConversation = matching;
+            if (matching != null) {
+                conversationTable.getSelectionModel().select(matching);
+                if (key.matches(matching)) {
+                    updateReceipts(matching);
+                }
+            } else {
+                conversationTable.getSelectionModel().clearSelection();
+                clearMessages();
             }
-        } catch (Exception ex) {
-            showError("Failed to load messages.");
+        }
+        suppressConversationSelection = false;
+        updateSendButtonState();
+    }
+
+    private static boolean isNewer(LocalDateTime candidate, LocalDateTime existing) {
+        if (candidate == null) {
+            return false;
+        }
+        return existing == null || candidate.isAfter(existing);
+    }
+
+    private void unsubscribe() {
+        if (chatSubscription != null) {
+            chatSubscription.run();
+            chatSubscription = null;
         }
     }
 
@@ -440,6 +712,14 @@ public class HelpController {
         statusLabel.setText(message);
     }
 
+    private record ConversationKey(String guestUsername, String roomNumber, String recipientRole) {
+        private boolean matches(HelpChatConversationSummary summary) {
+            return guestUsername.equals(summary.getGuestUsername())
+                    && roomNumber.equals(summary.getRoomNumber())
+                    && recipientRole.equals(summary.getRecipientRole());
+        }
+    }
+
     private record RecipientOption(String displayText, String roleCode) {
         @Override
         public String toString() {
@@ -1,6 +1,11 @@
 package com.hotelease.controller.housekeeping;
 
 import com.hotelease.controller.dashboard.DashboardController;
+import com.hotelease.controller.support.BackgroundLoader;
+import com.hotelease.controller.support.KeyedListPatcher;
+import com.hotelease.controller.support.KeysetTableLoader;
+import com.hotelease.controller.support.LoadedView;
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.model.Role;
 import com.hotelease.model.Room;
 import com.hotelease.model.User;
@@ -11,13 +16,13 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
-import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 
 import java.io.IOException;
@@ -45,15 +50,21 @@ public class HousekeepingController {
     @FXML
     private Button markAvailableButton;
 
+    @FXML
+    private ProgressIndicator loadingIndicator;
+
     private final ObservableList<Room> rooms = FXCollections.observableArrayList();
+    private KeysetTableLoader<Room, String> roomLoader;
     private final RoomService roomService;
+    private final ViewRegistry views;
     private Stage stage;
     private String stylesheet;
     private User user;
     private AuthService authService;
 
-    public HousekeepingController(RoomService roomService) {
+    public HousekeepingController(RoomService roomService, ViewRegistry views) {
         this.roomService = roomService;
+        this.views = views;
     }
 
     @FXML
@@ -63,8 +74,11 @@ public class HousekeepingController {
         statusColumn.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getStatus()));
 
         roomTable.setItems(rooms);
+        BackgroundLoader backgroundLoader = new BackgroundLoader(roomTable, ex -> showMessage("Failed to load rooms.", true));
+        backgroundLoader.bindIndicator(loadingIndicator);
+        roomLoader = new KeysetTableLoader<>(roomTable, rooms, roomService::getRoomPage, backgroundLoader,
+                new KeyedListPatcher<>(Room::getId, Room::getRoomNumber, Room::getRoomType, Room::getStatus, Room::getRate));
         roomTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSel, newSel) -> updateActionButtons(newSel));
-        refreshRooms();
     }
 
     public void setStage(Stage stage) {
@@ -97,6 +111,7 @@ public class HousekeepingController {
             }
         }
         updateActionButtons(allowActions ? roomTable != null ? roomTable.getSelectionModel().getSelectedItem() : null : null);
+        refreshRooms();
     }
 
     public void setAuthService(AuthService authService) {
@@ -125,8 +140,7 @@ public class HousekeepingController {
 
     @FXML
     private void handleRefresh(ActionEvent event) {
-        refreshRooms();
-        showMessage("Rooms refreshed.", false);
+        refreshRooms("Rooms refreshed.");
     }
 
     @FXML
@@ -156,9 +170,9 @@ public class HousekeepingController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/dashboard.fxml"));
-            Pane root = loader.load();
-            DashboardController controller = loader.getController();
+            LoadedView<DashboardController> view = views.load(ViewRegistry.DASHBOARD);
+            Parent root = view.root();
+            DashboardController controller = view.controller();
             controller.setStage(stage);
             controller.setStylesheet(stylesheet);
             controller.setAuthService(authService);
@@ -181,11 +195,17 @@ public class HousekeepingController {
     }
 
     private void refreshRooms() {
-        rooms.setAll(roomService.getAllRooms());
-        if (roomTable != null) {
+        refreshRooms(null);
+    }
+
+    private void refreshRooms(String loadedMessage) {
+        roomLoader.refresh(loaded -> {
             roomTable.getSelectionModel().clearSelection();
-        }
-        updateActionButtons(null);
+            updateActionButtons(null);
+            if (loadedMessage != null) {
+                showMessage(loadedMessage, false);
+            }
+        });
     }
 
     private void showMessage(String message, boolean error) {
@@ -1,9 +1,16 @@
 package com.hotelease.controller.room;
 
 import com.hotelease.controller.dashboard.DashboardController;
+import com.hotelease.controller.support.BackgroundLoader;
+import com.hotelease.controller.support.KeyedListPatcher;
+import com.hotelease.controller.support.KeysetTableLoader;
+import com.hotelease.controller.support.LoadedView;
+import com.hotelease.controller.support.ViewRegistry;
 import com.hotelease.model.Role;
 import com.hotelease.model.Room;
 import com.hotelease.model.User;
+import com.hotelease.repository.BookingConflictException;
+import com.hotelease.repository.Page;
 import com.hotelease.service.AuthService;
 import com.hotelease.service.BookingService;
 import com.hotelease.service.RoomService;
@@ -12,25 +19,30 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
-import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 public class RoomController {
 
+    private static final String ANY_ROOM_TYPE = "ANY";
+    private static final String BOOK_ROOM = "book-room";
+
     @FXML
     private TableView<Room> roomTable;
 
@@ -97,20 +109,31 @@ public class RoomController {
     @FXML
     private DatePicker guestCheckOutPicker;
 
+    @FXML
+    private ComboBox<String> guestRoomTypeCombo;
+
     @FXML
     private Button bookButton;
 
+    @FXML
+    private ProgressIndicator loadingIndicator;
+
     private final ObservableList<Room> rooms = FXCollections.observableArrayList();
+    private KeysetTableLoader<Room, String> roomLoader;
+    private BackgroundLoader backgroundLoader;
+    private volatile GuestSearch guestSearch;
     private final RoomService roomService;
     private final BookingService bookingService;
+    private final ViewRegistry views;
     private Stage stage;
     private String stylesheet;
     private User user;
     private AuthService authService;
 
-    public RoomController(RoomService roomService, BookingService bookingService) {
+    public RoomController(RoomService roomService, BookingService bookingService, ViewRegistry views) {
         this.roomService = roomService;
         this.bookingService = bookingService;
+        this.views = views;
     }
 
     @FXML
@@ -121,16 +144,28 @@ public class RoomController {
         rateColumn.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getRate()));
 
         roomTypeCombo.setItems(FXCollections.observableArrayList("SINGLE", "DOUBLE", "SUITE"));
+        guestRoomTypeCombo.setItems(FXCollections.observableArrayList(ANY_ROOM_TYPE, "SINGLE", "DOUBLE", "SUITE"));
+        guestRoomTypeCombo.getSelectionModel().select(ANY_ROOM_TYPE);
         statusCombo.setItems(FXCollections.observableArrayList("AVAILABLE", "OCCUPIED", "MAINTENANCE"));
 
         roomTable.setItems(rooms);
+        backgroundLoader = new BackgroundLoader(roomTable, ex -> showMessage("Failed to load rooms.", true));
+        backgroundLoader.bindIndicator(loadingIndicator);
+        roomLoader = new KeysetTableLoader<>(roomTable, rooms, (after, pageSize) -> {
+            GuestSearch search = guestSearch;
+            return search != null
+                    ? Page.complete(findRoomsForGuestStay(search))
+                    : roomService.getRoomPage(after, pageSize);
+        }, backgroundLoader, new KeyedListPatcher<>(Room::getId, Room::getRoomNumber, Room::getRoomType, Room::getStatus, Room::getRate));
+        guestCheckInPicker.valueProperty().addListener((obs, oldDate, newDate) -> refreshGuestSearch());
+        guestCheckOutPicker.valueProperty().addListener((obs, oldDate, newDate) -> refreshGuestSearch());
+        guestRoomTypeCombo.valueProperty().addListener((obs, oldType, newType) -> refreshGuestSearch());
         roomTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSel, newSel) -> {
             if (!isGuestUser()) {
                 populateForm(newSel);
             }
             updateGuestDetails(newSel);
         });
-        refreshRooms();
     }
 
     public void setStage(Stage stage) {
@@ -208,9 +243,9 @@ public class RoomController {
             return;
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/dashboard.fxml"));
-            Pane root = loader.load();
-            DashboardController controller = loader.getController();
+            LoadedView<DashboardController> view = views.load(ViewRegistry.DASHBOARD);
+            Parent root = view.root();
+            DashboardController controller = view.controller();
             controller.setStage(stage);
             controller.setStylesheet(stylesheet);
             controller.setAuthService(authService);
@@ -244,12 +279,44 @@ public class RoomController {
         if (roomService == null) {
             return;
         }
+        boolean guest = isGuestUser();
+        guestSearch = guest ? captureGuestSearch() : null;
+        roomLoader.refresh(loaded -> {
+            if (guest) {
+                clearGuestDetails();
+            }
+        });
+    }
+
+    private void refreshGuestSearch() {
         if (isGuestUser()) {
-            rooms.setAll(roomService.getAvailableRooms());
-            clearGuestDetails();
-        } else {
-            rooms.setAll(roomService.getAllRooms());
+            refreshRooms();
+        }
+    }
+
+    /**
+     * Reads the stay picked by the guest, or tonight while no dates are chosen, so the search can run off
+     * the JavaFX thread.
+     */
+    private GuestSearch captureGuestSearch() {
+        LocalDate checkIn = guestCheckInPicker.getValue();
+        LocalDate checkOut = guestCheckOutPicker.getValue();
+        if (checkIn == null && checkOut == null) {
+            checkIn = LocalDate.now();
+            checkOut = checkIn.plusDays(1);
+        }
+        String roomType = guestRoomTypeCombo.getValue();
+        return new GuestSearch(checkIn, checkOut, ANY_ROOM_TYPE.equals(roomType) ? null : roomType);
+    }
+
+    /**
+     * A half-picked or reversed range shows no rooms rather than rooms that may not be free.
+     */
+    private List<Room> findRoomsForGuestStay(GuestSearch search) {
+        if (search.checkIn() == null || search.checkOut() == null || !search.checkOut().isAfter(search.checkIn())) {
+            return List.of();
         }
+        return roomService.getAvailableRooms(search.checkIn(), search.checkOut(), search.roomType());
     }
 
     private void clearForm() {
@@ -355,22 +422,51 @@ public class RoomController {
             showMessage("Select check-in and check-out dates.", true);
             return;
         }
-        if (checkOut.isBefore(checkIn)) {
-            showMessage("Check-out cannot be before check-in.", true);
+        if (!checkOut.isAfter(checkIn)) {
+            showMessage("Check-out must be after check-in.", true);
             return;
         }
-        try {
-            bookingService.createGuestBooking(user, selected.getRoomNumber(), checkIn, checkOut);
-            roomService.markRoomStatus(selected, "OCCUPIED");
-            showMessage("Room booked successfully.", false);
-            guestCheckInPicker.setValue(null);
-            guestCheckOutPicker.setValue(null);
+        if (backgroundLoader.isLoading(BOOK_ROOM)) {
+            return;
+        }
+        User guest = user;
+        bookButton.setDisable(true);
+        // The loader thread works on a copy; the row itself is only touched on this thread.
+        Room room = new Room(selected.getId(), selected.getRoomNumber(), selected.getRoomType(), selected.getStatus(),
+                selected.getRate());
+        backgroundLoader.load(BOOK_ROOM, () -> bookRoom(guest, room, checkIn, checkOut), outcome -> {
+            if (outcome.nextFreeDate() != null) {
+                showMessage("Room " + selected.getRoomNumber() + " is taken for those dates; it is free for "
+                        + outcome.nights() + " night(s) from " + outcome.nextFreeDate() + ".", true);
+            } else {
+                showMessage("Room booked successfully.", false);
+                guestCheckInPicker.setValue(null);
+                guestCheckOutPicker.setValue(null);
+            }
             refreshRooms();
-        } catch (IllegalArgumentException ex) {
-            showMessage(ex.getMessage(), true);
-        } catch (Exception ex) {
-            showMessage("Failed to book room.", true);
+        }, ex -> {
+            showMessage(ex instanceof IllegalArgumentException ? ex.getMessage() : "Failed to book room.", true);
+            updateGuestDetails(roomTable.getSelectionModel().getSelectedItem());
+        });
+    }
+
+    /**
+     * Runs on a loader thread: the booking is a database write, and the next free date can wait for the
+     * booking index to reload. The save itself decides whether the room is taken, since the index may
+     * still hold a stay another station has cancelled.
+     */
+    private BookingOutcome bookRoom(User guest, Room room, LocalDate checkIn, LocalDate checkOut) {
+        int nights = (int) ChronoUnit.DAYS.between(checkIn, checkOut);
+        try {
+            bookingService.createGuestBooking(guest, room.getRoomNumber(), checkIn, checkOut);
+        } catch (BookingConflictException e) {
+            return new BookingOutcome(nights, bookingService.findFirstFreeDate(room.getRoomNumber(), checkIn, nights));
         }
+        LocalDate today = LocalDate.now();
+        if (!checkIn.isAfter(today) && checkOut.isAfter(today)) {
+            roomService.markRoomStatus(room, "OCCUPIED");
+        }
+        return new BookingOutcome(nights, null);
     }
 
     private boolean isGuestUser() {
@@ -381,4 +477,13 @@ public class RoomController {
                 .map(Role::getName)
                 .anyMatch(name -> "GUEST".equalsIgnoreCase(name));
     }
+
+    private record GuestSearch(LocalDate checkIn, LocalDate checkOut, String roomType) {
+    }
+
+    /**
+     * {@code nextFreeDate} is null when the room was booked.
+     */
+    private record BookingOutcome(int nights, LocalDate nextFreeDate) {
+    }
 }
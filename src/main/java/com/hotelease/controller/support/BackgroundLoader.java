@@ -0,0 +1,168 @@
+package com.hotelease.controller.support;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.scene.Node;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs a view's database reads on a shared pool of background threads and hands the results back on the
+ * JavaFX application thread. Each load has a key: while one is in flight, further requests for the same
+ * key are coalesced so that only the latest runs next, and the superseded result is dropped. When the
+ * view is taken out of its scene every outstanding load is cancelled.
+ *
+ * <p>Cancellation stops queued work and discards results; a query that is already running is left to
+ * finish, since interrupting a thread inside H2 closes its file channel.</p>
+ *
+ * <p>All methods, the constructor included, must be called on the JavaFX application thread. Views create
+ * their loader in {@code initialize()}, which {@link ViewRegistry} runs on that thread for preloaded views
+ * too.</p>
+ */
+public class BackgroundLoader {
+
+    public static final String THREADS_PROPERTY = "hotelease.loader.threads";
+
+    private static final System.Logger LOGGER = System.getLogger(BackgroundLoader.class.getName());
+    private static final ExecutorService EXECUTOR = newExecutor();
+
+    private final Map<Object, Request<?>> running = new HashMap<>();
+    private final Map<Object, Request<?>> pending = new HashMap<>();
+    private final ReadOnlyBooleanWrapper loading = new ReadOnlyBooleanWrapper(this, "loading");
+    private final Consumer<Throwable> failureHandler;
+
+    /**
+     * @param view           any node of the view; once it leaves its scene the outstanding loads are cancelled
+     * @param failureHandler called on the JavaFX thread when a load without its own handler fails
+     */
+    public BackgroundLoader(Node view, Consumer<Throwable> failureHandler) {
+        this.failureHandler = failureHandler;
+        view.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                cancelAll();
+            }
+        });
+    }
+
+    /**
+     * Fixed pool of {@code hotelease.loader.threads} workers, two by default: enough for one view's table
+     * and a side panel to load together without letting reads crowd out the connection pool.
+     */
+    private static ExecutorService newExecutor() {
+        int threads = Math.max(1, Integer.getInteger(THREADS_PROPERTY, 2));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "hotelease-loader-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public <T> void load(Object key, Supplier<T> work, Consumer<? super T> onLoaded) {
+        load(key, work, onLoaded, failureHandler);
+    }
+
+    public <T> void load(Object key, Supplier<T> work, Consumer<? super T> onLoaded, Consumer<Throwable> onFailed) {
+        Request<T> request = new Request<>(key, work, onLoaded, onFailed);
+        if (running.containsKey(key)) {
+            pending.put(key, request);
+        } else {
+            start(request);
+        }
+    }
+
+    public boolean isLoading(Object key) {
+        return running.containsKey(key);
+    }
+
+    public void cancel(Object key) {
+        pending.remove(key);
+        Request<?> request = running.remove(key);
+        if (request != null) {
+            request.cancelled = true;
+        }
+        loading.set(!running.isEmpty());
+    }
+
+    public void cancelAll() {
+        pending.clear();
+        running.values().forEach(request -> request.cancelled = true);
+        running.clear();
+        loading.set(false);
+    }
+
+    /**
+     * True while any load of this view is in flight.
+     */
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading.getReadOnlyProperty();
+    }
+
+    /**
+     * Shows {@code indicator} only while something is loading; {@code null} is ignored so views without
+     * one can share the same setup code.
+     */
+    public void bindIndicator(Node indicator) {
+        if (indicator != null) {
+            indicator.visibleProperty().bind(loading);
+        }
+    }
+
+    private <T> void start(Request<T> request) {
+        running.put(request.key, request);
+        loading.set(true);
+        CompletableFuture.supplyAsync(() -> request.cancelled ? null : request.work.get(), EXECUTOR)
+                .whenComplete((value, error) -> Platform.runLater(() -> finish(request, value, error)));
+    }
+
+    private <T> void finish(Request<T> request, T value, Throwable error) {
+        if (running.get(request.key) != request) {
+            return;
+        }
+        running.remove(request.key);
+        Request<?> next = pending.remove(request.key);
+        if (next != null) {
+            start(next);
+            return;
+        }
+        loading.set(!running.isEmpty());
+        if (error == null) {
+            request.onLoaded.accept(value);
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        LOGGER.log(System.Logger.Level.WARNING, "Background load " + request.key + " failed", cause);
+        if (request.onFailed != null) {
+            request.onFailed.accept(cause);
+        }
+    }
+
+    private static final class Request<T> {
+        private final Object key;
+        private final Supplier<T> work;
+        private final Consumer<? super T> onLoaded;
+        private final Consumer<Throwable> onFailed;
+        private volatile boolean cancelled;
+
+        private Request(Object key, Supplier<T> work, Consumer<? super T> onLoaded, Consumer<Throwable> onFailed) {
+            this.key = key;
+            this.work = work;
+            this.onLoaded = onLoaded;
+            this.onFailed = onFailed;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.hotelease.controller.support;
+
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Brings an {@link ObservableList} in line with a freshly loaded list by removing, inserting, moving or
+ * replacing only the rows that differ, matched by key. Rows whose key and displayed fields are unchanged
+ * stay as they are, so the table keeps its cells, scroll position and selection.
+ *
+ * <p>The models compare by id only and are edited in place by the controllers, so a row counts as changed
+ * when its fields differ either from the object in the list or from the values last applied through this
+ * patcher; the latter catches an edit that was saved and has not been redrawn yet. Use one patcher per
+ * list.</p>
+ */
+public class KeyedListPatcher<T> {
+
+    private final Function<? super T, ?> key;
+    private final List<Function<? super T, ?>> fields;
+    private final Map<Object, List<Object>> applied = new HashMap<>();
+
+    @SafeVarargs
+    public KeyedListPatcher(Function<? super T, ?> key, Function<? super T, ?>... fields) {
+        this.key = key;
+        List<Function<? super T, ?>> copy = new ArrayList<>(fields.length);
+        for (Function<? super T, ?> field : fields) {
+            copy.add(field);
+        }
+        this.fields = List.copyOf(copy);
+    }
+
+    /**
+     * Makes {@code target} equal to {@code fresh}, element for element, with as few list changes as the
+     * order allows. Falls back to {@link ObservableList#setAll} if {@code fresh} repeats a key.
+     */
+    public void patch(ObservableList<T> target, List<? extends T> fresh) {
+        Set<Object> freshKeys = new HashSet<>();
+        for (T item : fresh) {
+            if (!freshKeys.add(key.apply(item))) {
+                applied.clear();
+                target.setAll(fresh);
+                record(fresh);
+                return;
+            }
+        }
+
+        removeMissing(target, freshKeys);
+        Set<Object> present = new HashSet<>();
+        for (T item : target) {
+            present.add(key.apply(item));
+        }
+
+        int index = 0;
+        while (index < fresh.size()) {
+            T item = fresh.get(index);
+            Object itemKey = key.apply(item);
+            if (index < target.size() && Objects.equals(key.apply(target.get(index)), itemKey)) {
+                if (changed(target.get(index), item)) {
+                    target.set(index, item);
+                }
+                index++;
+            } else if (!present.contains(itemKey)) {
+                int end = index + 1;
+                while (end < fresh.size() && !present.contains(key.apply(fresh.get(end)))) {
+                    end++;
+                }
+                target.addAll(index, fresh.subList(index, end));
+                index = end;
+            } else {
+                target.remove(indexOf(target, itemKey, index + 1));
+                target.add(index, item);
+                index++;
+            }
+        }
+        if (target.size() > fresh.size()) {
+            target.remove(fresh.size(), target.size());
+        }
+
+        applied.clear();
+        record(fresh);
+    }
+
+    /**
+     * Adds a further page of rows to the end of {@code target}.
+     */
+    public void append(ObservableList<T> target, List<? extends T> more) {
+        target.addAll(more);
+        record(more);
+    }
+
+    private void removeMissing(ObservableList<T> target, Set<Object> freshKeys) {
+        int end = target.size();
+        while (end > 0) {
+            if (freshKeys.contains(key.apply(target.get(end - 1)))) {
+                end--;
+                continue;
+            }
+            int start = end - 1;
+            while (start > 0 && !freshKeys.contains(key.apply(target.get(start - 1)))) {
+                start--;
+            }
+            target.remove(start, end);
+            end = start;
+        }
+    }
+
+    private int indexOf(List<T> target, Object itemKey, int from) {
+        for (int i = from; i < target.size(); i++) {
+            if (Objects.equals(key.apply(target.get(i)), itemKey)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Row " + itemKey + " vanished while patching");
+    }
+
+    private boolean changed(T current, T fresh) {
+        List<Object> freshValues = values(fresh);
+        List<Object> before = applied.get(key.apply(current));
+        return (before != null && !before.equals(freshValues)) || !values(current).equals(freshValues);
+    }
+
+    private void record(List<? extends T> items) {
+        for (T item : items) {
+            applied.put(key.apply(item), values(item));
+        }
+    }
+
+    private List<Object> values(T item) {
+        List<Object> values = new ArrayList<>(fields.size());
+        for (Function<? super T, ?> field : fields) {
+            values.add(field.apply(item));
+        }
+        return values;
+    }
+}
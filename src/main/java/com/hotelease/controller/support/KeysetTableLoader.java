@@ -0,0 +1,137 @@
+package com.hotelease.controller.support;
+
+import com.hotelease.repository.KeysetCursor;
+import com.hotelease.repository.Page;
+import javafx.collections.ObservableList;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Fills a {@link TableView} from a keyset-paginated source. Only the first page is loaded up front; the
+ * next page is fetched when the last visible row comes within {@code prefetchMargin} rows of the end of
+ * what has been loaded so far. Pages are fetched through a {@link BackgroundLoader}, so the source is
+ * called off the JavaFX thread and must not read controls.
+ */
+public class KeysetTableLoader<T, K> {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_PREFETCH_MARGIN = 25;
+
+    private final TableView<T> table;
+    private final ObservableList<T> items;
+    private final PageSource<T, K> source;
+    private final BackgroundLoader loader;
+    private final KeyedListPatcher<T> patcher;
+    private final int pageSize;
+    private final int prefetchMargin;
+
+    private VirtualFlow<?> flow;
+    private KeysetCursor<K> next;
+    private long estimatedTotal = Page.UNKNOWN_TOTAL;
+
+    public KeysetTableLoader(TableView<T> table, ObservableList<T> items, PageSource<T, K> source,
+                             BackgroundLoader loader, KeyedListPatcher<T> patcher) {
+        this(table, items, source, loader, patcher, DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_MARGIN);
+    }
+
+    public KeysetTableLoader(TableView<T> table, ObservableList<T> items, PageSource<T, K> source,
+                             BackgroundLoader loader, KeyedListPatcher<T> patcher, int pageSize, int prefetchMargin) {
+        this.table = table;
+        this.items = items;
+        this.source = source;
+        this.loader = loader;
+        this.patcher = patcher;
+        this.pageSize = pageSize;
+        this.prefetchMargin = prefetchMargin;
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> attachToFlow());
+        attachToFlow();
+    }
+
+    /**
+     * Reloads from the first page, fetching at least as many rows as are currently shown so the user's
+     * scroll position and selection survive a refresh. Only rows that changed are touched in the table.
+     * A refresh requested while another is running replaces it.
+     */
+    public void refresh() {
+        refresh(loaded -> {
+        });
+    }
+
+    /**
+     * Like {@link #refresh()}, then passes the reloaded rows to {@code onRefreshed} on the JavaFX thread.
+     */
+    public void refresh(Consumer<List<T>> onRefreshed) {
+        int target = Math.max(pageSize, items.size());
+        loader.load(this, () -> fetchFirstPages(target), result -> {
+            estimatedTotal = result.estimatedTotal();
+            next = result.next();
+            T selected = table.getSelectionModel().getSelectedItem();
+            patcher.patch(items, result.items());
+            if (selected != null && table.getSelectionModel().isEmpty()) {
+                int index = items.indexOf(selected);
+                if (index >= 0) {
+                    table.getSelectionModel().select(index);
+                }
+            }
+            onRefreshed.accept(result.items());
+        });
+    }
+
+    /**
+     * Total row count reported with the first page, or {@link Page#UNKNOWN_TOTAL} before the first refresh.
+     */
+    public long getEstimatedTotal() {
+        return estimatedTotal;
+    }
+
+    public boolean hasMore() {
+        return next != null;
+    }
+
+    private Loaded<T, K> fetchFirstPages(int target) {
+        Page<T, K> page = source.fetch(null, pageSize);
+        long total = page.estimatedTotal();
+        List<T> loaded = new ArrayList<>(page.items());
+        while (page.hasNext() && loaded.size() < target) {
+            page = source.fetch(page.next(), pageSize);
+            loaded.addAll(page.items());
+        }
+        return new Loaded<>(loaded, page.next(), total);
+    }
+
+    private void attachToFlow() {
+        if (!(table.lookup(".virtual-flow") instanceof VirtualFlow<?> virtualFlow) || virtualFlow == flow) {
+            return;
+        }
+        flow = virtualFlow;
+        flow.positionProperty().addListener((obs, oldPosition, newPosition) -> loadNextPageIfNeeded());
+    }
+
+    private void loadNextPageIfNeeded() {
+        if (next == null || loader.isLoading(this) || flow == null) {
+            return;
+        }
+        IndexedCell<?> lastVisible = flow.getLastVisibleCell();
+        if (lastVisible == null || lastVisible.getIndex() < items.size() - prefetchMargin) {
+            return;
+        }
+        KeysetCursor<K> after = next;
+        loader.load(this, () -> source.fetch(after, pageSize), page -> {
+            next = page.next();
+            patcher.append(items, page.items());
+        });
+    }
+
+    @FunctionalInterface
+    public interface PageSource<T, K> {
+        Page<T, K> fetch(KeysetCursor<K> after, int pageSize);
+    }
+
+    private record Loaded<T, K>(List<T> items, KeysetCursor<K> next, long estimatedTotal) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.hotelease.controller.support;
+
+import javafx.scene.Parent;
+
+/**
+ * A view loaded from FXML together with its controller.
+ */
+public record LoadedView<C>(Parent root, C controller) {
+}
@@ -0,0 +1,194 @@
+package com.hotelease.controller.support;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.util.Callback;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Loads the application's FXML views. The bytes of each FXML file are kept in memory so a build does not
+ * go back to the class path, but every build still parses the FXML with a new {@link FXMLLoader}. To keep
+ * that parse off the navigation path, views that are likely to be opened next are built ahead of time, so
+ * navigating to one only has to configure its controller and swap the scene root. The FXML is read on a
+ * background thread; the build itself is queued on the JavaFX application thread behind the events already
+ * waiting there, since controllers set up JavaFX state such as a {@link BackgroundLoader} in
+ * {@code initialize()}.
+ *
+ * <p>A preloaded view is handed out once and a replacement is then built in the background. Views are
+ * never handed out twice: their controllers keep the signed-in user and the loads started for it, so a
+ * view must not do any work in {@code initialize()} that depends on the user or the database. Each call
+ * to {@link #preload(Collection)} replaces the views kept ready, so a view the next user cannot open is
+ * no longer rebuilt for them.</p>
+ */
+public class ViewRegistry {
+
+    public static final String DASHBOARD = "/view/dashboard.fxml";
+    public static final String BOOKINGS = "/view/booking.fxml";
+    public static final String ROOMS = "/view/rooms.fxml";
+    public static final String BILLING = "/view/billing.fxml";
+    public static final String HOUSEKEEPING = "/view/housekeeping.fxml";
+    public static final String HELP = "/view/help.fxml";
+    public static final String REGISTER_EMPLOYEE = "/view/register-employee.fxml";
+
+    private static final System.Logger LOGGER = System.getLogger(ViewRegistry.class.getName());
+
+    private final Map<String, Callback<Class<?>, Object>> controllerFactories = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> fxmlSources = new ConcurrentHashMap<>();
+    private final Map<String, LoadedView<?>> spares = new ConcurrentHashMap<>();
+    private final Set<String> preloaded = ConcurrentHashMap.newKeySet();
+    private final Set<String> building = ConcurrentHashMap.newKeySet();
+    private final ExecutorService preloader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hotelease-view-preload");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * Sets how controllers are created for {@code view}; views without a factory use the controller's
+     * no-argument constructor.
+     */
+    public void register(String view, Callback<Class<?>, Object> controllerFactory) {
+        controllerFactories.put(view, controllerFactory);
+    }
+
+    /**
+     * Creates the controller of {@code view} with {@code constructor}; any nested controllers use their
+     * no-argument constructors.
+     */
+    public <C> void register(String view, Class<C> controllerClass, Supplier<? extends C> constructor) {
+        register(view, param -> param == controllerClass ? constructor.get() : instantiate(param));
+    }
+
+    public Callback<Class<?>, Object> controllerFactory(String view) {
+        return controllerFactories.getOrDefault(view, ViewRegistry::instantiate);
+    }
+
+    /**
+     * Returns a fresh instance of {@code view}, taking the preloaded one if it is ready. Must be called on
+     * the JavaFX application thread.
+     */
+    @SuppressWarnings("unchecked")
+    public <C> LoadedView<C> load(String view) throws IOException {
+        long start = System.nanoTime();
+        LoadedView<?> loaded = spares.remove(view);
+        boolean preloadHit = loaded != null;
+        if (loaded == null) {
+            loaded = build(view);
+        }
+        if (preloaded.contains(view)) {
+            schedule(view);
+        }
+        LOGGER.log(System.Logger.Level.DEBUG, "Loaded {0} in {1} ms (preloaded: {2})", view,
+                (System.nanoTime() - start) / 1_000_000.0, preloadHit);
+        return (LoadedView<C>) loaded;
+    }
+
+    /**
+     * Builds {@code views} ahead of time and keeps one unused instance of each ready from now on. Views
+     * kept ready by an earlier call that are not in {@code views} are dropped. May be called on any thread.
+     */
+    public void preload(Collection<String> views) {
+        preloaded.retainAll(views);
+        spares.keySet().retainAll(views);
+        for (String view : views) {
+            preloaded.add(view);
+            schedule(view);
+        }
+    }
+
+    /**
+     * True if an unused instance of {@code view} is ready to be handed out.
+     */
+    public boolean hasPreloaded(String view) {
+        return spares.containsKey(view);
+    }
+
+    private void schedule(String view) {
+        if (spares.containsKey(view) || !building.add(view)) {
+            return;
+        }
+        preloader.execute(() -> {
+            try {
+                URL location = locate(view);
+                fxmlSource(view, location);
+                Platform.runLater(() -> buildSpare(view));
+            } catch (IOException | RuntimeException e) {
+                preloadFailed(view, e);
+            }
+        });
+    }
+
+    private void buildSpare(String view) {
+        try {
+            if (preloaded.contains(view)) {
+                spares.putIfAbsent(view, build(view));
+            }
+            building.remove(view);
+        } catch (IOException | RuntimeException e) {
+            preloadFailed(view, e);
+        }
+    }
+
+    private void preloadFailed(String view, Exception e) {
+        preloaded.remove(view);
+        building.remove(view);
+        LOGGER.log(System.Logger.Level.WARNING, "Failed to preload " + view, e);
+    }
+
+    private LoadedView<?> build(String view) throws IOException {
+        URL location = locate(view);
+        FXMLLoader loader = new FXMLLoader(location);
+        loader.setControllerFactory(controllerFactory(view));
+        Parent root = loader.load(new ByteArrayInputStream(fxmlSource(view, location)));
+        return new LoadedView<>(root, loader.getController());
+    }
+
+    private static URL locate(String view) throws IOException {
+        URL location = ViewRegistry.class.getResource(view);
+        if (location == null) {
+            throw new IOException("View not found: " + view);
+        }
+        return location;
+    }
+
+    private byte[] fxmlSource(String view, URL location) throws IOException {
+        byte[] source = fxmlSources.get(view);
+        if (source == null) {
+            try (InputStream in = location.openStream()) {
+                source = in.readAllBytes();
+            }
+            fxmlSources.put(view, source);
+        }
+        return source;
+    }
+
+    /**
+     * Stops building spares. Views already handed out keep working.
+     */
+    public void close() {
+        preloaded.clear();
+        spares.clear();
+        preloader.shutdownNow();
+    }
+
+    private static Object instantiate(Class<?> controllerClass) {
+        try {
+            return controllerClass.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to create controller instance", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.hotelease.model;
+
+import java.util.Objects;
+
+/**
+ * One write to a help chat conversation: a new message, or staff or the guest marking it read. {@code id}
+ * is the position in the shared change log, or 0 for a change published directly by this process.
+ */
+public class HelpChatChange {
+
+    public enum Type {
+        MESSAGE,
+        /** Staff marked the conversation read. */
+        READ,
+        GUEST_READ
+    }
+
+    private final long id;
+    private final String guestUsername;
+    private final String roomNumber;
+    private final String recipientRole;
+    private final Type type;
+    private final boolean local;
+
+    public HelpChatChange(long id,
+                          String guestUsername,
+                          String roomNumber,
+                          String recipientRole,
+                          Type type,
+                          boolean local) {
+        this.id = id;
+        this.guestUsername = guestUsername;
+        this.roomNumber = roomNumber;
+        this.recipientRole = recipientRole;
+        this.type = type;
+        this.local = local;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getGuestUsername() {
+        return guestUsername;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public String getRecipientRole() {
+        return recipientRole;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * True if this process made the change; its listeners were notified when it happened.
+     */
+    public boolean isLocal() {
+        return local;
+    }
+
+    public boolean concerns(String guestUsername, String roomNumber, String recipientRole) {
+        return Objects.equals(this.guestUsername, guestUsername)
+                && Objects.equals(this.roomNumber, roomNumber)
+                && Objects.equals(this.recipientRole, recipientRole);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + guestUsername + "/" + roomNumber + "/" + recipientRole + (id > 0 ? " #" + id : "");
+    }
+}
@@ -0,0 +1,44 @@
+package com.hotelease.model;
+
+import java.util.List;
+
+/**
+ * What one viewer needs to show a help chat conversation, read in a single transaction: a page of
+ * messages and the conversation's summary row, including any read mark the page moved.
+ */
+public class HelpChatConversationSnapshot {
+
+    private final List<HelpChatMessage> messages;
+    private final HelpChatConversationSummary summary;
+    private final boolean readMarkMoved;
+
+    public HelpChatConversationSnapshot(List<HelpChatMessage> messages,
+                                        HelpChatConversationSummary summary,
+                                        boolean readMarkMoved) {
+        this.messages = List.copyOf(messages);
+        this.summary = summary;
+        this.readMarkMoved = readMarkMoved;
+    }
+
+    /**
+     * Oldest first.
+     */
+    public List<HelpChatMessage> getMessages() {
+        return messages;
+    }
+
+    /**
+     * The summary row, or null if the conversation has no messages yet.
+     */
+    public HelpChatConversationSummary getSummary() {
+        return summary;
+    }
+
+    public boolean isReadMarkMoved() {
+        return readMarkMoved;
+    }
+
+    public long getNewestMessageId() {
+        return messages.isEmpty() ? 0 : messages.get(messages.size() - 1).getId();
+    }
+}
@@ -11,6 +11,10 @@ public class HelpChatConversationSummary {
     private final String guestName;
     private final long unreadCount;
     private final LocalDateTime lastMessageAt;
+    private final long lastMessageId;
+    private final long staffReadMessageId;
+    private final long guestReadMessageId;
+    private final long guestUnreadCount;
 
     public HelpChatConversationSummary(String roomNumber,
                                        String guestUsername,
@@ -18,12 +22,29 @@ public class HelpChatConversationSummary {
                                        String guestName,
                                        long unreadCount,
                                        LocalDateTime lastMessageAt) {
+        this(roomNumber, guestUsername, recipientRole, guestName, unreadCount, lastMessageAt, 0, 0, 0, 0);
+    }
+
+    public HelpChatConversationSummary(String roomNumber,
+                                       String guestUsername,
+                                       String recipientRole,
+                                       String guestName,
+                                       long unreadCount,
+                                       LocalDateTime lastMessageAt,
+                                       long lastMessageId,
+                                       long staffReadMessageId,
+                                       long guestReadMessageId,
+                                       long guestUnreadCount) {
         this.roomNumber = roomNumber;
         this.guestUsername = guestUsername;
         this.recipientRole = recipientRole;
         this.guestName = guestName;
         this.unreadCount = unreadCount;
         this.lastMessageAt = lastMessageAt;
+        this.lastMessageId = lastMessageId;
+        this.staffReadMessageId = staffReadMessageId;
+        this.guestReadMessageId = guestReadMessageId;
+        this.guestUnreadCount = guestUnreadCount;
     }
 
     public String getRoomNumber() {
@@ -50,6 +71,28 @@ public class HelpChatConversationSummary {
         return lastMessageAt;
     }
 
+    public long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    /**
+     * Newest message id staff have read; guest messages above it are unread.
+     */
+    public long getStaffReadMessageId() {
+        return staffReadMessageId;
+    }
+
+    /**
+     * Newest message id the guest has read; staff messages up to it have been seen.
+     */
+    public long getGuestReadMessageId() {
+        return guestReadMessageId;
+    }
+
+    public long getGuestUnreadCount() {
+        return guestUnreadCount;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
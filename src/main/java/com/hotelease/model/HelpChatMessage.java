@@ -14,7 +14,6 @@ public class HelpChatMessage {
     private String senderUsername;
     private String message;
     private LocalDateTime createdAt;
-    private boolean readByStaff;
 
     public HelpChatMessage() {
     }
@@ -27,8 +26,7 @@ public class HelpChatMessage {
                            String senderType,
                            String senderUsername,
                            String message,
-                           LocalDateTime createdAt,
-                           boolean readByStaff) {
+                           LocalDateTime createdAt) {
         this.id = id;
         this.roomNumber = roomNumber;
         this.guestUsername = guestUsername;
@@ -38,7 +36,6 @@ public class HelpChatMessage {
         this.senderUsername = senderUsername;
         this.message = message;
         this.createdAt = createdAt;
-        this.readByStaff = readByStaff;
     }
 
     public Long getId() {
@@ -113,14 +110,6 @@ public class HelpChatMessage {
         this.createdAt = createdAt;
     }
 
-    public boolean isReadByStaff() {
-        return readByStaff;
-    }
-
-    public void setReadByStaff(boolean readByStaff) {
-        this.readByStaff = readByStaff;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -2,8 +2,11 @@ package com.hotelease.repository;
 
 import com.hotelease.model.Bill;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BillRepository {
 
@@ -17,5 +20,27 @@ public interface BillRepository {
 
     List<Bill> findByGuestUsernameAndStatus(String guestUsername, String status);
 
+    /**
+     * Bills ordered newest first by {@code (issued_date, id)} starting after {@code after}, or from the
+     * newest bill when it is {@code null}. {@code null} guest username or status leaves that filter off.
+     */
+    Page<Bill, LocalDate> findPage(String guestUsername, String status, KeysetCursor<LocalDate> after, int pageSize);
+
+    /**
+     * Streams every bill newest first from an open cursor. The stream holds a connection until it is
+     * exhausted or closed, so consume it in try-with-resources.
+     */
+    Stream<Bill> streamAll(int fetchSize);
+
+    Stream<Bill> streamByStatus(String status, int fetchSize);
+
+    Stream<Bill> streamByGuestUsername(String guestUsername, int fetchSize);
+
     Bill save(Bill bill);
+
+    /**
+     * Inserts new and updates existing bills with JDBC batches in chunked transactions, assigning
+     * generated ids to the new ones. Returns the bills in the order given.
+     */
+    List<Bill> saveAll(Collection<Bill> bills);
 }
@@ -0,0 +1,34 @@
+package com.hotelease.repository;
+
+import com.hotelease.model.Booking;
+
+/**
+ * Thrown when a booking would take a night that another booking already holds in the database, typically
+ * one written by another client since this one last loaded its bookings. Nothing of the failed write is
+ * committed.
+ */
+public class BookingConflictException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Booking requested;
+    private final transient Booking conflicting;
+
+    public BookingConflictException(Booking requested, Booking conflicting) {
+        super("Room " + requested.getRoomNumber() + " is already booked from " + conflicting.getCheckIn() + " to "
+                + conflicting.getCheckOut() + " by booking #" + conflicting.getId());
+        this.requested = requested;
+        this.conflicting = conflicting;
+    }
+
+    public Booking getRequested() {
+        return requested;
+    }
+
+    /**
+     * The booking as stored in the database.
+     */
+    public Booking getConflicting() {
+        return conflicting;
+    }
+}
@@ -2,12 +2,60 @@ package com.hotelease.repository;
 
 import com.hotelease.model.Booking;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookingRepository {
     List<Booking> findAll();
 
     List<Booking> findByGuestUsername(String guestUsername);
 
+    /**
+     * Bookings ordered by {@code (check_in, id)} starting after {@code after}, or from the beginning when
+     * it is {@code null}. A {@code null} guest username pages over every booking.
+     */
+    Page<Booking, LocalDate> findPage(String guestUsername, KeysetCursor<LocalDate> after, int pageSize);
+
+    /**
+     * Streams every booking in {@code (check_in, id)} order from an open cursor. The stream holds a
+     * connection until it is exhausted or closed, so consume it in try-with-resources.
+     */
+    Stream<Booking> streamAll(int fetchSize);
+
+    Stream<Booking> streamByGuestUsername(String guestUsername, int fetchSize);
+
+    /**
+     * Streams the pending, confirmed and checked-in bookings, in no particular order. These are the only
+     * bookings that keep their room from being booked by someone else.
+     */
+    Stream<Booking> streamHoldingRoom(int fetchSize);
+
     Booking save(Booking booking);
+
+    /**
+     * Inserts new and updates existing bookings with JDBC batches in chunked transactions, assigning
+     * generated ids to the new ones. Returns the bookings in the order given.
+     */
+    List<Booking> saveAll(Collection<Booking> bookings);
+
+    /**
+     * {@link #save} that first, in the same transaction, locks the room's row and checks that no other
+     * pending, confirmed or checked-in booking in the database overlaps the stay. Clients writing stays for
+     * the same room therefore take turns, and each sees the bookings the others committed. A booking for a
+     * room number missing from ROOMS is still checked but not locked.
+     *
+     * @throws BookingConflictException if another booking holds one of the nights
+     */
+    Booking saveIfRoomFree(Booking booking);
+
+    /**
+     * {@link #saveAll} with the check of {@link #saveIfRoomFree} run for each chunk inside its transaction.
+     * Overlaps between the given bookings, and with the old dates of bookings being moved among them, are
+     * not reported; the caller checks those.
+     *
+     * @throws BookingConflictException if another booking holds one of the nights; earlier chunks stay committed
+     */
+    List<Booking> saveAllIfRoomsFree(Collection<Booking> bookings);
 }
@@ -1,17 +1,70 @@
 package com.hotelease.repository;
 
+import com.hotelease.model.HelpChatChange;
+import com.hotelease.model.HelpChatConversationSnapshot;
 import com.hotelease.model.HelpChatConversationSummary;
 import com.hotelease.model.HelpChatMessage;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface HelpChatRepository {
 
+    /**
+     * Inserts the message and, in the same transaction, appends a {@link HelpChatChange.Type#MESSAGE} entry
+     * to the change log.
+     */
     HelpChatMessage save(HelpChatMessage message);
 
+    /**
+     * Inserts the messages with JDBC batches in chunked transactions and assigns their generated ids.
+     */
+    List<HelpChatMessage> saveAll(Collection<HelpChatMessage> messages);
+
     List<HelpChatMessage> findConversation(String guestUsername, String roomNumber, String recipientRole);
 
-    void markConversationAsReadByStaff(String guestUsername, String roomNumber, String recipientRole);
+    /**
+     * Up to {@code limit} messages older than {@code beforeMessageId}, oldest first; the page before one
+     * returned by {@link #openConversation}.
+     */
+    List<HelpChatMessage> findMessagesBefore(String guestUsername, String roomNumber, String recipientRole,
+                                             long beforeMessageId, int limit);
+
+    /**
+     * Streams every message in insertion order from an open cursor. The stream holds a connection until
+     * it is exhausted or closed, so consume it in try-with-resources.
+     */
+    Stream<HelpChatMessage> streamAll(int fetchSize);
+
+    Stream<HelpChatMessage> streamConversation(String guestUsername, String roomNumber, String recipientRole, int fetchSize);
+
+    /**
+     * Opens the conversation for one viewer in a single transaction: reads the messages above
+     * {@code afterMessageId}, or the newest {@code limit} if it is 0; with a {@code readMark} of
+     * {@link HelpChatChange.Type#READ} or {@link HelpChatChange.Type#GUEST_READ} moves that read mark up to the
+     * newest of them, capped at the newest message, and if it moved appends an entry of that type to the
+     * change log; then reads the summary row as it stands. A null {@code readMark} leaves the marks alone.
+     */
+    HelpChatConversationSnapshot openConversation(String guestUsername, String roomNumber, String recipientRole,
+                                                  long afterMessageId, int limit, HelpChatChange.Type readMark);
 
     List<HelpChatConversationSummary> findConversationSummariesByRecipientRoles(List<String> recipientRoles);
+
+    Optional<HelpChatConversationSummary> findConversationSummary(String guestUsername, String roomNumber, String recipientRole);
+
+    /**
+     * Highest id in the change log, or 0 if it is empty.
+     */
+    long findLatestChangeId();
+
+    /**
+     * Change log entries with an id above {@code changeId}, oldest first. Entries written by this process
+     * are flagged {@link HelpChatChange#isLocal() local}.
+     */
+    List<HelpChatChange> findChangesAfter(long changeId, int limit);
+
+    int deleteChangesBefore(LocalDateTime cutoff);
 }
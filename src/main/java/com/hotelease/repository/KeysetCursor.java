@@ -0,0 +1,7 @@
+package com.hotelease.repository;
+
+/**
+ * Position of the last row of a page: its sort key plus the row id that breaks ties between equal keys.
+ */
+public record KeysetCursor<K>(K key, long id) {
+}
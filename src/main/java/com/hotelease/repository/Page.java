@@ -0,0 +1,20 @@
+package com.hotelease.repository;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query. {@code next} is {@code null} once the last page has been read.
+ * {@code estimatedTotal} is only computed for the first page and is {@code -1} on later pages.
+ */
+public record Page<T, K>(List<T> items, KeysetCursor<K> next, long estimatedTotal) {
+
+    public static final long UNKNOWN_TOTAL = -1;
+
+    public static <T, K> Page<T, K> complete(List<T> items) {
+        return new Page<>(List.copyOf(items), null, items.size());
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
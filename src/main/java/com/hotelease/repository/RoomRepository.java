@@ -2,6 +2,8 @@ package com.hotelease.repository;
 
 import com.hotelease.model.Room;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,9 +13,27 @@ public interface RoomRepository {
 
     List<Room> findAvailable();
 
+    /**
+     * Rooms not under maintenance that have no pending, confirmed or checked-in booking overlapping the stay
+     * from {@code checkIn} up to (but excluding) {@code checkOut}, ordered by room number. A {@code null}
+     * room type matches every type.
+     */
+    List<Room> findAvailable(LocalDate checkIn, LocalDate checkOut, String roomType);
+
+    /**
+     * Rooms ordered by room number starting after {@code after}, or from the first room when it is {@code null}.
+     */
+    Page<Room, String> findPage(KeysetCursor<String> after, int pageSize);
+
     Optional<Room> findByRoomNumber(String roomNumber);
 
     Room save(Room room);
 
+    /**
+     * Inserts new and updates existing rooms with JDBC batches in chunked transactions, assigning
+     * generated ids to the new ones. Returns the rooms in the order given.
+     */
+    List<Room> saveAll(Collection<Room> rooms);
+
     void deleteById(Long id);
 }
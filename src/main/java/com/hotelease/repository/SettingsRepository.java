@@ -0,0 +1,9 @@
+package com.hotelease.repository;
+
+import java.util.Optional;
+
+public interface SettingsRepository {
+    Optional<String> find(String name);
+
+    void put(String name, String value);
+}
@@ -2,6 +2,8 @@ package com.hotelease.repository;
 
 import com.hotelease.model.User;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 public interface UserRepository {
@@ -9,5 +11,25 @@ public interface UserRepository {
 
     Optional<User> findByEmail(String email);
 
+    /**
+     * {@link #findByUsername} answered from the stored row, never from a cached copy, for decisions such
+     * as signing in that must see changes made from another station.
+     */
+    default Optional<User> findCurrentByUsername(String username) {
+        return findByUsername(username);
+    }
+
+    /**
+     * {@link #findByEmail} answered from the stored row, never from a cached copy.
+     */
+    default Optional<User> findCurrentByEmail(String email) {
+        return findByEmail(email);
+    }
+
+    /**
+     * The users among {@code usernames} that exist, keyed by username.
+     */
+    Map<String, User> findByUsernames(Collection<String> usernames);
+
     User save(User user);
 }
@@ -0,0 +1,25 @@
+package com.hotelease.repository.cache;
+
+import java.time.Duration;
+
+/**
+ * Size bound and time-to-live for one repository cache. A non-positive {@code maxSize} disables caching.
+ */
+public record CacheConfig(int maxSize, Duration timeToLive) {
+
+    private static final String PROPERTY_PREFIX = "hotelease.cache.";
+
+    public CacheConfig {
+        if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Cache timeToLive must be positive");
+        }
+    }
+
+    /**
+     * Reads {@code hotelease.cache.<name>.maxSize} and {@code hotelease.cache.<name>.ttlMs}.
+     */
+    public static CacheConfig fromSystemProperties(String name, int defaultMaxSize, Duration defaultTimeToLive) {
+        return new CacheConfig(Integer.getInteger(PROPERTY_PREFIX + name + ".maxSize", defaultMaxSize),
+                Duration.ofMillis(Long.getLong(PROPERTY_PREFIX + name + ".ttlMs", defaultTimeToLive.toMillis())));
+    }
+}
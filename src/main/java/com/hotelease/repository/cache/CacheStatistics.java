@@ -0,0 +1,24 @@
+package com.hotelease.repository.cache;
+
+/**
+ * Point-in-time view of a repository cache's usage.
+ */
+public record CacheStatistics(int size,
+                              int maxSize,
+                              long hits,
+                              long misses,
+                              long evictions,
+                              long expirations,
+                              long invalidations) {
+
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d max=%d hits=%d misses=%d evictions=%d expirations=%d invalidations=%d hitRatio=%.2f",
+                size, maxSize, hits, misses, evictions, expirations, invalidations, hitRatio());
+    }
+}
@@ -0,0 +1,73 @@
+package com.hotelease.repository.cache;
+
+import com.hotelease.model.Role;
+import com.hotelease.repository.RoleRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache in front of a {@link RoleRepository}. Roles are also interned: every role this
+ * repository or a {@link CachingUserRepository} built on it hands out is one shared instance per id and
+ * name, so cached users do not each hold their own copies.
+ */
+public class CachingRoleRepository implements RoleRepository {
+
+    private static final CacheConfig DEFAULT_CONFIG = CacheConfig.fromSystemProperties("roles", 64, Duration.ofHours(1));
+
+    private final RoleRepository delegate;
+    private final ReadThroughCache<String, Optional<Role>> byName;
+    private final Map<RoleKey, Role> interned = new ConcurrentHashMap<>();
+
+    public CachingRoleRepository(RoleRepository delegate) {
+        this(delegate, DEFAULT_CONFIG);
+    }
+
+    public CachingRoleRepository(RoleRepository delegate, CacheConfig config) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.byName = new ReadThroughCache<>(config);
+    }
+
+    @Override
+    public Optional<Role> findByName(String name) {
+        return byName.get(name, key -> delegate.findByName(key).map(this::intern));
+    }
+
+    @Override
+    public List<Role> findAll() {
+        return delegate.findAll().stream().map(this::intern).toList();
+    }
+
+    @Override
+    public Role save(Role role) {
+        Role saved;
+        try {
+            saved = delegate.save(role);
+        } finally {
+            byName.invalidateIf((name, cached) -> name.equals(role.getName())
+                    || cached.map(Role::getId).filter(id -> id.equals(role.getId())).isPresent());
+        }
+        return intern(saved);
+    }
+
+    public CacheStatistics statistics() {
+        return byName.statistics();
+    }
+
+    /**
+     * The shared instance for {@code role}'s id and name. Roles without an id are not interned.
+     */
+    Role intern(Role role) {
+        if (role == null || role.getId() == null) {
+            return role;
+        }
+        return interned.computeIfAbsent(new RoleKey(role.getId(), role.getName()), key -> new Role(key.id(), key.name()));
+    }
+
+    private record RoleKey(Long id, String name) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.hotelease.repository.cache;
+
+import com.hotelease.model.Role;
+import com.hotelease.model.User;
+import com.hotelease.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of a {@link UserRepository}, keyed by username and by email, for showing
+ * users and their roles. Lookups that find no user are not cached, so a user registered at another
+ * station is found straight away; {@link #save} drops every entry for the saved user's id, username and
+ * email. Callers get their own copy of each user, so editing one before saving it leaves the cache
+ * untouched.
+ *
+ * <p>Other writes made by another process sharing the database are seen once the entry's time-to-live
+ * ends. {@link #findCurrentByUsername} and {@link #findCurrentByEmail} read the database and drop the
+ * entries of the user they find; sign-in and registration checks use them, so a deactivation or password
+ * change made elsewhere applies at once.</p>
+ */
+public class CachingUserRepository implements UserRepository {
+
+    private static final CacheConfig DEFAULT_CONFIG = CacheConfig.fromSystemProperties("users", 1_024, Duration.ofMinutes(5));
+
+    private final UserRepository delegate;
+    private final CachingRoleRepository roleRepository;
+    private final ReadThroughCache<Key, User> users;
+
+    public CachingUserRepository(UserRepository delegate, CachingRoleRepository roleRepository) {
+        this(delegate, roleRepository, DEFAULT_CONFIG);
+    }
+
+    public CachingUserRepository(UserRepository delegate, CachingRoleRepository roleRepository, CacheConfig config) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.roleRepository = Objects.requireNonNull(roleRepository, "roleRepository");
+        this.users = new ReadThroughCache<>(config);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return Optional.ofNullable(users.get(Key.username(username),
+                key -> delegate.findByUsername(key.value()).map(this::internRoles).orElse(null)))
+                .map(CachingUserRepository::copy);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(users.get(Key.email(email),
+                key -> delegate.findByEmail(key.value()).map(this::internRoles).orElse(null)))
+                .map(CachingUserRepository::copy);
+    }
+
+    @Override
+    public Optional<User> findCurrentByUsername(String username) {
+        return refreshed(Key.username(username), delegate.findByUsername(username));
+    }
+
+    @Override
+    public Optional<User> findCurrentByEmail(String email) {
+        return refreshed(Key.email(email), delegate.findByEmail(email));
+    }
+
+    @Override
+    public Map<String, User> findByUsernames(Collection<String> usernames) {
+        List<Key> keys = usernames.stream().map(Key::username).toList();
+        Map<Key, User> cached = users.getAll(keys, missing -> {
+            Map<String, User> loaded = delegate.findByUsernames(missing.stream().map(Key::value).toList());
+            Map<Key, User> byKey = new LinkedHashMap<>();
+            missing.forEach(key -> {
+                User user = loaded.get(key.value());
+                byKey.put(key, user == null ? null : internRoles(user));
+            });
+            return byKey;
+        });
+        Map<String, User> found = new LinkedHashMap<>();
+        cached.forEach((key, user) -> {
+            if (user != null) {
+                found.put(key.value(), copy(user));
+            }
+        });
+        return found;
+    }
+
+    @Override
+    public User save(User user) {
+        try {
+            return delegate.save(user);
+        } finally {
+            invalidate(user);
+        }
+    }
+
+    public CacheStatistics statistics() {
+        return users.statistics();
+    }
+
+    /**
+     * The cached entries for {@code key} and for the stored user may be stale, so they are dropped rather
+     * than refreshed; the next display lookup loads them again.
+     */
+    private Optional<User> refreshed(Key key, Optional<User> stored) {
+        users.invalidateIf((cachedKey, cached) -> cachedKey.equals(key));
+        stored.ifPresent(this::invalidate);
+        return stored.map(this::internRoles);
+    }
+
+    private void invalidate(User user) {
+        users.invalidateIf((key, cached) -> key.matches(user) || Objects.equals(cached.getId(), user.getId()));
+    }
+
+    private User internRoles(User user) {
+        List<Role> roles = List.copyOf(user.getRoles());
+        user.getRoles().clear();
+        roles.forEach(role -> user.getRoles().add(roleRepository.intern(role)));
+        return user;
+    }
+
+    private static User copy(User user) {
+        User copy = new User(user.getId(), user.getUsername(), user.getPasswordHash(), user.getEmail(), user.getPhone(),
+                user.isActive());
+        copy.getRoles().addAll(user.getRoles());
+        return copy;
+    }
+
+    private record Key(boolean email, String value) {
+
+        static Key username(String username) {
+            return new Key(false, username);
+        }
+
+        static Key email(String email) {
+            return new Key(true, email);
+        }
+
+        boolean matches(User user) {
+            return value != null && value.equals(email ? user.getEmail() : user.getUsername());
+        }
+    }
+}
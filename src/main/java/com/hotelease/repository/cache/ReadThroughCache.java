@@ -0,0 +1,143 @@
+package com.hotelease.repository.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU map with a time-to-live per entry. Loads run outside the lock; a load that started before
+ * an invalidation is returned to its caller but not stored, so a save can never be overwritten by an
+ * older read that finished after it. A load that returns {@code null} is handed back but never stored, so
+ * a missing value is looked up again on the next call.
+ */
+final class ReadThroughCache<K, V> {
+
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private long generation;
+
+    ReadThroughCache(CacheConfig config) {
+        this.maxSize = config.maxSize();
+        this.timeToLiveNanos = config.timeToLive().toNanos();
+    }
+
+    V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = lookup(key);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return entry.value();
+            }
+            misses.incrementAndGet();
+            loadGeneration = generation;
+        }
+        V value = loader.apply(key);
+        store(Collections.singletonMap(key, value), loadGeneration);
+        return value;
+    }
+
+    /**
+     * Serves {@code keys} from the cache and loads the rest with a single call to {@code loader}, which
+     * must return an entry, possibly {@code null}, for every key it is given.
+     */
+    Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        Map<K, V> found = new LinkedHashMap<>();
+        List<K> missing = new ArrayList<>();
+        long loadGeneration;
+        synchronized (this) {
+            for (K key : keys) {
+                if (found.containsKey(key) || missing.contains(key)) {
+                    continue;
+                }
+                Entry<V> entry = lookup(key);
+                if (entry != null) {
+                    hits.incrementAndGet();
+                    found.put(key, entry.value());
+                } else {
+                    misses.incrementAndGet();
+                    missing.add(key);
+                }
+            }
+            loadGeneration = generation;
+        }
+        if (!missing.isEmpty()) {
+            Map<K, V> loaded = loader.apply(missing);
+            store(loaded, loadGeneration);
+            found.putAll(loaded);
+        }
+        return found;
+    }
+
+    synchronized void put(K key, V value) {
+        if (maxSize > 0 && value != null) {
+            entries.put(key, new Entry<>(value, System.nanoTime() + timeToLiveNanos));
+            evictOverflow();
+        }
+    }
+
+    /**
+     * Drops every entry matching {@code predicate} and discards loads that are still running.
+     */
+    synchronized void invalidateIf(BiPredicate<K, V> predicate) {
+        generation++;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value())) {
+                iterator.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    synchronized void invalidateAll() {
+        invalidateIf((key, value) -> true);
+    }
+
+    synchronized CacheStatistics statistics() {
+        return new CacheStatistics(entries.size(), maxSize, hits.get(), misses.get(), evictions.get(),
+                expirations.get(), invalidations.get());
+    }
+
+    private Entry<V> lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAtNanos() - System.nanoTime() <= 0) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void store(Map<K, V> values, long loadGeneration) {
+        if (loadGeneration == generation) {
+            values.forEach(this::put);
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+}
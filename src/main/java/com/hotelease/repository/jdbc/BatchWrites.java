@@ -0,0 +1,170 @@
+package com.hotelease.repository.jdbc;
+
+import com.hotelease.config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Writes entities in bulk, one transaction per chunk of {@link #CHUNK_SIZE} rows. Generated keys for a chunk
+ * are read in bulk and assigned only once that chunk has committed. If a chunk fails, it is rolled back and
+ * the exception reports how many entities were already committed by earlier chunks.
+ *
+ * <p>H2 has no batch protocol: {@code executeBatch} runs each row as its own command, one round trip apiece
+ * on a remote connection. New rows are therefore inserted with multi-row {@code VALUES} lists built from the
+ * single-row insert. Row counts per statement are powers of two up to {@link #MAX_ROWS_PER_INSERT}, so the
+ * pool's statement cache only ever sees a handful of shapes. Updates still go through a JDBC batch.</p>
+ */
+final class BatchWrites {
+
+    static final int CHUNK_SIZE = Integer.getInteger("hotelease.db.batchSize", 500);
+    static final int MAX_ROWS_PER_INSERT = 256;
+
+    private static final String VALUES_KEYWORD = " VALUES ";
+
+    private BatchWrites() {
+    }
+
+    static <T> List<T> saveAll(Collection<T> entities, Operation<T> insert, Operation<T> update,
+                               Predicate<T> isNew, KeyAssigner<T> keyAssigner, String description) {
+        return saveAll(entities, insert, update, isNew, keyAssigner, null, null, description);
+    }
+
+    static <T> List<T> saveAll(Collection<T> entities, Operation<T> insert, Operation<T> update,
+                               Predicate<T> isNew, KeyAssigner<T> keyAssigner, ChunkStep<T> check, String description) {
+        return saveAll(entities, insert, update, isNew, keyAssigner, check, null, description);
+    }
+
+    /**
+     * @param check      runs first in each chunk's transaction and may reject the chunk by throwing; may be null
+     * @param afterWrite runs in each chunk's transaction once its rows are written, before it commits, so rows
+     *                   derived from the chunk commit with it; may be null
+     */
+    static <T> List<T> saveAll(Collection<T> entities, Operation<T> insert, Operation<T> update,
+                               Predicate<T> isNew, KeyAssigner<T> keyAssigner, ChunkStep<T> check,
+                               ChunkStep<T> afterWrite, String description) {
+        List<T> saved = new ArrayList<>(entities);
+        if (saved.isEmpty()) {
+            return saved;
+        }
+        int committed = 0;
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (int from = 0; from < saved.size(); from += CHUNK_SIZE) {
+                    List<T> chunk = saved.subList(from, Math.min(saved.size(), from + CHUNK_SIZE));
+                    if (check != null) {
+                        check.run(connection, chunk);
+                    }
+                    writeChunk(connection, chunk, insert, update, isNew, keyAssigner, afterWrite);
+                    committed += chunk.size();
+                }
+                return saved;
+            } catch (RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw new IllegalStateException("Failed to save " + description + " after committing "
+                        + committed + " of " + saved.size(), e);
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to save " + description, e);
+        }
+    }
+
+    private static <T> void writeChunk(Connection connection, List<T> chunk, Operation<T> insert, Operation<T> update,
+                                       Predicate<T> isNew, KeyAssigner<T> keyAssigner, ChunkStep<T> afterWrite)
+            throws SQLException {
+        List<T> inserts = new ArrayList<>();
+        List<T> updates = new ArrayList<>();
+        for (T entity : chunk) {
+            (isNew.test(entity) ? inserts : updates).add(entity);
+        }
+        long[] keys = inserts.isEmpty() ? new long[0] : executeInserts(connection, inserts, insert);
+        if (!updates.isEmpty()) {
+            if (update == null) {
+                throw new SQLException("Entities of this type cannot be updated in bulk");
+            }
+            try (PreparedStatement statement = connection.prepareStatement(update.sql())) {
+                for (T entity : updates) {
+                    update.binder().bind(statement, 0, entity);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+        if (afterWrite != null) {
+            afterWrite.run(connection, chunk);
+        }
+        connection.commit();
+        for (int i = 0; i < keys.length; i++) {
+            keyAssigner.assign(inserts.get(i), keys[i]);
+        }
+    }
+
+    private static <T> long[] executeInserts(Connection connection, List<T> inserts, Operation<T> insert) throws SQLException {
+        long[] keys = new long[inserts.size()];
+        int from = 0;
+        while (from < inserts.size()) {
+            int rows = Math.min(MAX_ROWS_PER_INSERT, Integer.highestOneBit(inserts.size() - from));
+            insertRows(connection, inserts.subList(from, from + rows), insert, keys, from);
+            from += rows;
+        }
+        return keys;
+    }
+
+    private static <T> void insertRows(Connection connection, List<T> rows, Operation<T> insert, long[] keys, int keyOffset)
+            throws SQLException {
+        int valuesAt = insert.sql().lastIndexOf(VALUES_KEYWORD) + VALUES_KEYWORD.length();
+        String tuple = insert.sql().substring(valuesAt);
+        int parametersPerRow = (int) tuple.chars().filter(c -> c == '?').count();
+        String sql = insert.sql().substring(0, valuesAt) + String.join(", ", Collections.nCopies(rows.size(), tuple));
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows.size(); i++) {
+                insert.binder().bind(statement, i * parametersPerRow, rows.get(i));
+            }
+            statement.executeUpdate();
+            int index = 0;
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                while (generatedKeys.next() && index < rows.size()) {
+                    keys[keyOffset + index++] = generatedKeys.getLong(1);
+                }
+            }
+            if (index != rows.size()) {
+                throw new SQLException("Bulk insert returned " + index + " generated keys for " + rows.size() + " rows");
+            }
+        }
+    }
+
+    record Operation<T>(String sql, Binder<T> binder) {
+    }
+
+    @FunctionalInterface
+    interface Binder<T> {
+        /**
+         * Binds one entity's columns starting after parameter index {@code offset}.
+         */
+        void bind(PreparedStatement statement, int offset, T entity) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface ChunkStep<T> {
+        void run(Connection connection, List<T> chunk) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface KeyAssigner<T> {
+        void assign(T entity, long id);
+    }
+}
@@ -0,0 +1,47 @@
+package com.hotelease.repository.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prepares queries whose {@code IN} list has one parameter per value. The list is rounded up to a power of
+ * two so only a handful of SQL shapes reach the statement cache; spare slots repeat the last value, which
+ * leaves the result unchanged.
+ */
+final class InLists {
+
+    private InLists() {
+    }
+
+    /**
+     * @param sqlFormat the query with {@code %s} where the {@code IN} list's placeholders go
+     * @param values    at least one value; bound in order from the first parameter
+     */
+    static PreparedStatement prepare(Connection connection, String sqlFormat, List<String> values) throws SQLException {
+        int slots = slots(values.size());
+        PreparedStatement statement = connection.prepareStatement(sql(sqlFormat, slots));
+        try {
+            for (int i = 0; i < slots; i++) {
+                statement.setString(i + 1, values.get(Math.min(i, values.size() - 1)));
+            }
+            return statement;
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The query with {@code slots} placeholders in its {@code IN} list.
+     */
+    static String sql(String sqlFormat, int slots) {
+        return String.format(sqlFormat, String.join(",", Collections.nCopies(slots, "?")));
+    }
+
+    static int slots(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+}
@@ -3,6 +3,8 @@ package com.hotelease.repository.jdbc;
 import com.hotelease.config.DatabaseConfig;
 import com.hotelease.model.Bill;
 import com.hotelease.repository.BillRepository;
+import com.hotelease.repository.KeysetCursor;
+import com.hotelease.repository.Page;
 
 import java.sql.Connection;
 import java.sql.Date;
@@ -12,21 +14,45 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class JdbcBillRepository implements BillRepository {
 
-    private static final String BASE_SELECT = "SELECT b.id, b.invoice_number, b.guest_name, b.guest_username, " +
+    static final String BASE_SELECT = "SELECT b.id, b.invoice_number, b.guest_name, b.guest_username, " +
             "u.phone AS guest_phone, b.amount, b.status, b.issued_date, b.due_date FROM bills b " +
             "LEFT JOIN users u ON u.username = b.guest_username";
-    private static final String SELECT_ALL = BASE_SELECT + " ORDER BY b.issued_date DESC";
-    private static final String SELECT_BY_STATUS = BASE_SELECT + " WHERE b.status = ? ORDER BY b.issued_date DESC";
-    private static final String SELECT_BY_INVOICE = BASE_SELECT + " WHERE b.invoice_number = ?";
-    private static final String SELECT_BY_GUEST = BASE_SELECT + " WHERE b.guest_username = ? ORDER BY b.issued_date DESC";
-    private static final String SELECT_BY_GUEST_AND_STATUS = BASE_SELECT + " WHERE b.guest_username = ? AND b.status = ? ORDER BY b.issued_date DESC";
-    private static final String INSERT_BILL = "INSERT INTO bills (invoice_number, guest_name, guest_username, amount, status, issued_date, due_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
-    private static final String UPDATE_BILL = "UPDATE bills SET invoice_number = ?, guest_name = ?, guest_username = ?, amount = ?, status = ?, issued_date = ?, due_date = ? WHERE id = ?";
+    static final String SELECT_ALL = BASE_SELECT + " ORDER BY b.issued_date DESC";
+    static final String SELECT_BY_STATUS = BASE_SELECT + " WHERE b.status = ? ORDER BY b.issued_date DESC";
+    static final String SELECT_BY_INVOICE = BASE_SELECT + " WHERE b.invoice_number = ?";
+    static final String SELECT_BY_GUEST = BASE_SELECT + " WHERE b.guest_username = ? ORDER BY b.issued_date DESC";
+    static final String SELECT_BY_GUEST_AND_STATUS = BASE_SELECT + " WHERE b.guest_username = ? AND b.status = ? ORDER BY b.issued_date DESC";
+    // Filtered pages repeat the equality columns in ORDER BY so H2 reads them in index order without sorting.
+    static final String PAGE_ORDER = " ORDER BY b.issued_date DESC, b.id DESC LIMIT ?";
+    static final String PAGE_ORDER_BY_STATUS = " ORDER BY b.status, b.issued_date DESC, b.id DESC LIMIT ?";
+    static final String PAGE_ORDER_BY_GUEST = " ORDER BY b.guest_username, b.issued_date DESC, b.id DESC LIMIT ?";
+    static final String PAGE_ORDER_BY_GUEST_AND_STATUS = " ORDER BY b.guest_username, b.status, b.issued_date DESC, b.id DESC LIMIT ?";
+    static final String AFTER_CURSOR = "b.issued_date <= ? AND (b.issued_date < ? OR b.id < ?)";
+    static final String SELECT_PAGE = BASE_SELECT + PAGE_ORDER;
+    static final String SELECT_PAGE_AFTER = BASE_SELECT + " WHERE " + AFTER_CURSOR + PAGE_ORDER;
+    static final String SELECT_PAGE_BY_STATUS = BASE_SELECT + " WHERE b.status = ?" + PAGE_ORDER_BY_STATUS;
+    static final String SELECT_PAGE_BY_STATUS_AFTER = BASE_SELECT + " WHERE b.status = ? AND " + AFTER_CURSOR + PAGE_ORDER_BY_STATUS;
+    static final String SELECT_PAGE_BY_GUEST = BASE_SELECT + " WHERE b.guest_username = ?" + PAGE_ORDER_BY_GUEST;
+    static final String SELECT_PAGE_BY_GUEST_AFTER = BASE_SELECT + " WHERE b.guest_username = ? AND " + AFTER_CURSOR + PAGE_ORDER_BY_GUEST;
+    static final String SELECT_PAGE_BY_GUEST_AND_STATUS = BASE_SELECT + " WHERE b.guest_username = ? AND b.status = ?"
+            + PAGE_ORDER_BY_GUEST_AND_STATUS;
+    static final String SELECT_PAGE_BY_GUEST_AND_STATUS_AFTER = BASE_SELECT + " WHERE b.guest_username = ? AND b.status = ? AND "
+            + AFTER_CURSOR + PAGE_ORDER_BY_GUEST_AND_STATUS;
+    static final String COUNT_BY_STATUS = "SELECT COUNT(*) FROM bills WHERE status = ?";
+    static final String COUNT_BY_GUEST = "SELECT COUNT(*) FROM bills WHERE guest_username = ?";
+    static final String COUNT_BY_GUEST_AND_STATUS = "SELECT COUNT(*) FROM bills WHERE guest_username = ? AND status = ?";
+    static final String STREAM_ALL = BASE_SELECT + " ORDER BY b.issued_date DESC, b.id DESC";
+    static final String STREAM_BY_STATUS = BASE_SELECT + " WHERE b.status = ? ORDER BY b.status, b.issued_date DESC, b.id DESC";
+    static final String STREAM_BY_GUEST = BASE_SELECT + " WHERE b.guest_username = ? ORDER BY b.guest_username, b.issued_date DESC, b.id DESC";
+    static final String INSERT_BILL = "INSERT INTO bills (invoice_number, guest_name, guest_username, amount, status, issued_date, due_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    static final String UPDATE_BILL = "UPDATE bills SET invoice_number = ?, guest_name = ?, guest_username = ?, amount = ?, status = ?, issued_date = ?, due_date = ? WHERE id = ?";
 
     @Override
     public List<Bill> findAll() {
@@ -68,6 +94,78 @@ public class JdbcBillRepository implements BillRepository {
         });
     }
 
+    @Override
+    public Page<Bill, LocalDate> findPage(String guestUsername, String status, KeysetCursor<LocalDate> after, int pageSize) {
+        KeysetPages.checkPageSize(pageSize);
+        boolean byGuest = guestUsername != null;
+        boolean byStatus = status != null;
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(pageQuery(byGuest, byStatus, after != null))) {
+            int index = 1;
+            if (byGuest) {
+                statement.setString(index++, guestUsername);
+            }
+            if (byStatus) {
+                statement.setString(index++, status);
+            }
+            if (after != null) {
+                Date issuedDate = Date.valueOf(after.key());
+                statement.setDate(index++, issuedDate);
+                statement.setDate(index++, issuedDate);
+                statement.setLong(index++, after.id());
+            }
+            statement.setInt(index, pageSize + 1);
+            List<Bill> rows = readBills(statement);
+
+            long total = Page.UNKNOWN_TOTAL;
+            if (after == null) {
+                if (byGuest && byStatus) {
+                    total = KeysetPages.count(connection, COUNT_BY_GUEST_AND_STATUS, guestUsername, status);
+                } else if (byGuest) {
+                    total = KeysetPages.count(connection, COUNT_BY_GUEST, guestUsername);
+                } else if (byStatus) {
+                    total = KeysetPages.count(connection, COUNT_BY_STATUS, status);
+                } else {
+                    total = KeysetPages.estimateRowCount(connection, "BILLS");
+                }
+            }
+            return KeysetPages.toPage(rows, pageSize, bill -> new KeysetCursor<>(bill.getIssuedDate(), bill.getId()), total);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to fetch bills page", e);
+        }
+    }
+
+    @Override
+    public Stream<Bill> streamAll(int fetchSize) {
+        return ResultSetStreams.stream(STREAM_ALL, fetchSize, statement -> {
+        }, this::mapRow, "bills");
+    }
+
+    @Override
+    public Stream<Bill> streamByStatus(String status, int fetchSize) {
+        return ResultSetStreams.stream(STREAM_BY_STATUS, fetchSize,
+                statement -> statement.setString(1, status), this::mapRow, "bills");
+    }
+
+    @Override
+    public Stream<Bill> streamByGuestUsername(String guestUsername, int fetchSize) {
+        return ResultSetStreams.stream(STREAM_BY_GUEST, fetchSize,
+                statement -> statement.setString(1, guestUsername), this::mapRow, "bills");
+    }
+
+    private static String pageQuery(boolean byGuest, boolean byStatus, boolean after) {
+        if (byGuest && byStatus) {
+            return after ? SELECT_PAGE_BY_GUEST_AND_STATUS_AFTER : SELECT_PAGE_BY_GUEST_AND_STATUS;
+        }
+        if (byGuest) {
+            return after ? SELECT_PAGE_BY_GUEST_AFTER : SELECT_PAGE_BY_GUEST;
+        }
+        if (byStatus) {
+            return after ? SELECT_PAGE_BY_STATUS_AFTER : SELECT_PAGE_BY_STATUS;
+        }
+        return after ? SELECT_PAGE_AFTER : SELECT_PAGE;
+    }
+
     @Override
     public Bill save(Bill bill) {
         try (Connection connection = DatabaseConfig.getConnection()) {
@@ -92,25 +190,40 @@ public class JdbcBillRepository implements BillRepository {
         }
     }
 
+    @Override
+    public List<Bill> saveAll(Collection<Bill> bills) {
+        return BatchWrites.saveAll(bills,
+                new BatchWrites.Operation<>(INSERT_BILL, this::setParameters),
+                new BatchWrites.Operation<>(UPDATE_BILL, (statement, offset, bill) -> {
+                    setParameters(statement, offset, bill);
+                    statement.setLong(offset + 8, bill.getId());
+                }),
+                bill -> bill.getId() == null, Bill::setId, "bills");
+    }
+
     private List<Bill> queryBills(String sql, StatementConfigurer configurer) {
         try (Connection connection = DatabaseConfig.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
             configurer.configure(statement);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                List<Bill> bills = new ArrayList<>();
-                while (resultSet.next()) {
-                    bills.add(mapRow(resultSet));
-                }
-                return bills;
-            }
+            return readBills(statement);
         } catch (SQLException e) {
             throw new IllegalStateException("Failed to fetch bills", e);
         }
     }
 
+    private List<Bill> readBills(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            List<Bill> bills = new ArrayList<>();
+            while (resultSet.next()) {
+                bills.add(mapRow(resultSet));
+            }
+            return bills;
+        }
+    }
+
     private long insertBill(Connection connection, Bill bill) throws SQLException {
         try (PreparedStatement statement = connection.prepareStatement(INSERT_BILL, Statement.RETURN_GENERATED_KEYS)) {
-            setParameters(statement, bill);
+            setParameters(statement, 0, bill);
             statement.executeUpdate();
             try (ResultSet keys = statement.getGeneratedKeys()) {
                 if (keys.next()) {
@@ -123,20 +236,20 @@ public class JdbcBillRepository implements BillRepository {
 
     private void updateBill(Connection connection, Bill bill) throws SQLException {
         try (PreparedStatement statement = connection.prepareStatement(UPDATE_BILL)) {
-            setParameters(statement, bill);
+            setParameters(statement, 0, bill);
             statement.setLong(8, bill.getId());
             statement.executeUpdate();
         }
     }
 
-    private void setParameters(PreparedStatement statement, Bill bill) throws SQLException {
-        statement.setString(1, bill.getInvoiceNumber());
-        statement.setString(2, bill.getGuestName());
-        statement.setString(3, bill.getGuestUsername());
-        statement.setBigDecimal(4, bill.getAmount());
-        statement.setString(5, bill.getStatus());
-        statement.setDate(6, Date.valueOf(bill.getIssuedDate()));
-        statement.setDate(7, Date.valueOf(bill.getDueDate()));
+    private void setParameters(PreparedStatement statement, int offset, Bill bill) throws SQLException {
+        statement.setString(offset + 1, bill.getInvoiceNumber());
+        statement.setString(offset + 2, bill.getGuestName());
+        statement.setString(offset + 3, bill.getGuestUsername());
+        statement.setBigDecimal(offset + 4, bill.getAmount());
+        statement.setString(offset + 5, bill.getStatus());
+        statement.setDate(offset + 6, Date.valueOf(bill.getIssuedDate()));
+        statement.setDate(offset + 7, Date.valueOf(bill.getDueDate()));
     }
 
     private Bill mapRow(ResultSet resultSet) throws SQLException {
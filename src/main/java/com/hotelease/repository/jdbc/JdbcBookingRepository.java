@@ -2,7 +2,10 @@ package com.hotelease.repository.jdbc;
 
 import com.hotelease.config.DatabaseConfig;
 import com.hotelease.model.Booking;
+import com.hotelease.repository.BookingConflictException;
 import com.hotelease.repository.BookingRepository;
+import com.hotelease.repository.KeysetCursor;
+import com.hotelease.repository.Page;
 
 import java.sql.Connection;
 import java.sql.Date;
@@ -10,16 +13,40 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class JdbcBookingRepository implements BookingRepository {
 
-    private static final String BASE_SELECT = "SELECT id, guest_name, guest_username, room_number, check_in, check_out, status FROM bookings";
-    private static final String SELECT_ALL = BASE_SELECT + " ORDER BY check_in";
-    private static final String SELECT_BY_GUEST = BASE_SELECT + " WHERE guest_username = ? ORDER BY check_in";
-    private static final String INSERT_BOOKING = "INSERT INTO bookings (guest_name, guest_username, room_number, check_in, check_out, status) VALUES (?, ?, ?, ?, ?, ?)";
-    private static final String UPDATE_BOOKING = "UPDATE bookings SET guest_name = ?, guest_username = ?, room_number = ?, check_in = ?, check_out = ?, status = ? WHERE id = ?";
+    private static final Set<String> HOLDING_STATUSES = Set.of("PENDING", "CONFIRMED", "CHECKED_IN");
+
+    static final String BASE_SELECT = "SELECT id, guest_name, guest_username, room_number, check_in, check_out, status FROM bookings";
+    static final String SELECT_ALL = BASE_SELECT + " ORDER BY check_in";
+    static final String SELECT_BY_GUEST = BASE_SELECT + " WHERE guest_username = ? ORDER BY check_in";
+    // Filtered pages repeat the equality column in ORDER BY so H2 reads them in index order without sorting.
+    static final String PAGE_ORDER = " ORDER BY check_in, id LIMIT ?";
+    static final String PAGE_ORDER_BY_GUEST = " ORDER BY guest_username, check_in, id LIMIT ?";
+    static final String AFTER_CURSOR = "check_in >= ? AND (check_in > ? OR id > ?)";
+    static final String SELECT_PAGE = BASE_SELECT + PAGE_ORDER;
+    static final String SELECT_PAGE_AFTER = BASE_SELECT + " WHERE " + AFTER_CURSOR + PAGE_ORDER;
+    static final String SELECT_PAGE_BY_GUEST = BASE_SELECT + " WHERE guest_username = ?" + PAGE_ORDER_BY_GUEST;
+    static final String SELECT_PAGE_BY_GUEST_AFTER = BASE_SELECT + " WHERE guest_username = ? AND " + AFTER_CURSOR + PAGE_ORDER_BY_GUEST;
+    static final String COUNT_BY_GUEST = "SELECT COUNT(*) FROM bookings WHERE guest_username = ?";
+    static final String STREAM_ALL = BASE_SELECT + " ORDER BY check_in, id";
+    static final String STREAM_BY_GUEST = BASE_SELECT + " WHERE guest_username = ? ORDER BY guest_username, check_in, id";
+    static final String STREAM_HOLDING_ROOM = BASE_SELECT + " WHERE status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')";
+    static final String LOCK_ROOM = "SELECT id FROM rooms WHERE room_number = ? FOR UPDATE";
+    static final String SELECT_OVERLAPPING = BASE_SELECT + " WHERE room_number = ? AND check_out > ? AND check_in < ? " +
+            "AND status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')";
+    static final String INSERT_BOOKING = "INSERT INTO bookings (guest_name, guest_username, room_number, check_in, check_out, status) VALUES (?, ?, ?, ?, ?, ?)";
+    static final String UPDATE_BOOKING = "UPDATE bookings SET guest_name = ?, guest_username = ?, room_number = ?, check_in = ?, check_out = ?, status = ? WHERE id = ?";
 
     @Override
     public List<Booking> findAll() {
@@ -32,6 +59,58 @@ public class JdbcBookingRepository implements BookingRepository {
         return queryBookings(SELECT_BY_GUEST, statement -> statement.setString(1, guestUsername));
     }
 
+    @Override
+    public Page<Booking, LocalDate> findPage(String guestUsername, KeysetCursor<LocalDate> after, int pageSize) {
+        KeysetPages.checkPageSize(pageSize);
+        boolean byGuest = guestUsername != null;
+        String sql = byGuest
+                ? (after == null ? SELECT_PAGE_BY_GUEST : SELECT_PAGE_BY_GUEST_AFTER)
+                : (after == null ? SELECT_PAGE : SELECT_PAGE_AFTER);
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (byGuest) {
+                statement.setString(index++, guestUsername);
+            }
+            if (after != null) {
+                Date checkIn = Date.valueOf(after.key());
+                statement.setDate(index++, checkIn);
+                statement.setDate(index++, checkIn);
+                statement.setLong(index++, after.id());
+            }
+            statement.setInt(index, pageSize + 1);
+            List<Booking> rows = readBookings(statement);
+
+            long total = Page.UNKNOWN_TOTAL;
+            if (after == null) {
+                total = byGuest
+                        ? KeysetPages.count(connection, COUNT_BY_GUEST, guestUsername)
+                        : KeysetPages.estimateRowCount(connection, "BOOKINGS");
+            }
+            return KeysetPages.toPage(rows, pageSize, booking -> new KeysetCursor<>(booking.getCheckIn(), booking.getId()), total);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load bookings page", e);
+        }
+    }
+
+    @Override
+    public Stream<Booking> streamAll(int fetchSize) {
+        return ResultSetStreams.stream(STREAM_ALL, fetchSize, statement -> {
+        }, this::mapRow, "bookings");
+    }
+
+    @Override
+    public Stream<Booking> streamHoldingRoom(int fetchSize) {
+        return ResultSetStreams.stream(STREAM_HOLDING_ROOM, fetchSize, statement -> {
+        }, this::mapRow, "bookings holding a room");
+    }
+
+    @Override
+    public Stream<Booking> streamByGuestUsername(String guestUsername, int fetchSize) {
+        return ResultSetStreams.stream(STREAM_BY_GUEST, fetchSize,
+                statement -> statement.setString(1, guestUsername), this::mapRow, "bookings");
+    }
+
     @Override
     public Booking save(Booking booking) {
         try (Connection connection = DatabaseConfig.getConnection()) {
@@ -44,9 +123,98 @@ public class JdbcBookingRepository implements BookingRepository {
         }
     }
 
+    @Override
+    public List<Booking> saveAll(Collection<Booking> bookings) {
+        return BatchWrites.saveAll(bookings,
+                new BatchWrites.Operation<>(INSERT_BOOKING, this::setBookingParameters),
+                new BatchWrites.Operation<>(UPDATE_BOOKING, (statement, offset, booking) -> {
+                    setBookingParameters(statement, offset, booking);
+                    statement.setLong(offset + 7, booking.getId());
+                }),
+                booking -> booking.getId() == null, Booking::setId, "bookings");
+    }
+
+    @Override
+    public Booking saveIfRoomFree(Booking booking) {
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                checkRoomsFree(connection, List.of(booking));
+                Booking saved = booking.getId() == null ? insertBooking(connection, booking) : updateBooking(connection, booking);
+                connection.commit();
+                return saved;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to save booking", e);
+        }
+    }
+
+    @Override
+    public List<Booking> saveAllIfRoomsFree(Collection<Booking> bookings) {
+        return BatchWrites.saveAll(bookings,
+                new BatchWrites.Operation<>(INSERT_BOOKING, this::setBookingParameters),
+                new BatchWrites.Operation<>(UPDATE_BOOKING, (statement, offset, booking) -> {
+                    setBookingParameters(statement, offset, booking);
+                    statement.setLong(offset + 7, booking.getId());
+                }),
+                booking -> booking.getId() == null, Booking::setId, this::checkRoomsFree, "bookings");
+    }
+
+    /**
+     * Locks the rooms in room number order, so two clients locking overlapping sets cannot deadlock, then
+     * looks for a stored booking that overlaps one of {@code bookings}, other than those being saved.
+     */
+    private void checkRoomsFree(Connection connection, List<Booking> bookings) throws SQLException {
+        List<Booking> holding = bookings.stream()
+                .filter(JdbcBookingRepository::holdsRoom)
+                .sorted(Comparator.comparing(Booking::getRoomNumber))
+                .collect(Collectors.toList());
+        if (holding.isEmpty()) {
+            return;
+        }
+        Set<Long> saving = bookings.stream()
+                .map(Booking::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        try (PreparedStatement statement = connection.prepareStatement(LOCK_ROOM)) {
+            String previous = null;
+            for (Booking booking : holding) {
+                if (booking.getRoomNumber().equals(previous)) {
+                    continue;
+                }
+                previous = booking.getRoomNumber();
+                statement.setString(1, previous);
+                statement.executeQuery().close();
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_OVERLAPPING)) {
+            for (Booking booking : holding) {
+                statement.setString(1, booking.getRoomNumber());
+                statement.setDate(2, Date.valueOf(booking.getCheckIn()));
+                statement.setDate(3, Date.valueOf(booking.getCheckOut()));
+                for (Booking existing : readBookings(statement)) {
+                    if (!saving.contains(existing.getId())) {
+                        throw new BookingConflictException(booking, existing);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean holdsRoom(Booking booking) {
+        return booking.getRoomNumber() != null && booking.getCheckIn() != null && booking.getCheckOut() != null
+                && booking.getCheckOut().isAfter(booking.getCheckIn())
+                && HOLDING_STATUSES.contains(booking.getStatus());
+    }
+
     private Booking insertBooking(Connection connection, Booking booking) throws SQLException {
         try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOKING, Statement.RETURN_GENERATED_KEYS)) {
-            setBookingParameters(statement, booking);
+            setBookingParameters(statement, 0, booking);
             int affected = statement.executeUpdate();
             if (affected == 0) {
                 throw new SQLException("Inserting booking failed, no rows affected");
@@ -62,20 +230,20 @@ public class JdbcBookingRepository implements BookingRepository {
 
     private Booking updateBooking(Connection connection, Booking booking) throws SQLException {
         try (PreparedStatement statement = connection.prepareStatement(UPDATE_BOOKING)) {
-            setBookingParameters(statement, booking);
+            setBookingParameters(statement, 0, booking);
             statement.setLong(7, booking.getId());
             statement.executeUpdate();
         }
         return booking;
     }
 
-    private void setBookingParameters(PreparedStatement statement, Booking booking) throws SQLException {
-        statement.setString(1, booking.getGuestName());
-        statement.setString(2, booking.getGuestUsername());
-        statement.setString(3, booking.getRoomNumber());
-        statement.setDate(4, Date.valueOf(booking.getCheckIn()));
-        statement.setDate(5, Date.valueOf(booking.getCheckOut()));
-        statement.setString(6, booking.getStatus());
+    private void setBookingParameters(PreparedStatement statement, int offset, Booking booking) throws SQLException {
+        statement.setString(offset + 1, booking.getGuestName());
+        statement.setString(offset + 2, booking.getGuestUsername());
+        statement.setString(offset + 3, booking.getRoomNumber());
+        statement.setDate(offset + 4, Date.valueOf(booking.getCheckIn()));
+        statement.setDate(offset + 5, Date.valueOf(booking.getCheckOut()));
+        statement.setString(offset + 6, booking.getStatus());
     }
 
     private Booking mapRow(ResultSet resultSet) throws SQLException {
@@ -94,18 +262,22 @@ public class JdbcBookingRepository implements BookingRepository {
         try (Connection connection = DatabaseConfig.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
             configurer.configure(statement);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                List<Booking> bookings = new ArrayList<>();
-                while (resultSet.next()) {
-                    bookings.add(mapRow(resultSet));
-                }
-                return bookings;
-            }
+            return readBookings(statement);
         } catch (SQLException e) {
             throw new IllegalStateException("Failed to load bookings", e);
         }
     }
 
+    private List<Booking> readBookings(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            List<Booking> bookings = new ArrayList<>();
+            while (resultSet.next()) {
+                bookings.add(mapRow(resultSet));
+            }
+            return bookings;
+        }
+    }
+
     @FunctionalInterface
     private interface StatementConfigurer {
         void configure(PreparedStatement statement) throws SQLException;
@@ -1,6 +1,8 @@
 package com.hotelease.repository.jdbc;
 
 import com.hotelease.config.DatabaseConfig;
+import com.hotelease.model.HelpChatChange;
+import com.hotelease.model.HelpChatConversationSnapshot;
 import com.hotelease.model.HelpChatConversationSummary;
 import com.hotelease.model.HelpChatMessage;
 import com.hotelease.repository.HelpChatRepository;
@@ -13,50 +15,208 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 public class JdbcHelpChatRepository implements HelpChatRepository {
 
-    private static final String INSERT_MESSAGE = "INSERT INTO help_chats (room_number, guest_username, recipient_role, recipient_username, sender_type, sender_username, message, created_at, is_read_by_staff) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-    private static final String SELECT_CONVERSATION = "SELECT id, room_number, guest_username, recipient_role, recipient_username, sender_type, sender_username, message, created_at, is_read_by_staff FROM help_chats WHERE guest_username = ? AND room_number = ? AND recipient_role = ? ORDER BY created_at";
-    private static final String UPDATE_MARK_READ = "UPDATE help_chats SET is_read_by_staff = TRUE WHERE guest_username = ? AND room_number = ? AND recipient_role = ?";
-    private static final String SELECT_SUMMARIES_BY_ROLES =
-            "SELECT hc.room_number, hc.guest_username, hc.recipient_role, b.guest_name, " +
-                    "MAX(hc.created_at) AS last_created, " +
-                    "SUM(CASE WHEN hc.sender_type = 'GUEST' AND hc.is_read_by_staff = FALSE THEN 1 ELSE 0 END) AS unread_count " +
+    /**
+     * Tags this process's entries in the change log so its poller can tell them from other clients' writes.
+     */
+    private static final String ORIGIN = UUID.randomUUID().toString();
+    private static final String DUPLICATE_KEY_STATE = "23505";
+
+    static final String INSERT_MESSAGE = "INSERT INTO help_chats (room_number, guest_username, recipient_role, recipient_username, sender_type, sender_username, message, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String SELECT_CONVERSATION = "SELECT id, room_number, guest_username, recipient_role, recipient_username, sender_type, sender_username, message, created_at FROM help_chats WHERE guest_username = ? AND room_number = ? AND recipient_role = ? ORDER BY created_at";
+    static final String SELECT_CONVERSATION_SINCE = "SELECT id, room_number, guest_username, recipient_role, recipient_username, sender_type, sender_username, message, created_at FROM help_chats WHERE guest_username = ? AND room_number = ? AND recipient_role = ? AND id > ? ORDER BY guest_username, room_number, recipient_role, id DESC";
+    static final String SELECT_LATEST_MESSAGES = "SELECT id, room_number, guest_username, recipient_role, recipient_username, sender_type, sender_username, message, created_at FROM help_chats WHERE guest_username = ? AND room_number = ? AND recipient_role = ? ORDER BY guest_username, room_number, recipient_role, id DESC LIMIT ?";
+    static final String SELECT_MESSAGES_BEFORE = "SELECT id, room_number, guest_username, recipient_role, recipient_username, sender_type, sender_username, message, created_at FROM help_chats WHERE guest_username = ? AND room_number = ? AND recipient_role = ? AND id < ? ORDER BY guest_username, room_number, recipient_role, id DESC LIMIT ?";
+    static final String STREAM_ALL = "SELECT id, room_number, guest_username, recipient_role, recipient_username, sender_type, sender_username, message, created_at FROM help_chats ORDER BY id";
+    static final String STREAM_CONVERSATION = "SELECT id, room_number, guest_username, recipient_role, recipient_username, sender_type, sender_username, message, created_at FROM help_chats WHERE guest_username = ? AND room_number = ? AND recipient_role = ? ORDER BY guest_username, room_number, recipient_role, created_at";
+    static final String SELECT_SUMMARIES_BY_ROLES = "SELECT room_number, guest_username, recipient_role, guest_name, last_message_at, unread_count, last_message_id, staff_read_message_id, guest_read_message_id, guest_unread_count FROM help_chat_conversations WHERE recipient_role IN (%s) ORDER BY last_message_at DESC";
+    static final String SELECT_SUMMARY = "SELECT room_number, guest_username, recipient_role, guest_name, last_message_at, unread_count, last_message_id, staff_read_message_id, guest_read_message_id, guest_unread_count FROM help_chat_conversations WHERE guest_username = ? AND room_number = ? AND recipient_role = ?";
+    static final String SELECT_GUEST_NAME = "SELECT guest_name FROM bookings WHERE guest_username = ? AND room_number = ? ORDER BY id DESC LIMIT 1";
+    static final String MERGE_CONVERSATION_MESSAGE =
+            "MERGE INTO help_chat_conversations c " +
+                    "USING (SELECT CAST(? AS VARCHAR(100)) AS guest_username, CAST(? AS VARCHAR(20)) AS room_number, " +
+                    "CAST(? AS VARCHAR(50)) AS recipient_role, CAST(? AS VARCHAR(150)) AS guest_name, " +
+                    "CAST(? AS TIMESTAMP) AS created_at, CAST(? AS BIGINT) AS message_id, " +
+                    "CAST(? AS BIGINT) AS staff_unread, CAST(? AS BIGINT) AS guest_unread) m " +
+                    "ON c.guest_username = m.guest_username AND c.room_number = m.room_number AND c.recipient_role = m.recipient_role " +
+                    "WHEN MATCHED THEN UPDATE SET guest_name = COALESCE(m.guest_name, c.guest_name), " +
+                    "last_message_at = GREATEST(c.last_message_at, m.created_at), last_message_id = GREATEST(c.last_message_id, m.message_id), " +
+                    "unread_count = c.unread_count + m.staff_unread, guest_unread_count = c.guest_unread_count + m.guest_unread " +
+                    "WHEN NOT MATCHED THEN INSERT (guest_username, room_number, recipient_role, guest_name, last_message_at, last_message_id, unread_count, guest_unread_count) " +
+                    "VALUES (m.guest_username, m.room_number, m.recipient_role, m.guest_name, m.created_at, m.message_id, m.staff_unread, m.guest_unread)";
+    static final String MERGE_CONVERSATION_AGGREGATE =
+            "MERGE INTO help_chat_conversations (guest_username, room_number, recipient_role, guest_name, last_message_at, last_message_id, unread_count, guest_unread_count) " +
+                    "KEY (guest_username, room_number, recipient_role) " +
+                    "SELECT hc.guest_username, hc.room_number, hc.recipient_role, " +
+                    "(SELECT b.guest_name FROM bookings b WHERE b.guest_username = hc.guest_username AND b.room_number = hc.room_number ORDER BY b.id DESC LIMIT 1), " +
+                    "MAX(hc.created_at), MAX(hc.id), " +
+                    "SUM(CASE WHEN hc.sender_type = 'GUEST' AND hc.id > COALESCE(c.staff_read_message_id, 0) THEN 1 ELSE 0 END), " +
+                    "SUM(CASE WHEN hc.sender_type = 'STAFF' AND hc.id > COALESCE(c.guest_read_message_id, 0) THEN 1 ELSE 0 END) " +
                     "FROM help_chats hc " +
-                    "LEFT JOIN bookings b ON b.guest_username = hc.guest_username AND b.room_number = hc.room_number " +
-                    "WHERE hc.recipient_role IN (%s) " +
-                    "GROUP BY hc.room_number, hc.guest_username, hc.recipient_role, b.guest_name " +
-                    "ORDER BY last_created DESC";
+                    "LEFT JOIN help_chat_conversations c ON c.guest_username = hc.guest_username AND c.room_number = hc.room_number AND c.recipient_role = hc.recipient_role " +
+                    "WHERE hc.guest_username = ? AND hc.room_number = ? AND hc.recipient_role = ? " +
+                    "GROUP BY hc.guest_username, hc.room_number, hc.recipient_role";
+    static final String UPDATE_STAFF_READ =
+            "UPDATE help_chat_conversations c SET staff_read_message_id = LEAST(?, c.last_message_id), " +
+                    "unread_count = (SELECT COUNT(*) FROM help_chats hc WHERE hc.guest_username = c.guest_username AND hc.room_number = c.room_number " +
+                    "AND hc.recipient_role = c.recipient_role AND hc.id > LEAST(?, c.last_message_id) AND hc.sender_type = 'GUEST') " +
+                    "WHERE c.guest_username = ? AND c.room_number = ? AND c.recipient_role = ? AND c.staff_read_message_id < LEAST(?, c.last_message_id)";
+    static final String UPDATE_GUEST_READ =
+            "UPDATE help_chat_conversations c SET guest_read_message_id = LEAST(?, c.last_message_id), " +
+                    "guest_unread_count = (SELECT COUNT(*) FROM help_chats hc WHERE hc.guest_username = c.guest_username AND hc.room_number = c.room_number " +
+                    "AND hc.recipient_role = c.recipient_role AND hc.id > LEAST(?, c.last_message_id) AND hc.sender_type = 'STAFF') " +
+                    "WHERE c.guest_username = ? AND c.room_number = ? AND c.recipient_role = ? AND c.guest_read_message_id < LEAST(?, c.last_message_id)";
+    static final String INSERT_CHANGE = "INSERT INTO help_chat_changes (guest_username, room_number, recipient_role, change_type, origin) VALUES (?, ?, ?, ?, ?)";
+    static final String SELECT_LATEST_CHANGE = "SELECT MAX(id) FROM help_chat_changes";
+    static final String SELECT_CHANGES_AFTER = "SELECT id, guest_username, room_number, recipient_role, change_type, origin FROM help_chat_changes WHERE id > ? ORDER BY id LIMIT ?";
+    static final String DELETE_CHANGES_BEFORE = "DELETE FROM help_chat_changes WHERE changed_at < ?";
 
+    /**
+     * The first messages of a new conversation, sent at the same time, can both try to insert its summary
+     * row. The losing transaction is retried once and then updates the row instead.
+     */
     @Override
     public HelpChatMessage save(HelpChatMessage message) {
-        try (Connection connection = DatabaseConfig.getConnection();
-             PreparedStatement statement = connection.prepareStatement(INSERT_MESSAGE, Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, message.getRoomNumber());
-            statement.setString(2, message.getGuestUsername());
+        LocalDateTime createdAt = message.getCreatedAt() == null ? LocalDateTime.now() : message.getCreatedAt();
+        for (int attempt = 1; ; attempt++) {
+            try (Connection connection = DatabaseConfig.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    long id = insertMessage(connection, message, createdAt);
+                    mergeConversation(connection, message, id, createdAt);
+                    insertChange(connection, message.getGuestUsername(), message.getRoomNumber(), message.getRecipientRole(),
+                            HelpChatChange.Type.MESSAGE);
+                    connection.commit();
+                    message.setId(id);
+                    message.setCreatedAt(createdAt);
+                    return message;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    if (attempt == 1 && DUPLICATE_KEY_STATE.equals(e.getSQLState())) {
+                        continue;
+                    }
+                    throw new IllegalStateException("Failed to insert help chat message", e);
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to insert help chat message", e);
+            }
+        }
+    }
+
+    private void mergeConversation(Connection connection, HelpChatMessage message, long id, LocalDateTime createdAt) throws SQLException {
+        String guestName;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_GUEST_NAME)) {
+            statement.setString(1, message.getGuestUsername());
+            statement.setString(2, message.getRoomNumber());
+            try (ResultSet rs = statement.executeQuery()) {
+                guestName = rs.next() ? rs.getString(1) : null;
+            }
+        }
+        boolean fromGuest = "GUEST".equals(message.getSenderType());
+        try (PreparedStatement statement = connection.prepareStatement(MERGE_CONVERSATION_MESSAGE)) {
+            statement.setString(1, message.getGuestUsername());
+            statement.setString(2, message.getRoomNumber());
             statement.setString(3, message.getRecipientRole());
-            statement.setString(4, message.getRecipientUsername());
-            statement.setString(5, message.getSenderType());
-            statement.setString(6, message.getSenderUsername());
-            statement.setString(7, message.getMessage());
-            LocalDateTime createdAt = message.getCreatedAt() == null ? LocalDateTime.now() : message.getCreatedAt();
-            statement.setTimestamp(8, Timestamp.valueOf(createdAt));
-            statement.setBoolean(9, message.isReadByStaff());
+            statement.setString(4, guestName);
+            statement.setTimestamp(5, Timestamp.valueOf(createdAt));
+            statement.setLong(6, id);
+            statement.setLong(7, fromGuest ? 1 : 0);
+            statement.setLong(8, fromGuest ? 0 : 1);
+            statement.executeUpdate();
+        }
+    }
+
+    private long insertMessage(Connection connection, HelpChatMessage message, LocalDateTime createdAt) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_MESSAGE, Statement.RETURN_GENERATED_KEYS)) {
+            setMessageParameters(statement, 0, message, createdAt);
             statement.executeUpdate();
             try (ResultSet keys = statement.getGeneratedKeys()) {
-                if (keys.next()) {
-                    message.setId(keys.getLong(1));
-                    message.setCreatedAt(createdAt);
+                if (!keys.next()) {
+                    throw new SQLException("No id generated for help chat message");
                 }
+                return keys.getLong(1);
             }
-            return message;
-        } catch (SQLException e) {
-            throw new IllegalStateException("Failed to insert help chat message", e);
         }
     }
 
+    private void insertChange(Connection connection, String guestUsername, String roomNumber, String recipientRole,
+                              HelpChatChange.Type type) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_CHANGE)) {
+            setChangeParameters(statement, guestUsername, roomNumber, recipientRole, type);
+            statement.executeUpdate();
+        }
+    }
+
+    private void setChangeParameters(PreparedStatement statement, String guestUsername, String roomNumber,
+                                     String recipientRole, HelpChatChange.Type type) throws SQLException {
+        statement.setString(1, guestUsername);
+        statement.setString(2, roomNumber);
+        statement.setString(3, recipientRole);
+        statement.setString(4, type.name());
+        statement.setString(5, ORIGIN);
+    }
+
+    @Override
+    public List<HelpChatMessage> saveAll(Collection<HelpChatMessage> messages) {
+        LocalDateTime now = LocalDateTime.now();
+        return BatchWrites.saveAll(messages,
+                new BatchWrites.Operation<>(INSERT_MESSAGE, (statement, offset, message) -> {
+                    if (message.getCreatedAt() == null) {
+                        message.setCreatedAt(now);
+                    }
+                    setMessageParameters(statement, offset, message, message.getCreatedAt());
+                }),
+                null, message -> true, HelpChatMessage::setId, null, this::refreshConversations, "help chat messages");
+    }
+
+    /**
+     * Recomputes the summaries of the conversations a chunk of bulk inserts touched, each with its change
+     * entry: one per conversation rather than one per message. Runs in the chunk's transaction, so the
+     * summaries and change entries commit with the messages.
+     */
+    private void refreshConversations(Connection connection, List<HelpChatMessage> messages) throws SQLException {
+        Set<List<String>> conversations = new LinkedHashSet<>();
+        for (HelpChatMessage message : messages) {
+            conversations.add(List.of(message.getGuestUsername(), message.getRoomNumber(), message.getRecipientRole()));
+        }
+        try (PreparedStatement summary = connection.prepareStatement(MERGE_CONVERSATION_AGGREGATE);
+             PreparedStatement change = connection.prepareStatement(INSERT_CHANGE)) {
+            for (List<String> conversation : conversations) {
+                summary.setString(1, conversation.get(0));
+                summary.setString(2, conversation.get(1));
+                summary.setString(3, conversation.get(2));
+                summary.executeUpdate();
+                setChangeParameters(change, conversation.get(0), conversation.get(1), conversation.get(2),
+                        HelpChatChange.Type.MESSAGE);
+                change.executeUpdate();
+            }
+        }
+    }
+
+    private void setMessageParameters(PreparedStatement statement, int offset, HelpChatMessage message,
+                                      LocalDateTime createdAt) throws SQLException {
+        statement.setString(offset + 1, message.getRoomNumber());
+        statement.setString(offset + 2, message.getGuestUsername());
+        statement.setString(offset + 3, message.getRecipientRole());
+        statement.setString(offset + 4, message.getRecipientUsername());
+        statement.setString(offset + 5, message.getSenderType());
+        statement.setString(offset + 6, message.getSenderUsername());
+        statement.setString(offset + 7, message.getMessage());
+        statement.setTimestamp(offset + 8, Timestamp.valueOf(createdAt));
+    }
+
     @Override
     public List<HelpChatMessage> findConversation(String guestUsername, String roomNumber, String recipientRole) {
         try (Connection connection = DatabaseConfig.getConnection();
@@ -77,15 +237,117 @@ public class JdbcHelpChatRepository implements HelpChatRepository {
     }
 
     @Override
-    public void markConversationAsReadByStaff(String guestUsername, String roomNumber, String recipientRole) {
-        try (Connection connection = DatabaseConfig.getConnection();
-             PreparedStatement statement = connection.prepareStatement(UPDATE_MARK_READ)) {
+    public List<HelpChatMessage> findMessagesBefore(String guestUsername, String roomNumber, String recipientRole,
+                                                    long beforeMessageId, int limit) {
+        return findNewestFirst(SELECT_MESSAGES_BEFORE, guestUsername, roomNumber, recipientRole, beforeMessageId, limit);
+    }
+
+    /**
+     * Runs one of the id-bounded conversation queries, which read the conversation index newest first, and
+     * returns the rows oldest first. {@code messageId} and {@code limit} are bound only when not null or 0.
+     */
+    private List<HelpChatMessage> findNewestFirst(String sql, String guestUsername, String roomNumber, String recipientRole,
+                                                  Long messageId, int limit) {
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            return findNewestFirst(connection, sql, guestUsername, roomNumber, recipientRole, messageId, limit);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load conversation", e);
+        }
+    }
+
+    private List<HelpChatMessage> findNewestFirst(Connection connection, String sql, String guestUsername, String roomNumber,
+                                                  String recipientRole, Long messageId, int limit) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            statement.setString(index++, guestUsername);
+            statement.setString(index++, roomNumber);
+            statement.setString(index++, recipientRole);
+            if (messageId != null) {
+                statement.setLong(index++, messageId);
+            }
+            if (limit > 0) {
+                statement.setInt(index, limit);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                List<HelpChatMessage> messages = new ArrayList<>();
+                while (rs.next()) {
+                    messages.add(mapMessage(rs));
+                }
+                Collections.reverse(messages);
+                return messages;
+            }
+        }
+    }
+
+    @Override
+    public Stream<HelpChatMessage> streamAll(int fetchSize) {
+        return ResultSetStreams.stream(STREAM_ALL, fetchSize, statement -> {
+        }, this::mapMessage, "help chat messages");
+    }
+
+    @Override
+    public Stream<HelpChatMessage> streamConversation(String guestUsername, String roomNumber, String recipientRole, int fetchSize) {
+        return ResultSetStreams.stream(STREAM_CONVERSATION, fetchSize, statement -> {
             statement.setString(1, guestUsername);
             statement.setString(2, roomNumber);
             statement.setString(3, recipientRole);
-            statement.executeUpdate();
+        }, this::mapMessage, "help chat messages");
+    }
+
+    /**
+     * Moves one read mark of the conversation's summary row forward, never back, and recounts the unread
+     * messages above it, which reads only the index entries past the new mark.
+     */
+    private int advanceReadMark(Connection connection, String sql, HelpChatChange.Type type, String guestUsername,
+                                String roomNumber, String recipientRole, long upToMessageId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, upToMessageId);
+            statement.setLong(2, upToMessageId);
+            statement.setString(3, guestUsername);
+            statement.setString(4, roomNumber);
+            statement.setString(5, recipientRole);
+            statement.setLong(6, upToMessageId);
+            int updated = statement.executeUpdate();
+            if (updated > 0) {
+                insertChange(connection, guestUsername, roomNumber, recipientRole, type);
+            }
+            return updated;
+        }
+    }
+
+    /**
+     * At most four statements on one connection: the page, the read mark update and its change log entry,
+     * and the summary row.
+     */
+    @Override
+    public HelpChatConversationSnapshot openConversation(String guestUsername, String roomNumber, String recipientRole,
+                                                         long afterMessageId, int limit, HelpChatChange.Type readMark) {
+        String markSql = readMark == null ? null : switch (readMark) {
+            case READ -> UPDATE_STAFF_READ;
+            case GUEST_READ -> UPDATE_GUEST_READ;
+            default -> throw new IllegalArgumentException("Not a read mark: " + readMark);
+        };
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                List<HelpChatMessage> messages = afterMessageId > 0
+                        ? findNewestFirst(connection, SELECT_CONVERSATION_SINCE, guestUsername, roomNumber, recipientRole, afterMessageId, 0)
+                        : findNewestFirst(connection, SELECT_LATEST_MESSAGES, guestUsername, roomNumber, recipientRole, null, limit);
+                long newestShown = messages.isEmpty() ? afterMessageId : messages.get(messages.size() - 1).getId();
+                boolean moved = markSql != null && newestShown > 0
+                        && advanceReadMark(connection, markSql, readMark, guestUsername, roomNumber, recipientRole, newestShown) > 0;
+                HelpChatConversationSummary summary = findConversationSummary(connection, guestUsername, roomNumber, recipientRole)
+                        .orElse(null);
+                connection.commit();
+                return new HelpChatConversationSnapshot(messages, summary, moved);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw new IllegalStateException("Failed to open conversation", e);
+            } finally {
+                connection.setAutoCommit(true);
+            }
         } catch (SQLException e) {
-            throw new IllegalStateException("Failed to mark conversation as read", e);
+            throw new IllegalStateException("Failed to open conversation", e);
         }
     }
 
@@ -94,32 +356,98 @@ public class JdbcHelpChatRepository implements HelpChatRepository {
         if (recipientRoles == null || recipientRoles.isEmpty()) {
             return List.of();
         }
-        String placeholders = String.join(",", recipientRoles.stream().map(role -> "?").toArray(String[]::new));
-        String sql = String.format(SELECT_SUMMARIES_BY_ROLES, placeholders);
         try (Connection connection = DatabaseConfig.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            for (int i = 0; i < recipientRoles.size(); i++) {
-                statement.setString(i + 1, recipientRoles.get(i));
+             PreparedStatement statement = InLists.prepare(connection, SELECT_SUMMARIES_BY_ROLES, recipientRoles);
+             ResultSet rs = statement.executeQuery()) {
+            List<HelpChatConversationSummary> summaries = new ArrayList<>();
+            while (rs.next()) {
+                summaries.add(mapSummary(rs));
+            }
+            return summaries;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load help chat summaries", e);
+        }
+    }
+
+    @Override
+    public Optional<HelpChatConversationSummary> findConversationSummary(String guestUsername, String roomNumber, String recipientRole) {
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            return findConversationSummary(connection, guestUsername, roomNumber, recipientRole);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load help chat summary", e);
+        }
+    }
+
+    private Optional<HelpChatConversationSummary> findConversationSummary(Connection connection, String guestUsername,
+                                                                          String roomNumber, String recipientRole) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_SUMMARY)) {
+            statement.setString(1, guestUsername);
+            statement.setString(2, roomNumber);
+            statement.setString(3, recipientRole);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? Optional.of(mapSummary(rs)) : Optional.empty();
             }
+        }
+    }
+
+    @Override
+    public long findLatestChangeId() {
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_LATEST_CHANGE);
+             ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read the help chat change log", e);
+        }
+    }
+
+    @Override
+    public List<HelpChatChange> findChangesAfter(long changeId, int limit) {
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_CHANGES_AFTER)) {
+            statement.setLong(1, changeId);
+            statement.setInt(2, limit);
             try (ResultSet rs = statement.executeQuery()) {
-                List<HelpChatConversationSummary> summaries = new ArrayList<>();
+                List<HelpChatChange> changes = new ArrayList<>();
                 while (rs.next()) {
-                    String roomNumber = rs.getString("room_number");
-                    String guestUsername = rs.getString("guest_username");
-                    long unread = rs.getLong("unread_count");
-                    LocalDateTime lastMessageAt = toLocalDateTime(rs.getTimestamp("last_created"));
-                    String guestName = rs.getString("guest_name");
-                    if (guestName == null || guestName.isBlank()) {
-                        guestName = guestUsername;
-                    }
-                    String recipientRole = rs.getString("recipient_role");
-                    summaries.add(new HelpChatConversationSummary(roomNumber, guestUsername, recipientRole, guestName, unread, lastMessageAt));
+                    changes.add(new HelpChatChange(rs.getLong("id"),
+                            rs.getString("guest_username"),
+                            rs.getString("room_number"),
+                            rs.getString("recipient_role"),
+                            HelpChatChange.Type.valueOf(rs.getString("change_type")),
+                            ORIGIN.equals(rs.getString("origin"))));
                 }
-                return summaries;
+                return changes;
             }
         } catch (SQLException e) {
-            throw new IllegalStateException("Failed to load help chat summaries", e);
+            throw new IllegalStateException("Failed to read the help chat change log", e);
+        }
+    }
+
+    @Override
+    public int deleteChangesBefore(LocalDateTime cutoff) {
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(DELETE_CHANGES_BEFORE)) {
+            statement.setTimestamp(1, Timestamp.valueOf(cutoff));
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to prune the help chat change log", e);
+        }
+    }
+
+    private HelpChatConversationSummary mapSummary(ResultSet rs) throws SQLException {
+        String roomNumber = rs.getString("room_number");
+        String guestUsername = rs.getString("guest_username");
+        long unread = rs.getLong("unread_count");
+        LocalDateTime lastMessageAt = toLocalDateTime(rs.getTimestamp("last_message_at"));
+        String guestName = rs.getString("guest_name");
+        if (guestName == null || guestName.isBlank()) {
+            guestName = guestUsername;
         }
+        String recipientRole = rs.getString("recipient_role");
+        return new HelpChatConversationSummary(roomNumber, guestUsername, recipientRole, guestName, unread, lastMessageAt,
+                rs.getLong("last_message_id"), rs.getLong("staff_read_message_id"), rs.getLong("guest_read_message_id"),
+                rs.getLong("guest_unread_count"));
     }
 
     private HelpChatMessage mapMessage(ResultSet rs) throws SQLException {
@@ -133,7 +461,6 @@ public class JdbcHelpChatRepository implements HelpChatRepository {
         message.setSenderUsername(rs.getString("sender_username"));
         message.setMessage(rs.getString("message"));
         message.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
-        message.setReadByStaff(rs.getBoolean("is_read_by_staff"));
         return message;
     }
 
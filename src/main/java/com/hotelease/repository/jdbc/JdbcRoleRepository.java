@@ -15,10 +15,10 @@ import java.util.Optional;
 
 public class JdbcRoleRepository implements RoleRepository {
 
-    private static final String SELECT_BY_NAME = "SELECT id, name FROM roles WHERE name = ?";
-    private static final String SELECT_ALL = "SELECT id, name FROM roles ORDER BY name";
-    private static final String INSERT_ROLE = "INSERT INTO roles (name) VALUES (?)";
-    private static final String UPDATE_ROLE = "UPDATE roles SET name = ? WHERE id = ?";
+    static final String SELECT_BY_NAME = "SELECT id, name FROM roles WHERE name = ?";
+    static final String SELECT_ALL = "SELECT id, name FROM roles ORDER BY name";
+    static final String INSERT_ROLE = "INSERT INTO roles (name) VALUES (?)";
+    static final String UPDATE_ROLE = "UPDATE roles SET name = ? WHERE id = ?";
 
     @Override
     public Optional<Role> findByName(String name) {
@@ -2,25 +2,43 @@ package com.hotelease.repository.jdbc;
 
 import com.hotelease.config.DatabaseConfig;
 import com.hotelease.model.Room;
+import com.hotelease.repository.KeysetCursor;
+import com.hotelease.repository.Page;
 import com.hotelease.repository.RoomRepository;
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public class JdbcRoomRepository implements RoomRepository {
 
-    private static final String SELECT_ALL = "SELECT id, room_number, room_type, status, rate FROM rooms ORDER BY room_number";
-    private static final String SELECT_AVAILABLE = "SELECT id, room_number, room_type, status, rate FROM rooms WHERE status = 'AVAILABLE' ORDER BY room_number";
-    private static final String SELECT_BY_NUMBER = "SELECT id, room_number, room_type, status, rate FROM rooms WHERE room_number = ?";
-    private static final String INSERT_ROOM = "INSERT INTO rooms (room_number, room_type, status, rate) VALUES (?, ?, ?, ?)";
-    private static final String UPDATE_ROOM = "UPDATE rooms SET room_number = ?, room_type = ?, status = ?, rate = ? WHERE id = ?";
-    private static final String DELETE_ROOM = "DELETE FROM rooms WHERE id = ?";
+    /**
+     * Probes IDX_BOOKINGS_ROOM_CHECK_OUT from the requested check-in onwards, so bookings that ended before
+     * the stay, which is almost all of the history, are never read.
+     */
+    private static final String SELECT_BLOCKING_BOOKING = "SELECT 1 FROM bookings b WHERE b.room_number = r.room_number " +
+            "AND b.check_out > ? AND b.check_in < ? AND b.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')";
+
+    static final String SELECT_ALL = "SELECT id, room_number, room_type, status, rate FROM rooms ORDER BY room_number";
+    static final String SELECT_AVAILABLE = "SELECT id, room_number, room_type, status, rate FROM rooms WHERE status = 'AVAILABLE' ORDER BY room_number";
+    static final String SELECT_AVAILABLE_FOR_STAY = "SELECT r.id, r.room_number, r.room_type, r.status, r.rate FROM rooms r " +
+            "WHERE r.status <> 'MAINTENANCE' AND NOT EXISTS (" + SELECT_BLOCKING_BOOKING + ") ORDER BY r.room_number";
+    static final String SELECT_AVAILABLE_FOR_STAY_BY_TYPE = "SELECT r.id, r.room_number, r.room_type, r.status, r.rate FROM rooms r " +
+            "WHERE r.room_type = ? AND r.status <> 'MAINTENANCE' AND NOT EXISTS (" + SELECT_BLOCKING_BOOKING + ") ORDER BY r.room_number";
+    static final String SELECT_PAGE = "SELECT id, room_number, room_type, status, rate FROM rooms ORDER BY room_number LIMIT ?";
+    static final String SELECT_PAGE_AFTER = "SELECT id, room_number, room_type, status, rate FROM rooms WHERE room_number > ? ORDER BY room_number LIMIT ?";
+    static final String SELECT_BY_NUMBER = "SELECT id, room_number, room_type, status, rate FROM rooms WHERE room_number = ?";
+    static final String INSERT_ROOM = "INSERT INTO rooms (room_number, room_type, status, rate) VALUES (?, ?, ?, ?)";
+    static final String UPDATE_ROOM = "UPDATE rooms SET room_number = ?, room_type = ?, status = ?, rate = ? WHERE id = ?";
+    static final String DELETE_ROOM = "DELETE FROM rooms WHERE id = ?";
 
     @Override
     public List<Room> findAll() {
@@ -52,6 +70,52 @@ public class JdbcRoomRepository implements RoomRepository {
         }
     }
 
+    @Override
+    public List<Room> findAvailable(LocalDate checkIn, LocalDate checkOut, String roomType) {
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     roomType == null ? SELECT_AVAILABLE_FOR_STAY : SELECT_AVAILABLE_FOR_STAY_BY_TYPE)) {
+            int index = 1;
+            if (roomType != null) {
+                statement.setString(index++, roomType);
+            }
+            statement.setDate(index++, Date.valueOf(checkIn));
+            statement.setDate(index, Date.valueOf(checkOut));
+            List<Room> rooms = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rooms.add(mapRow(resultSet));
+                }
+            }
+            return rooms;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to fetch rooms available for stay", e);
+        }
+    }
+
+    @Override
+    public Page<Room, String> findPage(KeysetCursor<String> after, int pageSize) {
+        KeysetPages.checkPageSize(pageSize);
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(after == null ? SELECT_PAGE : SELECT_PAGE_AFTER)) {
+            int index = 1;
+            if (after != null) {
+                statement.setString(index++, after.key());
+            }
+            statement.setInt(index, pageSize + 1);
+            List<Room> rows = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(mapRow(resultSet));
+                }
+            }
+            long total = after == null ? KeysetPages.estimateRowCount(connection, "ROOMS") : Page.UNKNOWN_TOTAL;
+            return KeysetPages.toPage(rows, pageSize, room -> new KeysetCursor<>(room.getRoomNumber(), room.getId()), total);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to fetch rooms page", e);
+        }
+    }
+
     @Override
     public Optional<Room> findByRoomNumber(String roomNumber) {
         try (Connection connection = DatabaseConfig.getConnection();
@@ -92,6 +156,17 @@ public class JdbcRoomRepository implements RoomRepository {
         }
     }
 
+    @Override
+    public List<Room> saveAll(Collection<Room> rooms) {
+        return BatchWrites.saveAll(rooms,
+                new BatchWrites.Operation<>(INSERT_ROOM, this::setParameters),
+                new BatchWrites.Operation<>(UPDATE_ROOM, (statement, offset, room) -> {
+                    setParameters(statement, offset, room);
+                    statement.setLong(offset + 5, room.getId());
+                }),
+                room -> room.getId() == null, Room::setId, "rooms");
+    }
+
     @Override
     public void deleteById(Long id) {
         try (Connection connection = DatabaseConfig.getConnection();
@@ -105,7 +180,7 @@ public class JdbcRoomRepository implements RoomRepository {
 
     private long insertRoom(Connection connection, Room room) throws SQLException {
         try (PreparedStatement statement = connection.prepareStatement(INSERT_ROOM, Statement.RETURN_GENERATED_KEYS)) {
-            setParameters(statement, room);
+            setParameters(statement, 0, room);
             statement.executeUpdate();
             try (ResultSet keys = statement.getGeneratedKeys()) {
                 if (keys.next()) {
@@ -118,17 +193,17 @@ public class JdbcRoomRepository implements RoomRepository {
 
     private void updateRoom(Connection connection, Room room) throws SQLException {
         try (PreparedStatement statement = connection.prepareStatement(UPDATE_ROOM)) {
-            setParameters(statement, room);
+            setParameters(statement, 0, room);
             statement.setLong(5, room.getId());
             statement.executeUpdate();
         }
     }
 
-    private void setParameters(PreparedStatement statement, Room room) throws SQLException {
-        statement.setString(1, room.getRoomNumber());
-        statement.setString(2, room.getRoomType());
-        statement.setString(3, room.getStatus());
-        statement.setBigDecimal(4, room.getRate());
+    private void setParameters(PreparedStatement statement, int offset, Room room) throws SQLException {
+        statement.setString(offset + 1, room.getRoomNumber());
+        statement.setString(offset + 2, room.getRoomType());
+        statement.setString(offset + 3, room.getStatus());
+        statement.setBigDecimal(offset + 4, room.getRate());
     }
 
     private Room mapRow(ResultSet resultSet) throws SQLException {
@@ -0,0 +1,42 @@
+package com.hotelease.repository.jdbc;
+
+import com.hotelease.config.DatabaseConfig;
+import com.hotelease.repository.SettingsRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+public class JdbcSettingsRepository implements SettingsRepository {
+
+    static final String SELECT_BY_NAME = "SELECT setting_value FROM app_settings WHERE name = ?";
+    static final String MERGE_SETTING = "MERGE INTO app_settings (name, setting_value, updated_at) KEY (name) " +
+            "VALUES (?, ?, CURRENT_TIMESTAMP)";
+
+    @Override
+    public Optional<String> find(String name) {
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_NAME)) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? Optional.of(resultSet.getString(1)) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read setting " + name, e);
+        }
+    }
+
+    @Override
+    public void put(String name, String value) {
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(MERGE_SETTING)) {
+            statement.setString(1, name);
+            statement.setString(2, value);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to save setting " + name, e);
+        }
+    }
+}
@@ -10,24 +10,39 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 public class JdbcUserRepository implements UserRepository {
 
-    private static final String SELECT_BY_USERNAME = "SELECT u.id, u.username, u.password_hash, u.email, u.phone, u.active " +
-            "FROM users u WHERE u.username = ?";
+    /**
+     * Users with their roles in one round trip: one row per role, or a single row with null role columns
+     * for a user without roles. Ordered by user so each user's rows arrive together.
+     */
+    private static final String SELECT_WITH_ROLES = "SELECT u.id, u.username, u.password_hash, u.email, u.phone, u.active, " +
+            "r.id AS role_id, r.name AS role_name FROM users u " +
+            "LEFT JOIN user_roles ur ON ur.user_id = u.id LEFT JOIN roles r ON r.id = ur.role_id";
 
-    private static final String SELECT_BY_EMAIL = "SELECT u.id, u.username, u.password_hash, u.email, u.phone, u.active " +
-            "FROM users u WHERE u.email = ?";
+    static final String SELECT_BY_USERNAME = SELECT_WITH_ROLES + " WHERE u.username = ?";
 
-    private static final String SELECT_ROLES = "SELECT r.id, r.name FROM roles r " +
-            "INNER JOIN user_roles ur ON ur.role_id = r.id WHERE ur.user_id = ?";
+    static final String SELECT_BY_EMAIL = SELECT_WITH_ROLES + " WHERE u.email = ?";
 
-    private static final String INSERT_USER = "INSERT INTO users (username, password_hash, email, phone, active) VALUES (?, ?, ?, ?, ?)";
+    static final String SELECT_BY_USERNAMES = SELECT_WITH_ROLES + " WHERE u.username IN (%s) ORDER BY u.id";
 
-    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    static final int MAX_USERNAMES_PER_QUERY = 128;
+
+    static final String INSERT_USER = "INSERT INTO users (username, password_hash, email, phone, active) VALUES (?, ?, ?, ?, ?)";
+
+    static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    static final String UPDATE_USER = "UPDATE users SET password_hash = ?, email = ?, phone = ?, active = ? WHERE id = ?";
+
+    static final String DELETE_USER_ROLES = "DELETE FROM user_roles WHERE user_id = ?";
 
     @Override
     public Optional<User> findByUsername(String username) {
@@ -35,12 +50,7 @@ public class JdbcUserRepository implements UserRepository {
              PreparedStatement statement = connection.prepareStatement(SELECT_BY_USERNAME)) {
             statement.setString(1, username);
             try (ResultSet resultSet = statement.executeQuery()) {
-                if (!resultSet.next()) {
-                    return Optional.empty();
-                }
-                User user = mapUser(resultSet);
-                user.getRoles().addAll(findRoles(connection, user.getId()));
-                return Optional.of(user);
+                return mapUsers(resultSet).stream().findFirst();
             }
         } catch (SQLException e) {
             throw new IllegalStateException("Failed to query user by username", e);
@@ -53,18 +63,34 @@ public class JdbcUserRepository implements UserRepository {
              PreparedStatement statement = connection.prepareStatement(SELECT_BY_EMAIL)) {
             statement.setString(1, email);
             try (ResultSet resultSet = statement.executeQuery()) {
-                if (!resultSet.next()) {
-                    return Optional.empty();
-                }
-                User user = mapUser(resultSet);
-                user.getRoles().addAll(findRoles(connection, user.getId()));
-                return Optional.of(user);
+                return mapUsers(resultSet).stream().findFirst();
             }
         } catch (SQLException e) {
             throw new IllegalStateException("Failed to query user by email", e);
         }
     }
 
+    @Override
+    public Map<String, User> findByUsernames(Collection<String> usernames) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(usernames));
+        Map<String, User> users = new LinkedHashMap<>();
+        if (distinct.isEmpty()) {
+            return users;
+        }
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            for (int from = 0; from < distinct.size(); from += MAX_USERNAMES_PER_QUERY) {
+                List<String> chunk = distinct.subList(from, Math.min(distinct.size(), from + MAX_USERNAMES_PER_QUERY));
+                try (PreparedStatement statement = InLists.prepare(connection, SELECT_BY_USERNAMES, chunk);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    mapUsers(resultSet).forEach(user -> users.put(user.getUsername(), user));
+                }
+            }
+            return users;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to query users by username", e);
+        }
+    }
+
     @Override
     public User save(User user) {
         try (Connection connection = DatabaseConfig.getConnection()) {
@@ -111,8 +137,7 @@ public class JdbcUserRepository implements UserRepository {
     }
 
     private void updateUser(Connection connection, User user) throws SQLException {
-        String updateSql = "UPDATE users SET password_hash = ?, email = ?, phone = ?, active = ? WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(updateSql)) {
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_USER)) {
             statement.setString(1, user.getPasswordHash());
             statement.setString(2, user.getEmail());
             statement.setString(3, user.getPhone());
@@ -123,7 +148,7 @@ public class JdbcUserRepository implements UserRepository {
     }
 
     private void syncRoles(Connection connection, User user) throws SQLException {
-        try (PreparedStatement deleteStmt = connection.prepareStatement("DELETE FROM user_roles WHERE user_id = ?")) {
+        try (PreparedStatement deleteStmt = connection.prepareStatement(DELETE_USER_ROLES)) {
             deleteStmt.setLong(1, user.getId());
             deleteStmt.executeUpdate();
         }
@@ -142,6 +167,26 @@ public class JdbcUserRepository implements UserRepository {
         }
     }
 
+    /**
+     * Folds the rows of {@link #SELECT_WITH_ROLES} into users, relying on each user's rows being adjacent.
+     */
+    private List<User> mapUsers(ResultSet resultSet) throws SQLException {
+        List<User> users = new ArrayList<>();
+        User current = null;
+        while (resultSet.next()) {
+            long id = resultSet.getLong("id");
+            if (current == null || current.getId() != id) {
+                current = mapUser(resultSet);
+                users.add(current);
+            }
+            long roleId = resultSet.getLong("role_id");
+            if (!resultSet.wasNull()) {
+                current.getRoles().add(new Role(roleId, resultSet.getString("role_name")));
+            }
+        }
+        return users;
+    }
+
     private User mapUser(ResultSet resultSet) throws SQLException {
         User user = new User();
         user.setId(resultSet.getLong("id"));
@@ -152,20 +197,4 @@ public class JdbcUserRepository implements UserRepository {
         user.setActive(resultSet.getBoolean("active"));
         return user;
     }
-
-    private Set<Role> findRoles(Connection connection, Long userId) throws SQLException {
-        Set<Role> roles = new HashSet<>();
-        try (PreparedStatement statement = connection.prepareStatement(SELECT_ROLES)) {
-            statement.setLong(1, userId);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    Role role = new Role();
-                    role.setId(resultSet.getLong("id"));
-                    role.setName(resultSet.getString("name"));
-                    roles.add(role);
-                }
-            }
-        }
-        return roles;
-    }
 }
@@ -0,0 +1,63 @@
+package com.hotelease.repository.jdbc;
+
+import com.hotelease.repository.KeysetCursor;
+import com.hotelease.repository.Page;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared plumbing for the keyset-paginated repository queries. Page queries fetch one row more than
+ * requested so the presence of a next page is known without a second round trip.
+ */
+final class KeysetPages {
+
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String SELECT_ROW_COUNT_ESTIMATE = "SELECT row_count_estimate FROM information_schema.tables " +
+            "WHERE table_schema = 'PUBLIC' AND table_name = ?";
+
+    private KeysetPages() {
+    }
+
+    static void checkPageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    static <T, K> Page<T, K> toPage(List<T> rows, int pageSize, Function<T, KeysetCursor<K>> cursorOf, long estimatedTotal) {
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null, estimatedTotal);
+        }
+        List<T> items = List.copyOf(rows.subList(0, pageSize));
+        return new Page<>(items, cursorOf.apply(items.get(pageSize - 1)), estimatedTotal);
+    }
+
+    /**
+     * Row count maintained by H2 for an unfiltered table, which avoids a {@code COUNT(*)} over the whole table.
+     */
+    static long estimateRowCount(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_ROW_COUNT_ESTIMATE)) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : Page.UNKNOWN_TOTAL;
+            }
+        }
+    }
+
+    static long count(Connection connection, String sql, String... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setString(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+}
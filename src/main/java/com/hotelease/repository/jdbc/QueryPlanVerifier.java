@@ -0,0 +1,178 @@
+package com.hotelease.repository.jdbc;
+
+import com.hotelease.config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs {@code EXPLAIN} on every repository query and reports the ones that H2 would answer with a
+ * full table scan, or, for keyset page and streaming queries, with a sort instead of reading the index
+ * in order. Enabled at startup with {@code -Dhotelease.db.verifyQueryPlans=true} or run directly
+ * through {@link #main(String[])} against the configured database.
+ */
+public final class QueryPlanVerifier {
+
+    public static final String ENABLE_PROPERTY = "hotelease.db.verifyQueryPlans";
+
+    private static final String TABLE_SCAN_MARKER = ".tableScan";
+    private static final String INDEX_SORTED_MARKER = "/* index sorted */";
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+    private static final Set<String> INDEX_ORDERED_QUERIES = new HashSet<>();
+
+    static {
+        QUERIES.put("bookings.findAll", JdbcBookingRepository.SELECT_ALL);
+        QUERIES.put("bookings.findByGuestUsername", JdbcBookingRepository.SELECT_BY_GUEST);
+        QUERIES.put("bookings.update", JdbcBookingRepository.UPDATE_BOOKING);
+        putIndexOrdered("bookings.findPage", JdbcBookingRepository.SELECT_PAGE);
+        putIndexOrdered("bookings.findPage[after]", JdbcBookingRepository.SELECT_PAGE_AFTER);
+        putIndexOrdered("bookings.findPage[guest]", JdbcBookingRepository.SELECT_PAGE_BY_GUEST);
+        putIndexOrdered("bookings.findPage[guest,after]", JdbcBookingRepository.SELECT_PAGE_BY_GUEST_AFTER);
+        QUERIES.put("bookings.countByGuest", JdbcBookingRepository.COUNT_BY_GUEST);
+        putIndexOrdered("bookings.streamAll", JdbcBookingRepository.STREAM_ALL);
+        putIndexOrdered("bookings.streamByGuestUsername", JdbcBookingRepository.STREAM_BY_GUEST);
+        QUERIES.put("bookings.streamHoldingRoom", JdbcBookingRepository.STREAM_HOLDING_ROOM);
+        QUERIES.put("bookings.findOverlapping", JdbcBookingRepository.SELECT_OVERLAPPING);
+        QUERIES.put("bookings.lockRoom", JdbcBookingRepository.LOCK_ROOM);
+
+        QUERIES.put("bills.findAll", JdbcBillRepository.SELECT_ALL);
+        QUERIES.put("bills.findByStatus", JdbcBillRepository.SELECT_BY_STATUS);
+        QUERIES.put("bills.findByInvoiceNumber", JdbcBillRepository.SELECT_BY_INVOICE);
+        QUERIES.put("bills.findByGuestUsername", JdbcBillRepository.SELECT_BY_GUEST);
+        QUERIES.put("bills.findByGuestUsernameAndStatus", JdbcBillRepository.SELECT_BY_GUEST_AND_STATUS);
+        QUERIES.put("bills.update", JdbcBillRepository.UPDATE_BILL);
+        putIndexOrdered("bills.findPage", JdbcBillRepository.SELECT_PAGE);
+        putIndexOrdered("bills.findPage[after]", JdbcBillRepository.SELECT_PAGE_AFTER);
+        putIndexOrdered("bills.findPage[status]", JdbcBillRepository.SELECT_PAGE_BY_STATUS);
+        putIndexOrdered("bills.findPage[status,after]", JdbcBillRepository.SELECT_PAGE_BY_STATUS_AFTER);
+        putIndexOrdered("bills.findPage[guest]", JdbcBillRepository.SELECT_PAGE_BY_GUEST);
+        putIndexOrdered("bills.findPage[guest,after]", JdbcBillRepository.SELECT_PAGE_BY_GUEST_AFTER);
+        putIndexOrdered("bills.findPage[guest,status]", JdbcBillRepository.SELECT_PAGE_BY_GUEST_AND_STATUS);
+        putIndexOrdered("bills.findPage[guest,status,after]", JdbcBillRepository.SELECT_PAGE_BY_GUEST_AND_STATUS_AFTER);
+        QUERIES.put("bills.countByStatus", JdbcBillRepository.COUNT_BY_STATUS);
+        QUERIES.put("bills.countByGuest", JdbcBillRepository.COUNT_BY_GUEST);
+        QUERIES.put("bills.countByGuestAndStatus", JdbcBillRepository.COUNT_BY_GUEST_AND_STATUS);
+        putIndexOrdered("bills.streamAll", JdbcBillRepository.STREAM_ALL);
+        putIndexOrdered("bills.streamByStatus", JdbcBillRepository.STREAM_BY_STATUS);
+        putIndexOrdered("bills.streamByGuestUsername", JdbcBillRepository.STREAM_BY_GUEST);
+
+        QUERIES.put("rooms.findAll", JdbcRoomRepository.SELECT_ALL);
+        putIndexOrdered("rooms.findPage", JdbcRoomRepository.SELECT_PAGE);
+        putIndexOrdered("rooms.findPage[after]", JdbcRoomRepository.SELECT_PAGE_AFTER);
+        QUERIES.put("rooms.findAvailable", JdbcRoomRepository.SELECT_AVAILABLE);
+        QUERIES.put("rooms.findAvailable[stay]", JdbcRoomRepository.SELECT_AVAILABLE_FOR_STAY);
+        QUERIES.put("rooms.findAvailable[stay,type]", JdbcRoomRepository.SELECT_AVAILABLE_FOR_STAY_BY_TYPE);
+        QUERIES.put("rooms.findByRoomNumber", JdbcRoomRepository.SELECT_BY_NUMBER);
+        QUERIES.put("rooms.update", JdbcRoomRepository.UPDATE_ROOM);
+        QUERIES.put("rooms.deleteById", JdbcRoomRepository.DELETE_ROOM);
+
+        QUERIES.put("helpChats.findConversation", JdbcHelpChatRepository.SELECT_CONVERSATION);
+        putIndexOrdered("helpChats.openConversation[since]", JdbcHelpChatRepository.SELECT_CONVERSATION_SINCE);
+        putIndexOrdered("helpChats.openConversation[latest]", JdbcHelpChatRepository.SELECT_LATEST_MESSAGES);
+        putIndexOrdered("helpChats.findMessagesBefore", JdbcHelpChatRepository.SELECT_MESSAGES_BEFORE);
+        putIndexOrdered("helpChats.streamAll", JdbcHelpChatRepository.STREAM_ALL);
+        putIndexOrdered("helpChats.streamConversation", JdbcHelpChatRepository.STREAM_CONVERSATION);
+        QUERIES.put("helpChats.openConversation[staffRead]", JdbcHelpChatRepository.UPDATE_STAFF_READ);
+        QUERIES.put("helpChats.openConversation[guestRead]", JdbcHelpChatRepository.UPDATE_GUEST_READ);
+        for (int slots = 1; slots <= 4; slots *= 2) {
+            QUERIES.put("helpChats.findConversationSummariesByRecipientRoles[" + slots + "]",
+                    InLists.sql(JdbcHelpChatRepository.SELECT_SUMMARIES_BY_ROLES, slots));
+        }
+        QUERIES.put("helpChats.findConversationSummary", JdbcHelpChatRepository.SELECT_SUMMARY);
+        QUERIES.put("helpChats.save[guestName]", JdbcHelpChatRepository.SELECT_GUEST_NAME);
+        QUERIES.put("helpChats.save[conversation]", JdbcHelpChatRepository.MERGE_CONVERSATION_MESSAGE);
+        QUERIES.put("helpChats.saveAll[conversation]", JdbcHelpChatRepository.MERGE_CONVERSATION_AGGREGATE);
+        QUERIES.put("helpChats.findLatestChangeId", JdbcHelpChatRepository.SELECT_LATEST_CHANGE);
+        putIndexOrdered("helpChats.findChangesAfter", JdbcHelpChatRepository.SELECT_CHANGES_AFTER);
+        QUERIES.put("helpChats.deleteChangesBefore", JdbcHelpChatRepository.DELETE_CHANGES_BEFORE);
+
+        QUERIES.put("users.findByUsername", JdbcUserRepository.SELECT_BY_USERNAME);
+        QUERIES.put("users.findByEmail", JdbcUserRepository.SELECT_BY_EMAIL);
+        for (int slots = 1; slots <= JdbcUserRepository.MAX_USERNAMES_PER_QUERY; slots *= 2) {
+            QUERIES.put("users.findByUsernames[" + slots + "]",
+                    InLists.sql(JdbcUserRepository.SELECT_BY_USERNAMES, slots));
+        }
+        QUERIES.put("users.update", JdbcUserRepository.UPDATE_USER);
+        QUERIES.put("users.deleteRoles", JdbcUserRepository.DELETE_USER_ROLES);
+
+        QUERIES.put("roles.findByName", JdbcRoleRepository.SELECT_BY_NAME);
+        QUERIES.put("roles.findAll", JdbcRoleRepository.SELECT_ALL);
+        QUERIES.put("roles.update", JdbcRoleRepository.UPDATE_ROLE);
+
+        QUERIES.put("settings.find", JdbcSettingsRepository.SELECT_BY_NAME);
+    }
+
+    private QueryPlanVerifier() {
+    }
+
+    private static void putIndexOrdered(String name, String sql) {
+        QUERIES.put(name, sql);
+        INDEX_ORDERED_QUERIES.add(name);
+    }
+
+    public static void main(String[] args) {
+        DatabaseConfig.migrateSchema();
+        try {
+            List<String> violations = findTableScans();
+            if (violations.isEmpty()) {
+                System.out.println("All " + QUERIES.size() + " repository queries use an index.");
+                return;
+            }
+            violations.forEach(System.err::println);
+            System.exit(1);
+        } finally {
+            DatabaseConfig.closePool();
+        }
+    }
+
+    /**
+     * Throws {@link IllegalStateException} listing every query whose plan contains a table scan.
+     */
+    public static void verify() {
+        List<String> violations = findTableScans();
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Repository queries fall back to table scans or sorts:\n" + String.join("\n", violations));
+        }
+    }
+
+    public static List<String> findTableScans() {
+        List<String> violations = new ArrayList<>();
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+                String plan = explain(connection, query.getValue());
+                if (plan.contains(TABLE_SCAN_MARKER)) {
+                    violations.add(query.getKey() + ":\n" + plan);
+                } else if (INDEX_ORDERED_QUERIES.contains(query.getKey()) && !plan.contains(INDEX_SORTED_MARKER)) {
+                    violations.add(query.getKey() + " (sorts instead of reading the index in order):\n" + plan);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to explain repository queries", e);
+        }
+        return violations;
+    }
+
+    private static String explain(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setString(i, "0");
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.hotelease.repository.jdbc;
+
+import com.hotelease.config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Turns a query into a {@link Stream} backed by an open forward-only cursor. The connection is held until
+ * the stream is exhausted or closed, so callers must consume it inside try-with-resources.
+ *
+ * <p>Remote clients honour the fetch size. Embedded connections would otherwise materialise the full
+ * result before the first row, so the session switches to H2's lazy query execution for the duration
+ * of the stream. H2 only pins the MVStore version a statement reads until the statement ends, which
+ * for a lazy cursor is before its rows are fetched, so the read runs in a REPEATABLE READ transaction
+ * that keeps the snapshot alive until the stream is closed.</p>
+ */
+final class ResultSetStreams {
+
+    private static final String ENABLE_LAZY_EXECUTION = "SET LAZY_QUERY_EXECUTION TRUE";
+    private static final String DISABLE_LAZY_EXECUTION = "SET LAZY_QUERY_EXECUTION FALSE";
+
+    private ResultSetStreams() {
+    }
+
+    static <T> Stream<T> stream(String sql, int fetchSize, ParameterBinder binder, RowMapper<T> mapper, String description) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must be positive");
+        }
+        Cursor<T> cursor = new Cursor<>(mapper, description);
+        try {
+            cursor.open(sql, fetchSize, binder);
+        } catch (SQLException e) {
+            cursor.closeQuietly(e);
+            throw new IllegalStateException("Failed to stream " + description, e);
+        }
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    @FunctionalInterface
+    interface ParameterBinder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet resultSet) throws SQLException;
+    }
+
+    private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final RowMapper<T> mapper;
+        private final String description;
+        private Connection connection;
+        private PreparedStatement statement;
+        private ResultSet resultSet;
+        private boolean lazy;
+        private boolean restoreAutoCommit;
+        private int previousIsolation = -1;
+        private boolean closed;
+
+        private Cursor(RowMapper<T> mapper, String description) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.mapper = mapper;
+            this.description = description;
+        }
+
+        private void open(String sql, int fetchSize, ParameterBinder binder) throws SQLException {
+            connection = DatabaseConfig.getConnection();
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+            if (connection.getTransactionIsolation() != Connection.TRANSACTION_REPEATABLE_READ) {
+                previousIsolation = connection.getTransactionIsolation();
+                connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            }
+            setLazyExecution(true);
+            lazy = true;
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            binder.bind(statement);
+            resultSet = statement.executeQuery();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            T row;
+            try {
+                if (!resultSet.next()) {
+                    close();
+                    return false;
+                }
+                row = mapper.map(resultSet);
+            } catch (SQLException e) {
+                closeQuietly(e);
+                throw new IllegalStateException("Failed to stream " + description, e);
+            }
+            action.accept(row);
+            return true;
+        }
+
+        private void close() {
+            SQLException failure = release();
+            if (failure != null) {
+                throw new IllegalStateException("Failed to close " + description + " stream", failure);
+            }
+        }
+
+        private void closeQuietly(SQLException cause) {
+            SQLException failure = release();
+            if (failure != null) {
+                cause.addSuppressed(failure);
+            }
+        }
+
+        private SQLException release() {
+            if (closed) {
+                return null;
+            }
+            closed = true;
+            SQLException failure = closeResource(resultSet, null);
+            failure = closeResource(statement, failure);
+            try {
+                if (lazy) {
+                    setLazyExecution(false);
+                }
+                if (restoreAutoCommit) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                if (previousIsolation != -1) {
+                    connection.setTransactionIsolation(previousIsolation);
+                }
+            } catch (SQLException e) {
+                failure = chain(failure, e);
+            }
+            return closeResource(connection, failure);
+        }
+
+        private void setLazyExecution(boolean enabled) throws SQLException {
+            try (Statement session = connection.createStatement()) {
+                session.execute(enabled ? ENABLE_LAZY_EXECUTION : DISABLE_LAZY_EXECUTION);
+            }
+        }
+
+        private static SQLException closeResource(AutoCloseable resource, SQLException failure) {
+            if (resource == null) {
+                return failure;
+            }
+            try {
+                resource.close();
+            } catch (SQLException e) {
+                return chain(failure, e);
+            } catch (Exception e) {
+                return chain(failure, new SQLException(e));
+            }
+            return failure;
+        }
+
+        private static SQLException chain(SQLException first, SQLException next) {
+            if (first == null) {
+                return next;
+            }
+            first.addSuppressed(next);
+            return first;
+        }
+    }
+}
@@ -3,15 +3,53 @@ package com.hotelease.service;
 import com.hotelease.model.Role;
 import com.hotelease.model.User;
 import com.hotelease.repository.RoleRepository;
+import com.hotelease.repository.SettingsRepository;
 import com.hotelease.repository.UserRepository;
 import com.hotelease.util.PasswordEncoder;
+import com.hotelease.util.StartupTimings;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
 
 public class AuthService {
 
+    private static final System.Logger LOGGER = System.getLogger(AuthService.class.getName());
+    private static final String AUTH_THREADS_PROPERTY = "hotelease.auth.threads";
+    private static final String AUTH_QUEUE_PROPERTY = "hotelease.auth.queueSize";
+    private static final String PASSWORD_ROUNDS_PROPERTY = "hotelease.password.rounds";
+    private static final String PASSWORD_TARGET_PROPERTY = "hotelease.password.targetMillis";
+    private static final String PASSWORD_RECALIBRATE_PROPERTY = "hotelease.password.recalibrate";
+    private static final long DEFAULT_PASSWORD_TARGET_MILLIS = 250;
+    /**
+     * Key of the calibrated cost in this machine's user preferences. The database is shared by every
+     * station, and each one calibrates for its own hardware.
+     */
+    private static final String PASSWORD_ROUNDS_PREFERENCE = "password.bcryptRounds";
+    private static final String SEED_FINGERPRINT_SETTING = "seed.defaultUsers.fingerprint";
+    /**
+     * Bump when {@link #initializeDefaults()} starts writing something the fingerprint does not cover.
+     */
+    private static final String SEED_FORMAT_VERSION = "1";
+
     private static final List<String> DEFAULT_ROLES = Arrays.asList(
             "GUEST",
             "RECEPTIONIST",
@@ -21,6 +59,7 @@ public class AuthService {
     );
 
     private static final String DEFAULT_REGISTRATION_ROLE = "GUEST";
+    private static final String DEFAULT_ADMIN_USERNAME = "admin";
     private static final String DEFAULT_ADMIN_PASSWORD = "admin@123";
     private static final String DEFAULT_ADMIN_PHONE = "0000000000";
     private static final List<DefaultUserSpec> DEFAULT_USERS = List.of(
@@ -36,13 +75,60 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final SettingsRepository settingsRepository;
+    private final ExecutorService authenticationExecutor;
 
     public AuthService(UserRepository userRepository, RoleRepository roleRepository) {
+        this(userRepository, roleRepository, null);
+    }
+
+    /**
+     * With a {@code settingsRepository}, {@link #initializeDefaults()} remembers the seed it applied and
+     * skips launches where it has not changed.
+     */
+    public AuthService(UserRepository userRepository, RoleRepository roleRepository, SettingsRepository settingsRepository) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.settingsRepository = settingsRepository;
+        this.authenticationExecutor = newAuthenticationExecutor();
+    }
+
+    /**
+     * Fixed pool of {@code hotelease.auth.threads} workers, half the cores by default, in front of a short
+     * queue: a burst of sign-ins waits its turn instead of running BCrypt on every core at once.
+     */
+    private static ExecutorService newAuthenticationExecutor() {
+        int threads = Math.max(1, Integer.getInteger(AUTH_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Integer.getInteger(AUTH_QUEUE_PROPERTY, 32)), runnable -> {
+                    Thread thread = new Thread(runnable, "hotelease-auth-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
+    /**
+     * Creates the default roles and users, and resets the default users to their seeded passwords, emails
+     * and roles. A launch whose seed matches the fingerprint stored by the previous one, and whose
+     * default users all still exist, skips the work, including the BCrypt checks.
+     */
     public void initializeDefaults() {
+        long start = System.nanoTime();
+        List<String> usernames = new ArrayList<>();
+        usernames.add(DEFAULT_ADMIN_USERNAME);
+        DEFAULT_USERS.forEach(spec -> usernames.add(spec.username()));
+        String fingerprint = seedFingerprint();
+        if (settingsRepository != null
+                && settingsRepository.find(SEED_FINGERPRINT_SETTING).filter(fingerprint::equals).isPresent()
+                && userRepository.findByUsernames(usernames).keySet().containsAll(usernames)) {
+            LOGGER.log(System.Logger.Level.INFO, "Default users match the stored seed; skipped seeding in {0} ms",
+                    (System.nanoTime() - start) / 1_000_000);
+            return;
+        }
+
         Role adminRole = null;
         for (String roleName : DEFAULT_ROLES) {
             Role role = roleRepository.findByName(roleName)
@@ -56,21 +142,137 @@ public class AuthService {
             throw new IllegalStateException("Admin role could not be initialized");
         }
 
-        final Role finalAdminRole = adminRole;
-        userRepository.findByUsername("admin")
-                .map(existing -> refreshDefaultAdmin(existing, finalAdminRole))
-                .orElseGet(() -> createDefaultAdmin(finalAdminRole));
+        Map<String, User> existing = userRepository.findByUsernames(usernames);
+        Map<String, String> passwordHashes = StartupTimings.time("default-user-passwords",
+                () -> resolvePasswordHashes(existing));
+
+        User admin = existing.get(DEFAULT_ADMIN_USERNAME);
+        String adminPasswordHash = passwordHashes.get(DEFAULT_ADMIN_USERNAME);
+        if (admin == null) {
+            createDefaultAdmin(adminRole, adminPasswordHash);
+        } else {
+            refreshDefaultAdmin(admin, adminRole, adminPasswordHash);
+        }
+
+        for (DefaultUserSpec spec : DEFAULT_USERS) {
+            User user = existing.get(spec.username());
+            String passwordHash = passwordHashes.get(spec.username());
+            if (user == null) {
+                createDefaultUser(spec, passwordHash);
+            } else {
+                refreshDefaultUser(user, spec, passwordHash);
+            }
+        }
+
+        if (settingsRepository != null) {
+            settingsRepository.put(SEED_FINGERPRINT_SETTING, fingerprint);
+        }
+        LOGGER.log(System.Logger.Level.INFO, "Seeded default users in {0} ms",
+                (System.nanoTime() - start) / 1_000_000);
+    }
 
-        DEFAULT_USERS.forEach(this::ensureDefaultUser);
+    /**
+     * {@link #authenticate} on the authentication executor, so the caller's thread never waits for the
+     * lookup or the BCrypt check. When every worker is busy and the queue is full the future fails with
+     * an {@link IllegalStateException} instead of queueing without bound.
+     */
+    public CompletableFuture<Optional<User>> authenticateAsync(String username, String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(username, rawPassword), authenticationExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Too many sign-ins in progress. Please try again.", e));
+        }
+    }
+
+    public void shutdown() {
+        authenticationExecutor.shutdownNow();
     }
 
+    /**
+     * A successful sign-in whose hash was made at a lower cost than the current one, or at a higher cost
+     * that took longer than this machine's target to verify, also queues a rehash at the current cost; the
+     * caller does not wait for it.
+     */
     public Optional<User> authenticate(String username, String rawPassword) {
         if (username == null || rawPassword == null) {
             return Optional.empty();
         }
-        return userRepository.findByUsername(username)
-                .filter(User::isActive)
-                .filter(user -> PasswordEncoder.matches(rawPassword, user.getPasswordHash()));
+        Optional<User> candidate = userRepository.findCurrentByUsername(username).filter(User::isActive);
+        if (candidate.isEmpty()) {
+            return Optional.empty();
+        }
+        User user = candidate.get();
+        long start = System.nanoTime();
+        if (!PasswordEncoder.matches(rawPassword, user.getPasswordHash())) {
+            return Optional.empty();
+        }
+        Duration verification = Duration.ofNanos(System.nanoTime() - start);
+        if (PasswordEncoder.needsRehash(user.getPasswordHash(), verification)) {
+            scheduleRehash(user.getUsername(), user.getPasswordHash(), rawPassword);
+        }
+        return candidate;
+    }
+
+    /**
+     * Sets the BCrypt cost for new hashes: {@code hotelease.password.rounds} when given, otherwise the cost
+     * calibrated for this machine, measuring one if none is stored yet or {@code hotelease.password.recalibrate}
+     * is set. The calibrated cost is kept in the user preferences of this machine, not the shared database,
+     * so one station's hardware does not set the cost for the others. Storing it keeps timing noise between
+     * launches from flipping the cost. Hashes made at a higher cost are brought down once verifying one here
+     * takes longer than the calibration target; under the explicit override, which applies to every
+     * station, they all are.
+     */
+    public int configurePasswordCost() {
+        Integer fixed = Integer.getInteger(PASSWORD_ROUNDS_PROPERTY);
+        if (fixed != null) {
+            PasswordEncoder.setRounds(fixed);
+            PasswordEncoder.setVerificationTarget(Duration.ZERO);
+            return fixed;
+        }
+        Duration target = Duration.ofMillis(Long.getLong(PASSWORD_TARGET_PROPERTY, DEFAULT_PASSWORD_TARGET_MILLIS));
+        Preferences preferences = Preferences.userNodeForPackage(AuthService.class);
+        int stored = Boolean.getBoolean(PASSWORD_RECALIBRATE_PROPERTY) ? -1 : preferences.getInt(PASSWORD_ROUNDS_PREFERENCE, -1);
+        int rounds;
+        if (stored >= PasswordEncoder.MIN_ROUNDS && stored <= PasswordEncoder.MAX_ROUNDS) {
+            rounds = stored;
+        } else {
+            rounds = PasswordEncoder.calibrate(target);
+            LOGGER.log(System.Logger.Level.INFO, "Calibrated BCrypt cost {0} for a {1} ms verification target",
+                    rounds, target.toMillis());
+            preferences.putInt(PASSWORD_ROUNDS_PREFERENCE, rounds);
+            try {
+                preferences.flush();
+            } catch (BackingStoreException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Could not store the calibrated BCrypt cost; it will be measured again", e);
+            }
+        }
+        PasswordEncoder.setRounds(rounds);
+        PasswordEncoder.setVerificationTarget(target);
+        return rounds;
+    }
+
+    /**
+     * Rehashes on the authentication executor, skipping the work when the pool is saturated; the next
+     * sign-in tries again. The stored hash is only replaced if it is still the one that was verified, so a
+     * password change made in the meantime is kept.
+     */
+    private void scheduleRehash(String username, String verifiedHash, String rawPassword) {
+        try {
+            authenticationExecutor.execute(() -> {
+                try {
+                    userRepository.findCurrentByUsername(username)
+                            .filter(user -> verifiedHash.equals(user.getPasswordHash()))
+                            .ifPresent(user -> {
+                                user.setPasswordHash(PasswordEncoder.hash(rawPassword));
+                                userRepository.save(user);
+                            });
+                } catch (RuntimeException e) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Failed to rehash the password of " + username, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.log(System.Logger.Level.DEBUG, "Authentication pool busy; rehash of {0} deferred", username);
+        }
     }
 
     public User registerUser(String username, String email, String phone, String rawPassword) {
@@ -87,10 +289,10 @@ public class AuthService {
             throw new IllegalArgumentException("Password is required");
         }
 
-        userRepository.findByUsername(username).ifPresent(u -> {
+        userRepository.findCurrentByUsername(username).ifPresent(u -> {
             throw new IllegalArgumentException("Username already exists");
         });
-        userRepository.findByEmail(email).ifPresent(u -> {
+        userRepository.findCurrentByEmail(email).ifPresent(u -> {
             throw new IllegalArgumentException("Email already registered");
         });
 
@@ -130,10 +332,10 @@ public class AuthService {
             throw new IllegalArgumentException("Unsupported employee role: " + roleName);
         }
 
-        userRepository.findByUsername(username).ifPresent(u -> {
+        userRepository.findCurrentByUsername(username).ifPresent(u -> {
             throw new IllegalArgumentException("Username already exists");
         });
-        userRepository.findByEmail(email).ifPresent(u -> {
+        userRepository.findCurrentByEmail(email).ifPresent(u -> {
             throw new IllegalArgumentException("Email already registered");
         });
 
@@ -148,10 +350,10 @@ public class AuthService {
         return userRepository.save(user);
     }
 
-    private User createDefaultAdmin(Role adminRole) {
+    private User createDefaultAdmin(Role adminRole, String passwordHash) {
         User admin = new User();
-        admin.setUsername("admin");
-        admin.setPasswordHash(PasswordEncoder.hash(DEFAULT_ADMIN_PASSWORD));
+        admin.setUsername(DEFAULT_ADMIN_USERNAME);
+        admin.setPasswordHash(passwordHash);
         admin.setEmail("admin@hotelease.local");
         admin.setPhone(DEFAULT_ADMIN_PHONE);
         admin.setActive(true);
@@ -159,11 +361,11 @@ public class AuthService {
         return userRepository.save(admin);
     }
 
-    private User refreshDefaultAdmin(User admin, Role adminRole) {
+    private User refreshDefaultAdmin(User admin, Role adminRole, String passwordHash) {
         boolean needsSave = false;
 
-        if (!PasswordEncoder.matches(DEFAULT_ADMIN_PASSWORD, admin.getPasswordHash())) {
-            admin.setPasswordHash(PasswordEncoder.hash(DEFAULT_ADMIN_PASSWORD));
+        if (!passwordHash.equals(admin.getPasswordHash())) {
+            admin.setPasswordHash(passwordHash);
             needsSave = true;
         }
 
@@ -191,28 +393,22 @@ public class AuthService {
                 .orElseGet(() -> roleRepository.save(new Role(null, roleName)));
     }
 
-    private User ensureDefaultUser(DefaultUserSpec spec) {
-        return userRepository.findByUsername(spec.username())
-                .map(existing -> refreshDefaultUser(existing, spec))
-                .orElseGet(() -> createDefaultUser(spec));
-    }
-
-    private User createDefaultUser(DefaultUserSpec spec) {
+    private User createDefaultUser(DefaultUserSpec spec, String passwordHash) {
         User user = new User();
         user.setUsername(spec.username());
         user.setEmail(spec.email());
         user.setPhone(spec.phone());
-        user.setPasswordHash(PasswordEncoder.hash(spec.password()));
+        user.setPasswordHash(passwordHash);
         user.setActive(true);
         spec.roles().forEach(roleName -> user.addRole(getOrCreateRole(roleName)));
         return userRepository.save(user);
     }
 
-    private User refreshDefaultUser(User user, DefaultUserSpec spec) {
+    private User refreshDefaultUser(User user, DefaultUserSpec spec, String passwordHash) {
         boolean needsSave = false;
 
-        if (!PasswordEncoder.matches(spec.password(), user.getPasswordHash())) {
-            user.setPasswordHash(PasswordEncoder.hash(spec.password()));
+        if (!passwordHash.equals(user.getPasswordHash())) {
+            user.setPasswordHash(passwordHash);
             needsSave = true;
         }
 
@@ -247,6 +443,41 @@ public class AuthService {
         return user;
     }
 
+    /**
+     * The hash each default user should end up with: the stored one when it still matches the seeded
+     * password, otherwise a fresh one. Every check and hash costs a full BCrypt round, so they run in
+     * parallel.
+     */
+    private Map<String, String> resolvePasswordHashes(Map<String, User> existing) {
+        Map<String, String> seededPasswords = new LinkedHashMap<>();
+        seededPasswords.put(DEFAULT_ADMIN_USERNAME, DEFAULT_ADMIN_PASSWORD);
+        DEFAULT_USERS.forEach(spec -> seededPasswords.put(spec.username(), spec.password()));
+        return seededPasswords.entrySet().parallelStream().collect(Collectors.toMap(Map.Entry::getKey, entry -> {
+            User user = existing.get(entry.getKey());
+            if (user != null && PasswordEncoder.matches(entry.getValue(), user.getPasswordHash())) {
+                return user.getPasswordHash();
+            }
+            return PasswordEncoder.hash(entry.getValue());
+        }));
+    }
+
+    /**
+     * SHA-256 over everything {@link #initializeDefaults()} writes, so changing any default role, user,
+     * password, email or phone forces the next launch to seed again.
+     */
+    private static String seedFingerprint() {
+        StringBuilder seed = new StringBuilder(SEED_FORMAT_VERSION);
+        DEFAULT_ROLES.forEach(role -> seed.append('|').append(role));
+        seed.append('|').append(DEFAULT_ADMIN_USERNAME).append('|').append(DEFAULT_ADMIN_PASSWORD).append('|').append(DEFAULT_ADMIN_PHONE);
+        DEFAULT_USERS.forEach(spec -> seed.append('|').append(spec));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(seed.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private record DefaultUserSpec(String username, String email, String password, String phone, List<String> roles) {
     }
 }
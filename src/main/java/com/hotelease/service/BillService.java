@@ -4,9 +4,12 @@ import com.hotelease.model.Bill;
 import com.hotelease.model.Role;
 import com.hotelease.model.User;
 import com.hotelease.repository.BillRepository;
+import com.hotelease.repository.KeysetCursor;
+import com.hotelease.repository.Page;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public class BillService {
@@ -44,11 +47,32 @@ public class BillService {
         return billRepository.findByGuestUsernameAndStatus(username, status.toUpperCase());
     }
 
+    public Page<Bill, LocalDate> getBillPageForUser(User user, String status, KeysetCursor<LocalDate> after, int pageSize) {
+        String statusFilter = status == null || status.isBlank() || "ALL".equalsIgnoreCase(status) ? null : status.toUpperCase();
+        if (user == null || !isGuestUser(user)) {
+            return billRepository.findPage(null, statusFilter, after, pageSize);
+        }
+
+        String username = user.getUsername();
+        if (username == null || username.isBlank()) {
+            return Page.complete(List.of());
+        }
+        return billRepository.findPage(username, statusFilter, after, pageSize);
+    }
+
     public Bill save(Bill bill) {
         validateBill(bill);
         return billRepository.save(bill);
     }
 
+    /**
+     * Validates every bill before any is written, then saves them in batches.
+     */
+    public List<Bill> saveAll(Collection<Bill> bills) {
+        bills.forEach(this::validateBill);
+        return billRepository.saveAll(bills);
+    }
+
     public Bill markAsPaid(Bill bill) {
         if (bill == null) {
             throw new IllegalArgumentException("Bill must be provided");
@@ -0,0 +1,370 @@
+package com.hotelease.service;
+
+import com.hotelease.model.Booking;
+import com.hotelease.repository.BookingConflictException;
+import com.hotelease.repository.BookingRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of the stays that hold each room, so overlap checks never touch the database. A room's
+ * stays are kept in disjoint blocks sorted by start date; a block is a single stay, or several stays that
+ * were already overlapping when they were loaded. Because blocks are disjoint their end dates are sorted
+ * too, so the only block that can overlap {@code [checkIn, checkOut)} is the last one starting before
+ * {@code checkOut}: an overlap check is one {@link TreeMap#lowerEntry} lookup.
+ *
+ * <p>Stays are half-open, so a guest may check in on the day the previous guest checks out. Only pending,
+ * confirmed and checked-in bookings hold a room, as in {@code RoomRepository.findAvailable}.</p>
+ *
+ * <p>The index holds the stays loaded at startup plus those this process has written since. Bookings other
+ * stations write to the shared database are missing until they turn up in a conflict or the next load, and
+ * bookings they cancel or move stay behind until a save here proves them gone, so its answers are fast
+ * estimates. The database decides: {@link #reserve} saves through a write that checks for overlaps in the
+ * same transaction, and never rejects a booking on the index's word alone.</p>
+ */
+public final class BookingIntervalIndex {
+
+    private static final Set<String> HOLDING_STATUSES = Set.of("PENDING", "CONFIRMED", "CHECKED_IN");
+    private static final int LOAD_FETCH_SIZE = 1_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, RoomSchedule> schedules = new HashMap<>();
+    private final Map<Long, Stay> staysById = new HashMap<>();
+    private final List<StayListener> listeners = new CopyOnWriteArrayList<>();
+    private boolean loaded;
+
+    /**
+     * Replaces the index contents with the bookings that currently hold a room. Startup cost follows the
+     * number of active stays, not the size of the booking history.
+     */
+    public void load(BookingRepository repository) {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+            schedules.clear();
+            staysById.clear();
+            try (Stream<Booking> bookings = repository.streamHoldingRoom(LOAD_FETCH_SIZE)) {
+                bookings.forEach(this::index);
+            }
+            loaded = true;
+            listeners.forEach(StayListener::reloaded);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registers a listener called, under the index's write lock, whenever a room gains or loses a stay.
+     * Listeners may read the index but must not call back into anything that waits for another thread
+     * to read it.
+     */
+    public void addListener(StayListener listener) {
+        listeners.add(listener);
+    }
+
+    public void loadIfNeeded(BookingRepository repository) {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                load(repository);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isFree(String roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        return findConflict(roomNumber, checkIn, checkOut, Set.of()).isEmpty();
+    }
+
+    /**
+     * The stay that holds {@code roomNumber} on some night of {@code [checkIn, checkOut)}, ignoring the
+     * stays of {@code ignoredBookingIds} (the bookings being moved).
+     */
+    public Optional<Stay> findConflict(String roomNumber, LocalDate checkIn, LocalDate checkOut, Set<Long> ignoredBookingIds) {
+        lock.readLock().lock();
+        try {
+            RoomSchedule schedule = schedules.get(roomNumber);
+            return schedule == null ? Optional.empty() : schedule.findConflict(checkIn, checkOut, ignoredBookingIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Calls {@code action} for every stay holding {@code roomNumber} on some night of {@code [from, to)}.
+     */
+    public void forEachStay(String roomNumber, LocalDate from, LocalDate to, Consumer<Stay> action) {
+        lock.readLock().lock();
+        try {
+            RoomSchedule schedule = schedules.get(roomNumber);
+            if (schedule != null) {
+                schedule.forEachStay(from, to, action);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Earliest check-in on or after {@code from} at which {@code roomNumber} is free for {@code nights}
+     * consecutive nights. Each occupied block in the way costs one more lookup.
+     */
+    public LocalDate findFirstFreeDate(String roomNumber, LocalDate from, int nights) {
+        if (nights < 1) {
+            throw new IllegalArgumentException("Nights must be positive");
+        }
+        lock.readLock().lock();
+        try {
+            RoomSchedule schedule = schedules.get(roomNumber);
+            return schedule == null ? from : schedule.findFirstFreeDate(from, nights);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks {@code bookings} against each other, then runs {@code save} and indexes the saved bookings, all
+     * under the write lock so two callers in this process cannot both take the same nights. {@code save}
+     * must check for overlaps against the database in its own transaction (see
+     * {@link BookingRepository#saveIfRoomFree}); the stay it reports is added to the index. Once a save has
+     * gone through, indexed stays that overlap it were cancelled or moved elsewhere and are dropped. If
+     * {@code save} fails after committing part of a bulk write, the index is reloaded from
+     * {@code repository}.
+     *
+     * @throws BookingConflictException naming the stored booking that holds one of the nights
+     * @throws IllegalArgumentException if two of {@code bookings} overlap
+     */
+    <T> T reserve(Collection<Booking> bookings, BookingRepository repository, Supplier<T> save) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                load(repository);
+            }
+            checkForOverlapsWithin(bookings);
+            T saved;
+            try {
+                saved = save.get();
+            } catch (BookingConflictException e) {
+                if (bookings.size() > 1) {
+                    load(repository);
+                } else {
+                    index(e.getConflicting());
+                }
+                throw e;
+            } catch (RuntimeException e) {
+                if (bookings.size() > 1) {
+                    load(repository);
+                }
+                throw e;
+            }
+            Set<Long> saving = idsOf(bookings);
+            for (Booking booking : bookings) {
+                dropStaleStays(booking, saving);
+                index(booking);
+            }
+            return saved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void checkForOverlapsWithin(Collection<Booking> bookings) {
+        List<Booking> holding = bookings.stream()
+                .filter(BookingIntervalIndex::holdsRoom)
+                .sorted(Comparator.comparing(Booking::getRoomNumber).thenComparing(Booking::getCheckIn))
+                .collect(Collectors.toList());
+        for (int i = 1; i < holding.size(); i++) {
+            Booking previous = holding.get(i - 1);
+            Booking current = holding.get(i);
+            if (previous.getRoomNumber().equals(current.getRoomNumber()) && previous.getCheckOut().isAfter(current.getCheckIn())) {
+                throw new IllegalArgumentException(describeConflict(current, Stay.of(previous)));
+            }
+        }
+    }
+
+    /**
+     * The database has just confirmed that nothing but {@code saving} holds the nights of {@code booking}.
+     */
+    private void dropStaleStays(Booking booking, Set<Long> saving) {
+        RoomSchedule schedule = schedules.get(booking.getRoomNumber());
+        if (schedule == null || !holdsRoom(booking)) {
+            return;
+        }
+        List<Stay> stale = new ArrayList<>();
+        schedule.forEachStay(booking.getCheckIn(), booking.getCheckOut(), stay -> {
+            if (!saving.contains(stay.bookingId())) {
+                stale.add(stay);
+            }
+        });
+        for (Stay stay : stale) {
+            staysById.remove(stay.bookingId());
+            schedule.remove(stay);
+            notifyChanged(stay);
+        }
+    }
+
+    private static Set<Long> idsOf(Collection<Booking> bookings) {
+        return bookings.stream()
+                .map(Booking::getId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+    }
+
+    private static String describeConflict(Booking booking, Stay conflict) {
+        String holder = conflict.bookingId() == null ? "another booking in this request" : "booking #" + conflict.bookingId();
+        return "Room " + booking.getRoomNumber() + " is already booked from " + conflict.checkIn() + " to "
+                + conflict.checkOut() + " by " + holder;
+    }
+
+    private void index(Booking booking) {
+        if (booking.getId() == null) {
+            return;
+        }
+        Stay previous = staysById.remove(booking.getId());
+        if (previous != null) {
+            schedules.get(previous.roomNumber()).remove(previous);
+            notifyChanged(previous);
+        }
+        if (holdsRoom(booking)) {
+            Stay stay = Stay.of(booking);
+            staysById.put(stay.bookingId(), stay);
+            schedules.computeIfAbsent(stay.roomNumber(), room -> new RoomSchedule()).add(stay);
+            notifyChanged(stay);
+        }
+    }
+
+    private void notifyChanged(Stay stay) {
+        if (loaded) {
+            listeners.forEach(listener -> listener.staysChanged(stay.roomNumber(), stay.checkIn(), stay.checkOut()));
+        }
+    }
+
+    private static boolean holdsRoom(Booking booking) {
+        return booking.getRoomNumber() != null && booking.getCheckIn() != null && booking.getCheckOut() != null
+                && booking.getCheckOut().isAfter(booking.getCheckIn())
+                && HOLDING_STATUSES.contains(booking.getStatus());
+    }
+
+    public interface StayListener {
+
+        /**
+         * The stays holding {@code roomNumber} changed somewhere within {@code [from, to)}.
+         */
+        void staysChanged(String roomNumber, LocalDate from, LocalDate to);
+
+        /**
+         * The whole index was reloaded from the database.
+         */
+        default void reloaded() {
+        }
+    }
+
+    public record Stay(Long bookingId, String roomNumber, LocalDate checkIn, LocalDate checkOut) {
+
+        static Stay of(Booking booking) {
+            return new Stay(booking.getId(), booking.getRoomNumber(), booking.getCheckIn(), booking.getCheckOut());
+        }
+
+        boolean overlaps(LocalDate from, LocalDate to) {
+            return checkIn.isBefore(to) && checkOut.isAfter(from);
+        }
+    }
+
+    private record Block(LocalDate start, LocalDate end, List<Stay> stays) {
+    }
+
+    private static final class RoomSchedule {
+
+        private final TreeMap<LocalDate, Block> blocks = new TreeMap<>();
+
+        /**
+         * Walks back from the last block starting before {@code checkOut}; normally that block decides, and
+         * only ignored stays make the walk look at earlier ones.
+         */
+        Optional<Stay> findConflict(LocalDate checkIn, LocalDate checkOut, Set<Long> ignoredBookingIds) {
+            Map.Entry<LocalDate, Block> entry = blocks.lowerEntry(checkOut);
+            while (entry != null && entry.getValue().end().isAfter(checkIn)) {
+                for (Stay stay : entry.getValue().stays()) {
+                    if (stay.overlaps(checkIn, checkOut) && !ignoredBookingIds.contains(stay.bookingId())) {
+                        return Optional.of(stay);
+                    }
+                }
+                entry = blocks.lowerEntry(entry.getKey());
+            }
+            return Optional.empty();
+        }
+
+        void forEachStay(LocalDate from, LocalDate to, Consumer<Stay> action) {
+            Map.Entry<LocalDate, Block> entry = blocks.lowerEntry(to);
+            while (entry != null && entry.getValue().end().isAfter(from)) {
+                for (Stay stay : entry.getValue().stays()) {
+                    if (stay.overlaps(from, to)) {
+                        action.accept(stay);
+                    }
+                }
+                entry = blocks.lowerEntry(entry.getKey());
+            }
+        }
+
+        LocalDate findFirstFreeDate(LocalDate from, int nights) {
+            LocalDate candidate = from;
+            while (true) {
+                Map.Entry<LocalDate, Block> blocking = blocks.lowerEntry(candidate.plusDays(nights));
+                if (blocking == null || !blocking.getValue().end().isAfter(candidate)) {
+                    return candidate;
+                }
+                candidate = blocking.getValue().end();
+            }
+        }
+
+        void add(Stay stay) {
+            LocalDate start = stay.checkIn();
+            LocalDate end = stay.checkOut();
+            List<Stay> stays = new ArrayList<>();
+            stays.add(stay);
+            Map.Entry<LocalDate, Block> entry = blocks.lowerEntry(end);
+            while (entry != null && entry.getValue().end().isAfter(start)) {
+                Block absorbed = entry.getValue();
+                blocks.remove(entry.getKey());
+                stays.addAll(absorbed.stays());
+                start = absorbed.start().isBefore(start) ? absorbed.start() : start;
+                end = absorbed.end().isAfter(end) ? absorbed.end() : end;
+                entry = blocks.lowerEntry(end);
+            }
+            blocks.put(start, new Block(start, end, stays));
+        }
+
+        void remove(Stay stay) {
+            Map.Entry<LocalDate, Block> entry = blocks.floorEntry(stay.checkIn());
+            if (entry == null || !entry.getValue().stays().remove(stay)) {
+                return;
+            }
+            blocks.remove(entry.getKey());
+            entry.getValue().stays().forEach(this::add);
+        }
+    }
+}
@@ -4,16 +4,21 @@ import com.hotelease.model.Booking;
 import com.hotelease.model.Role;
 import com.hotelease.model.User;
 import com.hotelease.repository.BookingRepository;
+import com.hotelease.repository.KeysetCursor;
+import com.hotelease.repository.Page;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public class BookingService {
 
     private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex intervalIndex;
 
-    public BookingService(BookingRepository bookingRepository) {
+    public BookingService(BookingRepository bookingRepository, BookingIntervalIndex intervalIndex) {
         this.bookingRepository = bookingRepository;
+        this.intervalIndex = intervalIndex;
     }
 
     public List<Booking> getAllBookings() {
@@ -31,9 +36,50 @@ public class BookingService {
         return bookingRepository.findByGuestUsername(username);
     }
 
+    public Page<Booking, LocalDate> getBookingPageForUser(User user, KeysetCursor<LocalDate> after, int pageSize) {
+        if (user == null || !isGuestUser(user)) {
+            return bookingRepository.findPage(null, after, pageSize);
+        }
+        String username = user.getUsername();
+        if (username == null || username.isBlank()) {
+            return Page.complete(List.of());
+        }
+        return bookingRepository.findPage(username, after, pageSize);
+    }
+
+    /**
+     * Saves the booking unless it would overlap another stay in the same room, including one booked from
+     * another station that this process has not seen yet.
+     */
     public Booking createOrUpdateBooking(Booking booking) {
         validateBooking(booking);
-        return bookingRepository.save(booking);
+        return intervalIndex.reserve(List.of(booking), bookingRepository, () -> bookingRepository.saveIfRoomFree(booking));
+    }
+
+    /**
+     * Validates every booking and checks the batch for overlaps within itself before any is written, then
+     * saves them in batches; each batch checks the database for overlapping stays before it commits.
+     */
+    public List<Booking> createOrUpdateBookings(Collection<Booking> bookings) {
+        bookings.forEach(this::validateBooking);
+        return intervalIndex.reserve(bookings, bookingRepository, () -> bookingRepository.saveAllIfRoomsFree(bookings));
+    }
+
+    /**
+     * Answers from the in-memory index, which may not have seen a stay another station booked since it was
+     * loaded; saving the booking is what decides.
+     */
+    public boolean isRoomFree(String roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        intervalIndex.loadIfNeeded(bookingRepository);
+        return intervalIndex.isFree(roomNumber, checkIn, checkOut);
+    }
+
+    /**
+     * Earliest check-in on or after {@code from} when the room is free for {@code nights} nights.
+     */
+    public LocalDate findFirstFreeDate(String roomNumber, LocalDate from, int nights) {
+        intervalIndex.loadIfNeeded(bookingRepository);
+        return intervalIndex.findFirstFreeDate(roomNumber, from, nights);
     }
 
     public Booking createBooking(String guestName,
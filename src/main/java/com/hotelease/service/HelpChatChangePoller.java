@@ -0,0 +1,124 @@
+package com.hotelease.service;
+
+import com.hotelease.model.HelpChatChange;
+import com.hotelease.repository.HelpChatRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the help chat change log every {@code hotelease.chat.pollMillis} milliseconds (one second by
+ * default) and publishes the changes other clients made to the {@link HelpChatEventBus}. Each poll is a
+ * primary key range read above the last id seen, so it costs the same however much chat history there is.
+ *
+ * <p>Ids are taken when a transaction inserts its entry but become visible when it commits, so a
+ * slower writer can commit below an id that was already read. Ids missing below a later one are therefore
+ * read again for a few polls before they are given up as rolled back.</p>
+ */
+public class HelpChatChangePoller {
+
+    public static final String INTERVAL_PROPERTY = "hotelease.chat.pollMillis";
+
+    private static final System.Logger LOGGER = System.getLogger(HelpChatChangePoller.class.getName());
+    private static final int BATCH_SIZE = 200;
+    private static final int GAP_GRACE_POLLS = 5;
+    private static final Duration RETENTION = Duration.ofDays(1);
+
+    private final HelpChatRepository helpChatRepository;
+    private final HelpChatEventBus eventBus;
+    private final long intervalMillis;
+
+    private ScheduledExecutorService executor;
+
+    // Confined to the poller thread once started.
+    private long lastContiguousId;
+    private final TreeSet<Long> seenAboveGap = new TreeSet<>();
+    private int gapPolls;
+    private boolean failing;
+
+    public HelpChatChangePoller(HelpChatRepository helpChatRepository, HelpChatEventBus eventBus) {
+        this.helpChatRepository = Objects.requireNonNull(helpChatRepository);
+        this.eventBus = Objects.requireNonNull(eventBus);
+        this.intervalMillis = Math.max(100, Long.getLong(INTERVAL_PROPERTY, 1000));
+    }
+
+    /**
+     * Prunes entries older than a day and starts polling from the newest one. Needs the migrated schema.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        int pruned = helpChatRepository.deleteChangesBefore(LocalDateTime.now().minus(RETENTION));
+        if (pruned > 0) {
+            LOGGER.log(System.Logger.Level.DEBUG, "Pruned {0} help chat changes", pruned);
+        }
+        lastContiguousId = helpChatRepository.findLatestChangeId();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hotelease-chat-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::pollQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+            if (failing) {
+                LOGGER.log(System.Logger.Level.INFO, "Help chat change polling recovered");
+                failing = false;
+            }
+        } catch (RuntimeException e) {
+            if (!failing) {
+                LOGGER.log(System.Logger.Level.WARNING, "Help chat change polling failed", e);
+                failing = true;
+            }
+        }
+    }
+
+    private void poll() {
+        List<HelpChatChange> changes = helpChatRepository.findChangesAfter(lastContiguousId, BATCH_SIZE);
+        for (HelpChatChange change : changes) {
+            long id = change.getId();
+            if (seenAboveGap.contains(id)) {
+                continue;
+            }
+            if (!change.isLocal()) {
+                eventBus.publish(change);
+            }
+            if (id == lastContiguousId + 1) {
+                lastContiguousId = id;
+                advancePastSeen();
+            } else {
+                seenAboveGap.add(id);
+            }
+        }
+        if (seenAboveGap.isEmpty()) {
+            gapPolls = 0;
+        } else if (++gapPolls > GAP_GRACE_POLLS) {
+            lastContiguousId = seenAboveGap.pollFirst();
+            advancePastSeen();
+            gapPolls = 0;
+        }
+    }
+
+    private void advancePastSeen() {
+        while (seenAboveGap.remove(lastContiguousId + 1)) {
+            lastContiguousId++;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hotelease.service;
+
+import com.hotelease.model.HelpChatChange;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Tells the open help chat views about changes to conversations, whether made in this process or picked up
+ * from the shared change log by {@link HelpChatChangePoller}. Listeners run on the publishing thread, which
+ * may be the JavaFX thread or the poller's, and must hand UI work over to the JavaFX thread themselves.
+ */
+public class HelpChatEventBus {
+
+    private static final System.Logger LOGGER = System.getLogger(HelpChatEventBus.class.getName());
+
+    private final List<Consumer<HelpChatChange>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return unsubscribes the listener when run
+     */
+    public Runnable subscribe(Consumer<HelpChatChange> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public void publish(HelpChatChange change) {
+        for (Consumer<HelpChatChange> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Help chat listener failed on " + change, e);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.hotelease.service;
 
+import com.hotelease.model.HelpChatChange;
+import com.hotelease.model.HelpChatConversationSnapshot;
 import com.hotelease.model.HelpChatConversationSummary;
 import com.hotelease.model.HelpChatMessage;
 import com.hotelease.repository.HelpChatRepository;
@@ -8,15 +10,32 @@ import com.hotelease.repository.RoomRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public class HelpChatService {
 
     private final HelpChatRepository helpChatRepository;
     private final RoomRepository roomRepository;
+    private final HelpChatEventBus eventBus;
 
     public HelpChatService(HelpChatRepository helpChatRepository, RoomRepository roomRepository) {
+        this(helpChatRepository, roomRepository, new HelpChatEventBus());
+    }
+
+    public HelpChatService(HelpChatRepository helpChatRepository, RoomRepository roomRepository, HelpChatEventBus eventBus) {
         this.helpChatRepository = Objects.requireNonNull(helpChatRepository);
         this.roomRepository = Objects.requireNonNull(roomRepository);
+        this.eventBus = Objects.requireNonNull(eventBus);
+    }
+
+    /**
+     * Registers a listener for changes to any conversation; see {@link HelpChatEventBus} for threading.
+     *
+     * @return unsubscribes the listener when run
+     */
+    public Runnable subscribe(Consumer<HelpChatChange> listener) {
+        return eventBus.subscribe(listener);
     }
 
     public HelpChatMessage sendGuestMessage(String guestUsername,
@@ -30,9 +49,8 @@ public class HelpChatService {
                 null,
                 "GUEST",
                 guestUsername,
-                message,
-                false);
-        return helpChatRepository.save(chatMessage);
+                message);
+        return saveAndPublish(chatMessage);
     }
 
     public HelpChatMessage sendStaffMessage(String guestUsername,
@@ -52,9 +70,8 @@ public class HelpChatService {
                 staffUsername,
                 "STAFF",
                 staffUsername,
-                message,
-                true);
-        return helpChatRepository.save(chatMessage);
+                message);
+        return saveAndPublish(chatMessage);
     }
 
     public List<HelpChatMessage> getConversation(String guestUsername,
@@ -63,24 +80,58 @@ public class HelpChatService {
         return helpChatRepository.findConversation(guestUsername, roomNumber, recipientRole);
     }
 
-    public void markConversationAsRead(String guestUsername,
-                                       String roomNumber,
-                                       String recipientRole) {
-        helpChatRepository.markConversationAsReadByStaff(guestUsername, roomNumber, recipientRole);
+    public List<HelpChatMessage> getMessagesBefore(String guestUsername,
+                                                   String roomNumber,
+                                                   String recipientRole,
+                                                   long beforeMessageId,
+                                                   int limit) {
+        return helpChatRepository.findMessagesBefore(guestUsername, roomNumber, recipientRole, beforeMessageId, limit);
+    }
+
+    /**
+     * Everything a view needs to show a conversation, read in one transaction: the messages above
+     * {@code afterMessageId}, or the newest {@code limit} if it is 0, and the summary row after the
+     * viewer's read mark ({@link HelpChatChange.Type#READ} for staff, {@link HelpChatChange.Type#GUEST_READ}
+     * for the guest, or null to leave it) has moved up to the newest of them.
+     */
+    public HelpChatConversationSnapshot openConversation(String guestUsername,
+                                                         String roomNumber,
+                                                         String recipientRole,
+                                                         long afterMessageId,
+                                                         int limit,
+                                                         HelpChatChange.Type readMark) {
+        HelpChatConversationSnapshot snapshot = helpChatRepository.openConversation(guestUsername, roomNumber, recipientRole,
+                afterMessageId, limit, readMark);
+        if (snapshot.isReadMarkMoved()) {
+            eventBus.publish(new HelpChatChange(0, guestUsername, roomNumber, recipientRole, readMark, true));
+        }
+        return snapshot;
     }
 
     public List<HelpChatConversationSummary> getStaffConversationSummaries(List<String> recipientRoles) {
         return helpChatRepository.findConversationSummariesByRecipientRoles(recipientRoles);
     }
 
+    public Optional<HelpChatConversationSummary> getConversationSummary(String guestUsername,
+                                                                       String roomNumber,
+                                                                       String recipientRole) {
+        return helpChatRepository.findConversationSummary(guestUsername, roomNumber, recipientRole);
+    }
+
+    private HelpChatMessage saveAndPublish(HelpChatMessage chatMessage) {
+        HelpChatMessage saved = helpChatRepository.save(chatMessage);
+        eventBus.publish(new HelpChatChange(0, saved.getGuestUsername(), saved.getRoomNumber(), saved.getRecipientRole(),
+                HelpChatChange.Type.MESSAGE, true));
+        return saved;
+    }
+
     private HelpChatMessage buildMessage(String roomNumber,
                                          String guestUsername,
                                          String recipientRole,
                                          String recipientUsername,
                                          String senderType,
                                          String senderUsername,
-                                         String message,
-                                         boolean markReadForStaff) {
+                                         String message) {
         HelpChatMessage chatMessage = new HelpChatMessage();
         chatMessage.setRoomNumber(roomNumber);
         chatMessage.setGuestUsername(guestUsername);
@@ -90,7 +141,6 @@ public class HelpChatService {
         chatMessage.setSenderUsername(senderUsername);
         chatMessage.setMessage(message);
         chatMessage.setCreatedAt(LocalDateTime.now());
-        chatMessage.setReadByStaff(markReadForStaff);
         return chatMessage;
     }
 
@@ -0,0 +1,536 @@
+package com.hotelease.service;
+
+import com.hotelease.model.Booking;
+import com.hotelease.model.Room;
+import com.hotelease.repository.BookingRepository;
+import com.hotelease.repository.RoomRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * One bit per room per night for the next {@value #WINDOW_DAYS} nights, kept in a memory-mapped file next
+ * to the database so availability grids and occupancy reports never query BOOKINGS.
+ *
+ * <p>The file holds a {@value #HEADER_BYTES}-byte header, a directory of fixed-size room entries (number
+ * and type) and then one row per night, starting with tonight. A row is {@code capacity / 64} longs with
+ * bit {@code slot} set when that room is held that night, so a scan over a stay ORs or ANDs a few words
+ * per night, and a room type is one more mask. The window rolls forward as the days pass; nights that
+ * enter it are filled from the bookings that hold a room.</p>
+ *
+ * <p>Booking saves arrive as {@link BookingIntervalIndex.StayListener} callbacks, and the affected nights
+ * of that room are recomputed from the interval index. That callback, which already runs under the
+ * index's write lock, is the only place the calendar reads the index; everything else reads the database,
+ * so a thread holding the calendar never waits for the index. The header's dirty flag stays set while the
+ * file is open and is cleared by {@link #close()}, so a file left behind by a crash is rebuilt on the
+ * next open. The file is locked while it is open: a second process on the same machine does not get a
+ * calendar, rather than taking the dirty flag of the running one for a crash and truncating a file that
+ * is still mapped. The calendar only sees saves made in this process; other processes sharing the
+ * database through AUTO_SERVER leave it stale until {@code OccupancyCalendarTool verify} and
+ * {@code rebuild} run.</p>
+ */
+public final class OccupancyCalendar implements BookingIntervalIndex.StayListener, AutoCloseable {
+
+    public static final int WINDOW_DAYS = 365;
+    public static final String FILE_EXTENSION = ".occupancy";
+
+    private static final System.Logger LOGGER = System.getLogger(OccupancyCalendar.class.getName());
+
+    private static final long MAGIC = 0x48454F4343414C31L;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int VERSION_AT = 8;
+    private static final int CAPACITY_AT = 12;
+    private static final int DIRTY_AT = 16;
+    private static final int BASE_DAY_AT = 24;
+    private static final int ENTRY_BYTES = 160;
+    private static final int NUMBER_CHARS = 20;
+    private static final int TYPE_AT = 2 + NUMBER_CHARS * 2;
+    private static final int TYPE_CHARS = 50;
+    private static final int MIN_CAPACITY = 1024;
+    private static final int LOAD_FETCH_SIZE = 1_000;
+
+    private final Path file;
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex intervalIndex;
+    private final Map<String, Integer> slotsByRoom = new HashMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int words;
+    private long baseDay;
+    private String[] roomNumbers;
+    private String[] roomTypes;
+
+    private OccupancyCalendar(Path file, RoomRepository roomRepository, BookingRepository bookingRepository,
+                              BookingIntervalIndex intervalIndex) {
+        this.file = file;
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.intervalIndex = intervalIndex;
+    }
+
+    /**
+     * Maps {@code file}, rebuilding it from the database when it is missing, was not closed cleanly, uses
+     * another format or has too few room slots.
+     *
+     * @throws IllegalStateException if another process has the file open
+     */
+    public static OccupancyCalendar open(Path file, RoomRepository roomRepository, BookingRepository bookingRepository,
+                                         BookingIntervalIndex intervalIndex) {
+        return tryOpen(file, roomRepository, bookingRepository, intervalIndex).orElseThrow(() ->
+                new IllegalStateException("Occupancy calendar " + file + " is in use by another process"));
+    }
+
+    /**
+     * Like {@link #open}, but empty when another process has the file open.
+     */
+    public static Optional<OccupancyCalendar> tryOpen(Path file, RoomRepository roomRepository,
+                                                      BookingRepository bookingRepository,
+                                                      BookingIntervalIndex intervalIndex) {
+        OccupancyCalendar calendar = new OccupancyCalendar(file, roomRepository, bookingRepository, intervalIndex);
+        try {
+            return calendar.map() ? Optional.of(calendar) : Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open occupancy calendar " + file, e);
+        }
+    }
+
+    public LocalDate getWindowStart() {
+        return LocalDate.ofEpochDay(baseDay);
+    }
+
+    /**
+     * Rooms of {@code roomType} (any type when {@code null}) that are free on every night of
+     * {@code [checkIn, checkOut)}, by room number.
+     */
+    public synchronized List<String> findFreeRooms(LocalDate checkIn, LocalDate checkOut, String roomType) {
+        long[] held = scan(checkIn, checkOut, false);
+        long[] mask = roomMask(roomType);
+        for (int word = 0; word < words; word++) {
+            held[word] = ~held[word] & mask[word];
+        }
+        return roomNumbers(held);
+    }
+
+    /**
+     * Rooms of {@code roomType} (any type when {@code null}) that are held on every night of
+     * {@code [from, to)}.
+     */
+    public synchronized List<String> findRoomsHeldEveryNight(LocalDate from, LocalDate to, String roomType) {
+        long[] held = scan(from, to, true);
+        long[] mask = roomMask(roomType);
+        for (int word = 0; word < words; word++) {
+            held[word] &= mask[word];
+        }
+        return roomNumbers(held);
+    }
+
+    /**
+     * Number of held rooms of {@code roomType} for each night of {@code [from, to)}.
+     */
+    public synchronized int[] countHeldByNight(LocalDate from, LocalDate to, String roomType) {
+        int first = checkedRow(from, to);
+        long[] mask = roomMask(roomType);
+        int[] counts = new int[(int) (to.toEpochDay() - from.toEpochDay())];
+        for (int night = 0; night < counts.length; night++) {
+            int row = rowOffset(first + night);
+            for (int word = 0; word < words; word++) {
+                counts[night] += Long.bitCount(buffer.getLong(row + word * Long.BYTES) & mask[word]);
+            }
+        }
+        return counts;
+    }
+
+    public synchronized int countTrackedRooms() {
+        return slotsByRoom.size();
+    }
+
+    @Override
+    public synchronized void staysChanged(String roomNumber, LocalDate from, LocalDate to) {
+        rollWindow();
+        Integer slot = slotsByRoom.get(roomNumber);
+        LocalDate windowStart = getWindowStart();
+        LocalDate windowEnd = windowStart.plusDays(WINDOW_DAYS);
+        LocalDate start = from.isBefore(windowStart) ? windowStart : from;
+        LocalDate end = to.isAfter(windowEnd) ? windowEnd : to;
+        if (slot == null || !start.isBefore(end)) {
+            return;
+        }
+        fill(slot, start, end, false);
+        intervalIndex.forEachStay(roomNumber, start, end, stay -> fill(slot,
+                stay.checkIn().isBefore(start) ? start : stay.checkIn(),
+                stay.checkOut().isAfter(end) ? end : stay.checkOut(), true));
+    }
+
+    @Override
+    public void reloaded() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds every room entry and night from ROOMS and BOOKINGS, with tonight as the first night.
+     */
+    public synchronized void rebuild() {
+        List<Room> rooms = roomRepository.findAll();
+        for (int offset = HEADER_BYTES; offset < buffer.capacity(); offset += Long.BYTES) {
+            buffer.putLong(offset, 0L);
+        }
+        slotsByRoom.clear();
+        roomNumbers = new String[capacity];
+        roomTypes = new String[capacity];
+        baseDay = LocalDate.now().toEpochDay();
+        writeHeader(true);
+        syncRooms(rooms);
+        buffer.force();
+    }
+
+    /**
+     * Re-reads ROOMS: new rooms get a slot, type changes are recorded and deleted rooms are cleared.
+     */
+    public synchronized void syncRooms() {
+        syncRooms(roomRepository.findAll());
+    }
+
+    /**
+     * Compares the file with ROOMS and BOOKINGS and describes every room entry or night that differs.
+     */
+    public synchronized List<String> verify() {
+        rollWindow();
+        List<String> mismatches = new ArrayList<>();
+        Map<String, String> types = new HashMap<>();
+        roomRepository.findAll().forEach(room -> types.put(room.getRoomNumber(), room.getRoomType()));
+        types.forEach((number, type) -> {
+            Integer slot = slotsByRoom.get(number);
+            if (slot == null) {
+                mismatches.add("Room " + number + " has no slot");
+            } else if (!type.equals(roomTypes[slot])) {
+                mismatches.add("Room " + number + " has type " + roomTypes[slot] + ", expected " + type);
+            }
+        });
+        slotsByRoom.keySet().stream()
+                .filter(number -> !types.containsKey(number))
+                .forEach(number -> mismatches.add("Room " + number + " no longer exists"));
+
+        long[][] expected = new long[WINDOW_DAYS][words];
+        LocalDate windowStart = getWindowStart();
+        LocalDate windowEnd = windowStart.plusDays(WINDOW_DAYS);
+        try (Stream<Booking> bookings = bookingRepository.streamHoldingRoom(LOAD_FETCH_SIZE)) {
+            bookings.forEach(booking -> {
+                Integer slot = slotsByRoom.get(booking.getRoomNumber());
+                if (slot == null) {
+                    return;
+                }
+                long first = Math.max(booking.getCheckIn().toEpochDay(), windowStart.toEpochDay()) - baseDay;
+                long last = Math.min(booking.getCheckOut().toEpochDay(), windowEnd.toEpochDay()) - baseDay;
+                for (long night = first; night < last; night++) {
+                    expected[(int) night][slot >>> 6] |= 1L << (slot & 63);
+                }
+            });
+        }
+        for (int night = 0; night < WINDOW_DAYS; night++) {
+            int row = rowOffset(night);
+            for (int word = 0; word < words; word++) {
+                long differing = expected[night][word] ^ buffer.getLong(row + word * Long.BYTES);
+                while (differing != 0) {
+                    int slot = word * 64 + Long.numberOfTrailingZeros(differing);
+                    differing &= differing - 1;
+                    boolean held = (expected[night][word] >>> (slot & 63) & 1L) != 0;
+                    mismatches.add("Room " + roomNumbers[slot] + " on " + windowStart.plusDays(night)
+                            + " is marked " + (held ? "free" : "held") + ", expected " + (held ? "held" : "free"));
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        writeHeader(false);
+        buffer.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close occupancy calendar " + file, e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    /**
+     * Sizes are only decided here, before the file is mapped: platforms that refuse to truncate a mapped
+     * file would otherwise fail to grow it for new rooms. Outgrowing the slots while open logs a warning
+     * and the extra rooms wait for the next open. The header is only read once the file is locked, and
+     * the lock is held until {@link #close()} closes the channel. False if another process holds it.
+     */
+    private boolean map() throws IOException {
+        List<Room> rooms = roomRepository.findAll();
+        int required = Math.max(MIN_CAPACITY, (rooms.size() * 2 + 63) / 64 * 64);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!lock()) {
+            channel.close();
+            channel = null;
+            return false;
+        }
+        int existing = readReusableCapacity(required);
+        if (existing == 0) {
+            channel.truncate(0);
+        }
+        capacity = existing == 0 ? required : existing;
+        words = capacity / 64;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+        if (existing == 0) {
+            LOGGER.log(System.Logger.Level.INFO, "Building occupancy calendar {0}", file);
+            rebuild();
+            return true;
+        }
+        baseDay = buffer.getLong(BASE_DAY_AT);
+        readDirectory();
+        writeHeader(true);
+        syncRooms(rooms);
+        rollWindow();
+        return true;
+    }
+
+    private boolean lock() throws IOException {
+        try {
+            FileLock lock = channel.tryLock();
+            return lock != null;
+        } catch (OverlappingFileLockException e) {
+            return false;
+        }
+    }
+
+    private int readReusableCapacity(int required) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            return 0;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        int stored = header.getInt(CAPACITY_AT);
+        boolean usable = header.getLong(0) == MAGIC
+                && header.getInt(VERSION_AT) == FORMAT_VERSION
+                && header.getInt(DIRTY_AT) == 0
+                && stored >= required && stored % 64 == 0
+                && size == fileSize(stored);
+        return usable ? stored : 0;
+    }
+
+    private void writeHeader(boolean dirty) {
+        buffer.putLong(0, MAGIC);
+        buffer.putInt(VERSION_AT, FORMAT_VERSION);
+        buffer.putInt(CAPACITY_AT, capacity);
+        buffer.putInt(DIRTY_AT, dirty ? 1 : 0);
+        buffer.putLong(BASE_DAY_AT, baseDay);
+    }
+
+    private void readDirectory() {
+        roomNumbers = new String[capacity];
+        roomTypes = new String[capacity];
+        slotsByRoom.clear();
+        for (int slot = 0; slot < capacity; slot++) {
+            String number = readChars(entryOffset(slot), NUMBER_CHARS);
+            if (number != null) {
+                roomNumbers[slot] = number;
+                roomTypes[slot] = readChars(entryOffset(slot) + TYPE_AT, TYPE_CHARS);
+                slotsByRoom.put(number, slot);
+            }
+        }
+    }
+
+    private void syncRooms(List<Room> rooms) {
+        Set<String> current = new HashSet<>();
+        Set<Integer> added = new HashSet<>();
+        int nextFree = 0;
+        for (Room room : rooms) {
+            current.add(room.getRoomNumber());
+            Integer slot = slotsByRoom.get(room.getRoomNumber());
+            if (slot == null) {
+                while (nextFree < capacity && roomNumbers[nextFree] != null) {
+                    nextFree++;
+                }
+                if (nextFree == capacity) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Occupancy calendar is full; room {0} is not tracked until it is reopened",
+                            room.getRoomNumber());
+                    continue;
+                }
+                slot = nextFree;
+                slotsByRoom.put(room.getRoomNumber(), slot);
+                roomNumbers[slot] = room.getRoomNumber();
+                writeChars(entryOffset(slot), NUMBER_CHARS, room.getRoomNumber());
+                added.add(slot);
+            }
+            if (!room.getRoomType().equals(roomTypes[slot])) {
+                roomTypes[slot] = room.getRoomType();
+                writeChars(entryOffset(slot) + TYPE_AT, TYPE_CHARS, room.getRoomType());
+            }
+        }
+        for (String number : List.copyOf(slotsByRoom.keySet())) {
+            if (!current.contains(number)) {
+                int slot = slotsByRoom.remove(number);
+                fill(slot, getWindowStart(), getWindowStart().plusDays(WINDOW_DAYS), false);
+                roomNumbers[slot] = null;
+                roomTypes[slot] = null;
+                writeChars(entryOffset(slot), NUMBER_CHARS, null);
+                writeChars(entryOffset(slot) + TYPE_AT, TYPE_CHARS, null);
+            }
+        }
+        if (!added.isEmpty()) {
+            fillFromBookings(getWindowStart(), getWindowStart().plusDays(WINDOW_DAYS), added);
+        }
+    }
+
+    /**
+     * Moves the window so that it starts tonight: surviving nights shift to the front and the nights that
+     * enter at the end are filled from the bookings that hold a room.
+     */
+    private void rollWindow() {
+        long today = LocalDate.now().toEpochDay();
+        long shift = today - baseDay;
+        if (shift <= 0) {
+            return;
+        }
+        if (shift >= WINDOW_DAYS) {
+            rebuild();
+            return;
+        }
+        int kept = WINDOW_DAYS - (int) shift;
+        int rowBytes = words * Long.BYTES;
+        for (int offset = 0; offset < kept * rowBytes; offset += Long.BYTES) {
+            buffer.putLong(rowOffset(0) + offset, buffer.getLong(rowOffset((int) shift) + offset));
+        }
+        for (int offset = kept * rowBytes; offset < WINDOW_DAYS * rowBytes; offset += Long.BYTES) {
+            buffer.putLong(rowOffset(0) + offset, 0L);
+        }
+        baseDay = today;
+        writeHeader(true);
+        fillFromBookings(getWindowStart().plusDays(kept), getWindowStart().plusDays(WINDOW_DAYS), null);
+    }
+
+    private void fillFromBookings(LocalDate from, LocalDate to, Set<Integer> slots) {
+        try (Stream<Booking> bookings = bookingRepository.streamHoldingRoom(LOAD_FETCH_SIZE)) {
+            bookings.forEach(booking -> {
+                Integer slot = slotsByRoom.get(booking.getRoomNumber());
+                if (slot != null && (slots == null || slots.contains(slot)) && booking.getCheckIn().isBefore(to) && booking.getCheckOut().isAfter(from)) {
+                    fill(slot, booking.getCheckIn().isBefore(from) ? from : booking.getCheckIn(),
+                            booking.getCheckOut().isAfter(to) ? to : booking.getCheckOut(), true);
+                }
+            });
+        }
+    }
+
+    private void fill(int slot, LocalDate from, LocalDate to, boolean held) {
+        long bit = 1L << (slot & 63);
+        int wordOffset = (slot >>> 6) * Long.BYTES;
+        for (long day = from.toEpochDay(); day < to.toEpochDay(); day++) {
+            int at = rowOffset((int) (day - baseDay)) + wordOffset;
+            long word = buffer.getLong(at);
+            buffer.putLong(at, held ? word | bit : word & ~bit);
+        }
+    }
+
+    private long[] scan(LocalDate from, LocalDate to, boolean everyNight) {
+        int first = checkedRow(from, to);
+        int nights = (int) (to.toEpochDay() - from.toEpochDay());
+        long[] result = new long[words];
+        for (int word = 0; word < words; word++) {
+            long combined = everyNight ? -1L : 0L;
+            for (int night = 0; night < nights; night++) {
+                long row = buffer.getLong(rowOffset(first + night) + word * Long.BYTES);
+                combined = everyNight ? combined & row : combined | row;
+            }
+            result[word] = combined;
+        }
+        return result;
+    }
+
+    private int checkedRow(LocalDate from, LocalDate to) {
+        rollWindow();
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new IllegalArgumentException("The range must end after it starts");
+        }
+        long first = from.toEpochDay() - baseDay;
+        if (first < 0 || to.toEpochDay() - baseDay > WINDOW_DAYS) {
+            throw new IllegalArgumentException("The occupancy calendar covers " + getWindowStart() + " to "
+                    + getWindowStart().plusDays(WINDOW_DAYS));
+        }
+        return (int) first;
+    }
+
+    private long[] roomMask(String roomType) {
+        long[] mask = new long[words];
+        for (int slot = 0; slot < capacity; slot++) {
+            if (roomNumbers[slot] != null && (roomType == null || roomType.equals(roomTypes[slot]))) {
+                mask[slot >>> 6] |= 1L << (slot & 63);
+            }
+        }
+        return mask;
+    }
+
+    private List<String> roomNumbers(long[] bits) {
+        List<String> numbers = new ArrayList<>();
+        for (int word = 0; word < words; word++) {
+            for (long remaining = bits[word]; remaining != 0; remaining &= remaining - 1) {
+                numbers.add(roomNumbers[word * 64 + Long.numberOfTrailingZeros(remaining)]);
+            }
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private String readChars(int offset, int maxChars) {
+        int length = buffer.getShort(offset);
+        if (length == 0) {
+            return null;
+        }
+        char[] chars = new char[Math.min(length, maxChars)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar(offset + 2 + i * 2);
+        }
+        return new String(chars);
+    }
+
+    private void writeChars(int offset, int maxChars, String value) {
+        int length = value == null ? 0 : Math.min(value.length(), maxChars);
+        buffer.putShort(offset, (short) length);
+        for (int i = 0; i < maxChars; i++) {
+            buffer.putChar(offset + 2 + i * 2, i < length ? value.charAt(i) : 0);
+        }
+    }
+
+    private int entryOffset(int slot) {
+        return HEADER_BYTES + slot * ENTRY_BYTES;
+    }
+
+    private int rowOffset(int night) {
+        return HEADER_BYTES + capacity * ENTRY_BYTES + night * words * Long.BYTES;
+    }
+
+    private static long fileSize(int capacity) {
+        return HEADER_BYTES + (long) capacity * ENTRY_BYTES + (long) WINDOW_DAYS * capacity / 8;
+    }
+}
@@ -1,30 +1,60 @@
 package com.hotelease.service;
 
 import com.hotelease.model.Room;
+import com.hotelease.repository.KeysetCursor;
+import com.hotelease.repository.Page;
 import com.hotelease.repository.RoomRepository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 public class RoomService {
 
     private final RoomRepository roomRepository;
+    private volatile OccupancyCalendar occupancyCalendar;
 
     public RoomService(RoomRepository roomRepository) {
         this.roomRepository = roomRepository;
     }
 
+    /**
+     * The calendar to keep in step with room saves and deletes, once it has been opened.
+     */
+    public void setOccupancyCalendar(OccupancyCalendar occupancyCalendar) {
+        this.occupancyCalendar = occupancyCalendar;
+    }
+
     public List<Room> getAllRooms() {
         return roomRepository.findAll();
     }
 
+    public Page<Room, String> getRoomPage(KeysetCursor<String> after, int pageSize) {
+        return roomRepository.findPage(after, pageSize);
+    }
+
     public List<Room> getAvailableRooms() {
         return roomRepository.findAvailable();
     }
 
+    /**
+     * Rooms free for the whole stay; {@code roomType} may be {@code null} to match any type.
+     */
+    public List<Room> getAvailableRooms(LocalDate checkIn, LocalDate checkOut, String roomType) {
+        if (checkIn == null || checkOut == null) {
+            throw new IllegalArgumentException("Check-in and Check-out dates are required");
+        }
+        if (!checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        return roomRepository.findAvailable(checkIn, checkOut, roomType);
+    }
+
     public Room saveRoom(Room room) {
         validateRoom(room);
-        return roomRepository.save(room);
+        Room saved = roomRepository.save(room);
+        syncOccupancyCalendar();
+        return saved;
     }
 
     public Room createRoom(String roomNumber, String roomType, String status, BigDecimal rate) {
@@ -45,6 +75,14 @@ public class RoomService {
 
     public void deleteRoom(Long id) {
         roomRepository.deleteById(id);
+        syncOccupancyCalendar();
+    }
+
+    private void syncOccupancyCalendar() {
+        OccupancyCalendar calendar = occupancyCalendar;
+        if (calendar != null) {
+            calendar.syncRooms();
+        }
     }
 
     private void validateRoom(Room room) {
@@ -0,0 +1,103 @@
+package com.hotelease.tools;
+
+import com.hotelease.config.DatabaseConfig;
+import com.hotelease.config.pool.StatementCounter;
+import com.hotelease.model.HelpChatChange;
+import com.hotelease.model.HelpChatMessage;
+import com.hotelease.repository.jdbc.JdbcHelpChatRepository;
+import com.hotelease.repository.jdbc.JdbcRoomRepository;
+import com.hotelease.service.HelpChatEventBus;
+import com.hotelease.service.HelpChatService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the connections and statements the help chat view spends on each step and fails if any step
+ * goes over its budget, so opening a conversation cannot drift back into a cascade of separate reads and
+ * writes. The steps run against a fresh conversation of {@code messages} messages, as staff and as the
+ * guest, and the budgets do not depend on its length. Unless {@code hotelease.db.url} is set, runs against
+ * a scratch database in a temporary directory. Exits with status 1 if a step is over budget.
+ *
+ * <p>Usage: {@code java ... com.hotelease.tools.HelpChatQueryBudget [messages]}</p>
+ */
+public final class HelpChatQueryBudget {
+
+    private static final int DEFAULT_MESSAGES = 500;
+    private static final int PAGE_SIZE = 50;
+    private static final String ROOM_NUMBER = "101";
+    private static final String RECIPIENT_ROLE = "RECEPTIONIST";
+
+    private HelpChatQueryBudget() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int messageCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MESSAGES;
+        if (System.getProperty("hotelease.db.url") == null) {
+            String path = Files.createTempDirectory("hotelease-budget").resolve("chat").toString();
+            System.setProperty("hotelease.db.url", "jdbc:h2:" + path);
+        }
+
+        boolean withinBudget;
+        try {
+            DatabaseConfig.migrateSchema();
+            JdbcHelpChatRepository repository = new JdbcHelpChatRepository();
+            HelpChatService service = new HelpChatService(repository, new JdbcRoomRepository(), new HelpChatEventBus());
+            String guest = "budget-" + System.currentTimeMillis();
+            repository.saveAll(seed(guest, messageCount));
+
+            System.out.printf("%-36s %11s %10s%n", "step", "connections", "statements");
+            withinBudget = check("staff inbox", 1, () ->
+                    service.getStaffConversationSummaries(List.of(RECIPIENT_ROLE)));
+            withinBudget &= check("staff opens unread conversation", 4, () ->
+                    service.openConversation(guest, ROOM_NUMBER, RECIPIENT_ROLE, 0, PAGE_SIZE, HelpChatChange.Type.READ));
+            long newest = service.openConversation(guest, ROOM_NUMBER, RECIPIENT_ROLE, 0, PAGE_SIZE, null)
+                    .getNewestMessageId();
+            withinBudget &= check("staff refreshes open conversation", 4, () ->
+                    service.openConversation(guest, ROOM_NUMBER, RECIPIENT_ROLE, newest, PAGE_SIZE, HelpChatChange.Type.READ));
+            withinBudget &= check("staff scrolls to older page", 1, () ->
+                    service.getMessagesBefore(guest, ROOM_NUMBER, RECIPIENT_ROLE, newest, PAGE_SIZE));
+            withinBudget &= check("guest opens unread conversation", 4, () ->
+                    service.openConversation(guest, ROOM_NUMBER, RECIPIENT_ROLE, 0, PAGE_SIZE, HelpChatChange.Type.GUEST_READ));
+        } finally {
+            DatabaseConfig.closePool();
+        }
+        if (!withinBudget) {
+            System.exit(1);
+        }
+    }
+
+    private static List<HelpChatMessage> seed(String guest, int count) {
+        LocalDateTime start = LocalDateTime.now().minusMinutes(count);
+        List<HelpChatMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean fromGuest = i % 2 == 0;
+            HelpChatMessage message = new HelpChatMessage();
+            message.setRoomNumber(ROOM_NUMBER);
+            message.setGuestUsername(guest);
+            message.setRecipientRole(RECIPIENT_ROLE);
+            message.setSenderType(fromGuest ? "GUEST" : "STAFF");
+            message.setSenderUsername(fromGuest ? guest : "budget-staff");
+            message.setMessage("Message " + i);
+            message.setCreatedAt(start.plusMinutes(i));
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    /**
+     * Every step must stay on one connection and within {@code maxStatements} statements.
+     */
+    private static boolean check(String step, int maxStatements, Runnable operation) {
+        try (StatementCounter counter = StatementCounter.start()) {
+            operation.run();
+            boolean ok = counter.connections() <= 1 && counter.statements() <= maxStatements;
+            System.out.printf("%-36s %11d %10d  %s%n", step, counter.connections(), counter.statements(),
+                    ok ? "ok" : "over budget of 1 connection and " + maxStatements + " statements");
+            return ok;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.hotelease.tools;
+
+import com.hotelease.config.DatabaseConfig;
+import com.hotelease.repository.BookingRepository;
+import com.hotelease.repository.RoomRepository;
+import com.hotelease.repository.jdbc.JdbcBookingRepository;
+import com.hotelease.repository.jdbc.JdbcRoomRepository;
+import com.hotelease.service.BookingIntervalIndex;
+import com.hotelease.service.OccupancyCalendar;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Maintenance commands for the occupancy calendar file kept next to the database. Run them while the
+ * application is closed: the application locks the file while it has it open, and the tool then fails.
+ *
+ * <ul>
+ *     <li>{@code rebuild} rewrites every room and night from ROOMS and BOOKINGS.</li>
+ *     <li>{@code verify} compares the file with ROOMS and BOOKINGS and exits with status 1 on any difference.</li>
+ *     <li>{@code report [nights] [roomType]} prints how many rooms are held on each of the coming nights.</li>
+ *     <li>{@code benchmark [queries]} times random stay searches against the calendar and against SQL.</li>
+ * </ul>
+ */
+public final class OccupancyCalendarTool {
+
+    private static final int MAX_REPORTED_MISMATCHES = 50;
+    private static final String[] ROOM_TYPES = {null, "SINGLE", "DOUBLE", "SUITE"};
+
+    private OccupancyCalendarTool() {
+    }
+
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "verify";
+        Path file = DatabaseConfig.resolveDataFile(OccupancyCalendar.FILE_EXTENSION);
+        RoomRepository roomRepository = new JdbcRoomRepository();
+        BookingRepository bookingRepository = new JdbcBookingRepository();
+        boolean failed = false;
+        DatabaseConfig.migrateSchema();
+        try (OccupancyCalendar calendar = OccupancyCalendar.open(file, roomRepository, bookingRepository,
+                new BookingIntervalIndex())) {
+            switch (command) {
+                case "rebuild" -> rebuild(calendar, file);
+                case "verify" -> failed = !verify(calendar);
+                case "report" -> report(calendar, args.length > 1 ? Integer.parseInt(args[1]) : 14, args.length > 2 ? args[2] : null);
+                case "benchmark" -> benchmark(calendar, roomRepository, args.length > 1 ? Integer.parseInt(args[1]) : 2_000);
+                default -> {
+                    System.err.println("Usage: OccupancyCalendarTool rebuild | verify | report [nights] [roomType] | benchmark [queries]");
+                    failed = true;
+                }
+            }
+        } finally {
+            DatabaseConfig.closePool();
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static void rebuild(OccupancyCalendar calendar, Path file) {
+        long start = System.nanoTime();
+        calendar.rebuild();
+        System.out.printf("Rebuilt %s for %d rooms from %s in %,d ms%n", file, calendar.countTrackedRooms(),
+                calendar.getWindowStart(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static boolean verify(OccupancyCalendar calendar) {
+        List<String> mismatches = calendar.verify();
+        if (mismatches.isEmpty()) {
+            System.out.printf("Occupancy calendar matches the database for %d rooms over %d nights%n",
+                    calendar.countTrackedRooms(), OccupancyCalendar.WINDOW_DAYS);
+            return true;
+        }
+        mismatches.stream().limit(MAX_REPORTED_MISMATCHES).forEach(System.err::println);
+        System.err.printf("%,d differences; run OccupancyCalendarTool rebuild%n", mismatches.size());
+        return false;
+    }
+
+    private static void report(OccupancyCalendar calendar, int nights, String roomType) {
+        LocalDate from = calendar.getWindowStart();
+        int[] held = calendar.countHeldByNight(from, from.plusDays(nights), roomType);
+        for (int night = 0; night < held.length; night++) {
+            System.out.printf("%s %5d held%n", from.plusDays(night), held[night]);
+        }
+    }
+
+    /**
+     * Runs the same random one- to seven-night stays within the window through the calendar and through
+     * {@link RoomRepository#findAvailable(LocalDate, LocalDate, String)}.
+     */
+    private static void benchmark(OccupancyCalendar calendar, RoomRepository roomRepository, int queries) {
+        LocalDate from = calendar.getWindowStart();
+        long[] calendarNanos = new long[queries];
+        long[] sqlNanos = new long[queries];
+        Random random = new Random(42);
+        for (int i = -queries; i < queries; i++) {
+            LocalDate checkIn = from.plusDays(random.nextInt(OccupancyCalendar.WINDOW_DAYS - 7));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+            String roomType = ROOM_TYPES[random.nextInt(ROOM_TYPES.length)];
+            long start = System.nanoTime();
+            calendar.findFreeRooms(checkIn, checkOut, roomType);
+            long middle = System.nanoTime();
+            roomRepository.findAvailable(checkIn, checkOut, roomType);
+            long end = System.nanoTime();
+            if (i >= 0) {
+                calendarNanos[i] = middle - start;
+                sqlNanos[i] = end - middle;
+            }
+        }
+        print("calendar", calendarNanos);
+        print("sql", sqlNanos);
+    }
+
+    private static void print(String label, long[] nanos) {
+        Arrays.sort(nanos);
+        System.out.printf("%-8s p50=%.3f ms p99=%.3f ms%n", label,
+                nanos[nanos.length / 2] / 1_000_000.0, nanos[(int) (nanos.length * 0.99)] / 1_000_000.0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.hotelease.tools;
+
+import com.hotelease.util.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Times BCrypt hashing and verification at each cost factor on this machine, then prints the cost that
+ * {@link PasswordEncoder#calibrate(Duration)} picks for the target. Each cost runs one untimed warm-up
+ * round first.
+ *
+ * <p>Usage: {@code java ... com.hotelease.tools.PasswordHashBenchmark [minCost] [maxCost] [iterations] [targetMillis]}</p>
+ */
+public final class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "benchmark@123";
+
+    private PasswordHashBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int minCost = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int maxCost = args.length > 1 ? Integer.parseInt(args[1]) : 14;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        Duration target = Duration.ofMillis(args.length > 3 ? Long.parseLong(args[3]) : 250);
+
+        System.out.printf("%-5s %12s %12s%n", "cost", "hash p50", "verify p50");
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            String hash = PasswordEncoder.hash(PASSWORD, cost);
+            PasswordEncoder.matches(PASSWORD, hash);
+            long[] hashNanos = new long[iterations];
+            long[] verifyNanos = new long[iterations];
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                hash = PasswordEncoder.hash(PASSWORD, cost);
+                long middle = System.nanoTime();
+                PasswordEncoder.matches(PASSWORD, hash);
+                long end = System.nanoTime();
+                hashNanos[i] = middle - start;
+                verifyNanos[i] = end - middle;
+            }
+            System.out.printf("%-5d %9.1f ms %9.1f ms%n", cost, median(hashNanos), median(verifyNanos));
+        }
+
+        long start = System.nanoTime();
+        int calibrated = PasswordEncoder.calibrate(target);
+        System.out.printf("calibrate(%d ms) -> cost %d in %.1f ms%n", target.toMillis(), calibrated,
+                (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000.0;
+    }
+}
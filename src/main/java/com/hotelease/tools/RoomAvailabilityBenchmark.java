@@ -0,0 +1,132 @@
+package com.hotelease.tools;
+
+import com.hotelease.config.DatabaseConfig;
+import com.hotelease.repository.RoomRepository;
+import com.hotelease.repository.jdbc.JdbcRoomRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures {@link RoomRepository#findAvailable(LocalDate, LocalDate, String)} latency while the bookings
+ * table grows. Bookings are added oldest-last: each step extends every room's history further into the
+ * past while the upcoming stays stay the same, which is how the table grows in production. Unless
+ * {@code hotelease.db.url} is set, the data is seeded into a scratch database in a temporary directory.
+ *
+ * <p>Usage: {@code java ... com.hotelease.tools.RoomAvailabilityBenchmark [maxBookings] [queriesPerStep]}</p>
+ */
+public final class RoomAvailabilityBenchmark {
+
+    private static final long DEFAULT_MAX_BOOKINGS = 500_000;
+    private static final int DEFAULT_QUERIES = 2_000;
+    private static final long[] STEPS = {10_000, 50_000, 100_000, 250_000, 500_000, 1_000_000, 2_500_000};
+    private static final int ROOMS = 500;
+    private static final int SEED_CHUNK = 10_000;
+    private static final int BOOKING_WINDOW_DAYS = 90;
+    private static final String[] ROOM_TYPES = {null, "SINGLE", "DOUBLE", "SUITE"};
+
+    private static final String SEED_ROOMS = "MERGE INTO rooms (room_number, room_type, status, rate) KEY (room_number) " +
+            "SELECT 'B' || (1000 + X), CASE MOD(X, 3) WHEN 0 THEN 'SINGLE' WHEN 1 THEN 'DOUBLE' ELSE 'SUITE' END, " +
+            "CASE WHEN MOD(X, 50) = 0 THEN 'MAINTENANCE' ELSE 'AVAILABLE' END, 100 + MOD(X, 3) * 50 FROM SYSTEM_RANGE(1, ?)";
+    private static final String COUNT_BOOKINGS = "SELECT COUNT(*) FROM bookings WHERE room_number LIKE 'B%'";
+    /**
+     * Booking X belongs to room {@code X mod ROOMS} and starts {@code 4 * (X / ROOMS)} days before a point
+     * 90 days from now, so each room has a stay every four days and higher X reach further into the past.
+     */
+    private static final String SEED_BOOKINGS = "INSERT INTO bookings (guest_name, guest_username, room_number, check_in, check_out, status) " +
+            "SELECT 'Guest ' || X, 'guest' || MOD(X, 5000), 'B' || (1001 + MOD(X, " + ROOMS + ")), " +
+            "DATEADD(DAY, " + BOOKING_WINDOW_DAYS + " - 4 * (X / " + ROOMS + ") - MOD(X, 3), CURRENT_DATE), " +
+            "DATEADD(DAY, " + BOOKING_WINDOW_DAYS + " - 4 * (X / " + ROOMS + ") + 1, CURRENT_DATE), " +
+            "CASE WHEN MOD(X, 11) = 0 THEN 'CANCELLED' " +
+            "WHEN X / " + ROOMS + " < " + (BOOKING_WINDOW_DAYS / 4) + " THEN 'CONFIRMED' ELSE 'CHECKED_OUT' END " +
+            "FROM SYSTEM_RANGE(?, ?)";
+
+    private RoomAvailabilityBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, SQLException {
+        long maxBookings = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_MAX_BOOKINGS;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_QUERIES;
+        if (System.getProperty("hotelease.db.url") == null) {
+            String path = Files.createTempDirectory("hotelease-benchmark").resolve("availability").toString();
+            System.setProperty("hotelease.db.url", "jdbc:h2:" + path);
+        }
+
+        try {
+            DatabaseConfig.migrateSchema();
+            seedRooms();
+            RoomRepository repository = new JdbcRoomRepository();
+            for (long step : STEPS) {
+                if (step > maxBookings) {
+                    break;
+                }
+                seedBookings(step);
+                measure(repository, step, queries);
+            }
+        } finally {
+            DatabaseConfig.closePool();
+        }
+    }
+
+    private static void seedRooms() throws SQLException {
+        try (Connection connection = DatabaseConfig.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SEED_ROOMS)) {
+            statement.setInt(1, ROOMS);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void seedBookings(long rows) throws SQLException {
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            long existing;
+            try (PreparedStatement statement = connection.prepareStatement(COUNT_BOOKINGS);
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                existing = resultSet.getLong(1);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(SEED_BOOKINGS)) {
+                for (long from = existing; from < rows; from += SEED_CHUNK) {
+                    statement.setLong(1, from);
+                    statement.setLong(2, Math.min(rows, from + SEED_CHUNK) - 1);
+                    statement.executeUpdate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs random one- to seven-night stays starting within the booking window, a quarter of them without a
+     * room type filter, after a warm-up of the same size.
+     */
+    private static void measure(RoomRepository repository, long bookings, int queries) {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        long[] nanos = new long[queries];
+        long roomsFound = 0;
+        for (int i = -queries; i < queries; i++) {
+            LocalDate checkIn = today.plusDays(random.nextInt(BOOKING_WINDOW_DAYS));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+            String roomType = ROOM_TYPES[random.nextInt(ROOM_TYPES.length)];
+            long start = System.nanoTime();
+            int found = repository.findAvailable(checkIn, checkOut, roomType).size();
+            if (i >= 0) {
+                nanos[i] = System.nanoTime() - start;
+                roomsFound += found;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%,10d bookings: p50=%.2f ms p95=%.2f ms p99=%.2f ms avg rooms=%d%n", bookings,
+                percentile(nanos, 0.50), percentile(nanos, 0.95), percentile(nanos, 0.99), roomsFound / queries);
+    }
+
+    private static double percentile(long[] sortedNanos, double fraction) {
+        return sortedNanos[(int) Math.min(sortedNanos.length - 1, Math.round(fraction * sortedNanos.length))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,149 @@
+package com.hotelease.tools;
+
+import com.hotelease.config.DatabaseConfig;
+import com.hotelease.model.Booking;
+import com.hotelease.repository.BookingRepository;
+import com.hotelease.repository.jdbc.JdbcBookingRepository;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Compares peak heap while reading every booking through {@link BookingRepository#streamAll(int)} and
+ * through the list-returning {@link BookingRepository#findAll()}. Unless {@code hotelease.db.url} is set,
+ * the bookings are seeded into a scratch database in a temporary directory.
+ *
+ * <p>Usage: {@code java -Xmx256m ... com.hotelease.tools.StreamingReadBenchmark [rows] [fetchSize]}</p>
+ */
+public final class StreamingReadBenchmark {
+
+    private static final long DEFAULT_ROWS = 5_000_000;
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    private static final int SEED_CHUNK = 10_000;
+    private static final long SAMPLE_INTERVAL_NANOS = 2_000_000;
+
+    private static final String COUNT_BOOKINGS = "SELECT COUNT(*) FROM bookings";
+    private static final String SEED_BOOKINGS = "INSERT INTO bookings (guest_name, guest_username, room_number, check_in, check_out, status) " +
+            "SELECT 'Guest ' || X, 'guest' || MOD(X, 5000), 'R' || MOD(X, 300), DATEADD(DAY, MOD(X, 3650), DATE '2015-01-01'), " +
+            "DATEADD(DAY, MOD(X, 3650) + 3, DATE '2015-01-01'), 'CHECKED_OUT' FROM SYSTEM_RANGE(?, ?)";
+
+    private StreamingReadBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, SQLException {
+        long rows = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_ROWS;
+        int fetchSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_FETCH_SIZE;
+        if (System.getProperty("hotelease.db.url") == null) {
+            String path = Files.createTempDirectory("hotelease-benchmark").resolve("bookings").toString();
+            System.setProperty("hotelease.db.url", "jdbc:h2:" + path);
+        }
+
+        try {
+            DatabaseConfig.migrateSchema();
+            seed(rows);
+            BookingRepository repository = new JdbcBookingRepository();
+
+            measure("stream", () -> {
+                try (Stream<Booking> bookings = repository.streamAll(fetchSize)) {
+                    return bookings.mapToLong(Booking::getId).sum();
+                }
+            });
+            measure("list", () -> {
+                List<Booking> bookings = repository.findAll();
+                return bookings.stream().mapToLong(Booking::getId).sum();
+            });
+        } finally {
+            DatabaseConfig.closePool();
+        }
+    }
+
+    private static void seed(long rows) throws SQLException {
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            long existing;
+            try (PreparedStatement statement = connection.prepareStatement(COUNT_BOOKINGS);
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                existing = resultSet.getLong(1);
+            }
+            if (existing >= rows) {
+                System.out.printf("Using %,d existing bookings%n", existing);
+                return;
+            }
+            long start = System.nanoTime();
+            try (PreparedStatement statement = connection.prepareStatement(SEED_BOOKINGS)) {
+                for (long from = existing + 1; from <= rows; from += SEED_CHUNK) {
+                    statement.setLong(1, from);
+                    statement.setLong(2, Math.min(rows, from + SEED_CHUNK - 1));
+                    statement.executeUpdate();
+                }
+            }
+            System.out.printf("Seeded %,d bookings in %,d ms%n", rows - existing, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Reports two numbers: the summed peak of every heap pool, which includes short-lived garbage still
+     * sitting in the young generation, and the largest heap still live after a collection, which is
+     * what actually grows with the number of rows held at once.
+     */
+    private static void measure(String label, LongSupplier scan) {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        AtomicLong maxLive = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                maxLive.accumulateAndGet(liveHeapAfterLastCollection(heapPools), Math::max);
+                LockSupport.parkNanos(SAMPLE_INTERVAL_NANOS);
+            }
+        }, "heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        try {
+            long checksum = scan.getAsLong();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            running.set(false);
+            long peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            System.out.printf("%-6s checksum=%d time=%,d ms peak heap=%,d MB max live after GC=%,d MB%n",
+                    label, checksum, elapsedMillis, toMegabytes(peak), toMegabytes(maxLive.get()));
+        } catch (OutOfMemoryError e) {
+            running.set(false);
+            System.out.printf("%-6s failed with OutOfMemoryError after %,d ms (max heap %,d MB)%n",
+                    label, (System.nanoTime() - start) / 1_000_000, toMegabytes(Runtime.getRuntime().maxMemory()));
+        }
+    }
+
+    private static long liveHeapAfterLastCollection(List<MemoryPoolMXBean> heapPools) {
+        long used = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static long toMegabytes(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+}
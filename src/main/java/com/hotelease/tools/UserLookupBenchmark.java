@@ -0,0 +1,152 @@
+package com.hotelease.tools;
+
+import com.hotelease.config.DatabaseConfig;
+import com.hotelease.repository.UserRepository;
+import com.hotelease.repository.jdbc.JdbcUserRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures login lookups: {@link UserRepository#findByUsername(String)} against the former pair of
+ * queries (the user row, then its roles), and {@link UserRepository#findByUsernames} against one lookup
+ * per name. Unless {@code hotelease.db.url} is set, users are seeded into a scratch database in a
+ * temporary directory.
+ *
+ * <p>Usage: {@code java ... com.hotelease.tools.UserLookupBenchmark [users] [lookups] [batchSize]}</p>
+ */
+public final class UserLookupBenchmark {
+
+    private static final int DEFAULT_USERS = 10_000;
+    private static final int DEFAULT_LOOKUPS = 20_000;
+    private static final int DEFAULT_BATCH_SIZE = 9;
+
+    private static final String SEED_ROLES = "MERGE INTO roles (name) KEY (name) VALUES ('GUEST'), ('RECEPTIONIST'), ('MANAGER')";
+    private static final String SEED_USERS = "MERGE INTO users (username, password_hash, email, phone, active) KEY (username) " +
+            "SELECT 'bench' || X, 'x', 'bench' || X || '@hotelease.local', '000', TRUE FROM SYSTEM_RANGE(1, ?)";
+    /**
+     * Every user is a guest; every tenth is also staff, so some lookups fold two role rows.
+     */
+    private static final String SEED_USER_ROLES = "MERGE INTO user_roles (user_id, role_id) KEY (user_id, role_id) " +
+            "SELECT u.id, r.id FROM users u JOIN roles r ON r.name = 'GUEST' " +
+            "OR (r.name = 'RECEPTIONIST' AND MOD(u.id, 10) = 0) WHERE u.username LIKE 'bench%'";
+
+    private static final String LEGACY_SELECT_USER = "SELECT u.id, u.username, u.password_hash, u.email, u.phone, u.active " +
+            "FROM users u WHERE u.username = ?";
+    private static final String LEGACY_SELECT_ROLES = "SELECT r.id, r.name FROM roles r " +
+            "INNER JOIN user_roles ur ON ur.role_id = r.id WHERE ur.user_id = ?";
+
+    private UserLookupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, SQLException {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_USERS;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_LOOKUPS;
+        int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BATCH_SIZE;
+        if (System.getProperty("hotelease.db.url") == null) {
+            String path = Files.createTempDirectory("hotelease-benchmark").resolve("users").toString();
+            System.setProperty("hotelease.db.url", "jdbc:h2:" + path);
+        }
+
+        try {
+            DatabaseConfig.migrateSchema();
+            seed(users);
+            UserRepository repository = new JdbcUserRepository();
+            measure("two queries", lookups, users, user -> legacyLookup(username(user, users)));
+            measure("joined", lookups, users, user -> repository.findByUsername(username(user, users)));
+            measure(batchSize + " x findByUsername", lookups / batchSize, users, user -> {
+                for (int i = 0; i < batchSize; i++) {
+                    repository.findByUsername(username(user + i, users));
+                }
+            });
+            measure("findByUsernames(" + batchSize + ")", lookups / batchSize, users, user -> {
+                List<String> batch = new ArrayList<>(batchSize);
+                for (int i = 0; i < batchSize; i++) {
+                    batch.add(username(user + i, users));
+                }
+                repository.findByUsernames(batch);
+            });
+        } finally {
+            DatabaseConfig.closePool();
+        }
+    }
+
+    private static void seed(int users) throws SQLException {
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(SEED_ROLES)) {
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(SEED_USERS)) {
+                statement.setInt(1, users);
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(SEED_USER_ROLES)) {
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static String username(int user, int users) {
+        return "bench" + (1 + user % users);
+    }
+
+    private static void legacyLookup(String username) {
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            long id;
+            try (PreparedStatement statement = connection.prepareStatement(LEGACY_SELECT_USER)) {
+                statement.setString(1, username);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return;
+                    }
+                    id = resultSet.getLong("id");
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(LEGACY_SELECT_ROLES)) {
+                statement.setLong(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getString("name");
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to query user by username", e);
+        }
+    }
+
+    /**
+     * Runs {@code iterations} lookups of random seeded users after a warm-up of the same size.
+     */
+    private static void measure(String label, int iterations, int users, Lookup lookup) {
+        Random random = new Random(42);
+        long[] nanos = new long[iterations];
+        for (int i = -iterations; i < iterations; i++) {
+            int user = random.nextInt(users);
+            long start = System.nanoTime();
+            lookup.run(user);
+            if (i >= 0) {
+                nanos[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-24s p50=%.3f ms p95=%.3f ms p99=%.3f ms%n", label,
+                percentile(nanos, 0.50), percentile(nanos, 0.95), percentile(nanos, 0.99));
+    }
+
+    private static double percentile(long[] sortedNanos, double fraction) {
+        return sortedNanos[(int) Math.min(sortedNanos.length - 1, Math.round(fraction * sortedNanos.length))] / 1_000_000.0;
+    }
+
+    private interface Lookup {
+        void run(int user);
+    }
+}
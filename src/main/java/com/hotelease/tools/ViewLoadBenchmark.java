@@ -0,0 +1,95 @@
+package com.hotelease.tools;
+
+import com.hotelease.app.HotelEaseApplication;
+import com.hotelease.context.ApplicationContext;
+import com.hotelease.controller.support.ViewRegistry;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times opening each view three ways: a new {@link FXMLLoader} on the resource, as navigation did
+ * before the view registry; the registry building from its in-memory copy of the FXML; and the registry handing
+ * out a preloaded instance. Needs a display, since it starts the JavaFX toolkit. No view is shown and
+ * controllers never get a user, so the database is not touched.
+ *
+ * <p>Usage: {@code java ... com.hotelease.tools.ViewLoadBenchmark [iterations]}</p>
+ */
+public final class ViewLoadBenchmark {
+
+    private static final List<String> VIEWS = List.of(ViewRegistry.DASHBOARD, ViewRegistry.BOOKINGS, ViewRegistry.ROOMS,
+            ViewRegistry.BILLING, ViewRegistry.HOUSEKEEPING, ViewRegistry.HELP);
+
+    private ViewLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        Platform.startup(() -> {
+        });
+        ApplicationContext context = new ApplicationContext();
+        HotelEaseApplication.registerViews(context);
+        ViewRegistry registry = context.getViewRegistry();
+
+        System.out.printf("%-30s %10s %12s %12s %12s%n", "view", "first", "FXMLLoader", "registry", "preloaded");
+        for (String view : VIEWS) {
+            long[] first = new long[1];
+            long[] direct = new long[iterations];
+            long[] rebuilt = new long[iterations];
+            long[] preloaded = new long[iterations];
+            for (int i = -1; i < iterations; i++) {
+                long nanos = onFxThread(() -> {
+                    FXMLLoader loader = new FXMLLoader(ViewLoadBenchmark.class.getResource(view));
+                    loader.setControllerFactory(registry.controllerFactory(view));
+                    loader.load();
+                });
+                if (i < 0) {
+                    first[0] = nanos;
+                } else {
+                    direct[i] = nanos;
+                }
+            }
+            for (int i = 0; i < iterations; i++) {
+                rebuilt[i] = onFxThread(() -> registry.load(view));
+            }
+            registry.preload(List.of(view));
+            for (int i = 0; i < iterations; i++) {
+                while (!registry.hasPreloaded(view)) {
+                    TimeUnit.MILLISECONDS.sleep(5);
+                }
+                preloaded[i] = onFxThread(() -> registry.load(view));
+            }
+            System.out.printf("%-30s %7.1f ms %9.2f ms %9.2f ms %9.2f ms%n", view, first[0] / 1_000_000.0,
+                    median(direct), median(rebuilt), median(preloaded));
+        }
+        Platform.exit();
+    }
+
+    private static long onFxThread(Action action) throws Exception {
+        CompletableFuture<Long> elapsed = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            long start = System.nanoTime();
+            try {
+                action.run();
+                elapsed.complete(System.nanoTime() - start);
+            } catch (Exception e) {
+                elapsed.completeExceptionally(e);
+            }
+        });
+        return elapsed.get();
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000.0;
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+}
@@ -2,18 +2,40 @@ package com.hotelease.util;
 
 import org.mindrot.jbcrypt.BCrypt;
 
+import java.time.Duration;
+
+/**
+ * BCrypt hashing with a cost factor chosen for the machine. Every hash records the cost it was made with
+ * ({@code $2a$<cost>$...}), so hashes made at different costs verify side by side and
+ * {@link #needsRehash(String, Duration)} can tell which ones to bring to the current cost.
+ */
 public final class PasswordEncoder {
 
-    private static final int DEFAULT_ROUNDS = 10;
+    public static final int DEFAULT_ROUNDS = 10;
+    /**
+     * Calibration never goes below the cost hashes have always been made with.
+     */
+    public static final int MIN_ROUNDS = 10;
+    public static final int MAX_ROUNDS = 16;
+
+    private static final int PROBE_ROUNDS = 8;
+    private static final int PROBE_SAMPLES = 5;
+
+    private static volatile int rounds = DEFAULT_ROUNDS;
+    private static volatile long verificationTargetNanos = Long.MAX_VALUE;
 
     private PasswordEncoder() {
     }
 
     public static String hash(String rawPassword) {
+        return hash(rawPassword, rounds);
+    }
+
+    public static String hash(String rawPassword, int cost) {
         if (rawPassword == null || rawPassword.isBlank()) {
             throw new IllegalArgumentException("Password must not be blank");
         }
-        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(DEFAULT_ROUNDS));
+        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(cost));
     }
 
     public static boolean matches(String rawPassword, String hashedPassword) {
@@ -22,4 +44,74 @@ public final class PasswordEncoder {
         }
         return BCrypt.checkpw(rawPassword, hashedPassword);
     }
+
+    public static int getRounds() {
+        return rounds;
+    }
+
+    public static void setRounds(int cost) {
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("BCrypt cost must be between 4 and 31");
+        }
+        rounds = cost;
+    }
+
+    /**
+     * How long a verification may take on this machine before a hash made at a higher cost than the current
+     * one is brought down to it. {@link Duration#ZERO} brings every such hash down.
+     */
+    public static void setVerificationTarget(Duration target) {
+        verificationTargetNanos = target.toNanos();
+    }
+
+    /**
+     * The cost recorded in {@code hashedPassword}, or -1 when it is not a BCrypt hash.
+     */
+    public static int costOf(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$'
+                || hashedPassword.charAt(3) != '$' || hashedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hashedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * True for hashes made at a lower cost than the current one, and for hashes made at a higher cost whose
+     * verification, which took {@code verification}, went over this machine's target. Stations sharing the
+     * user table calibrate their own cost, so a hash made on a faster machine is kept while this one still
+     * verifies it in time; a slow station brings it down to its own cost instead of paying the faster
+     * machine's cost at every sign-in. A user who alternates between such stations is rehashed at each
+     * switch.
+     */
+    public static boolean needsRehash(String hashedPassword, Duration verification) {
+        int cost = costOf(hashedPassword);
+        return cost < rounds || cost > rounds && verification.toNanos() > verificationTargetNanos;
+    }
+
+    /**
+     * The highest cost, within {@link #MIN_ROUNDS} and {@link #MAX_ROUNDS}, whose verification takes no
+     * longer than {@code target} on this machine. Each extra round doubles the work, so a few cheap probes
+     * at a low cost are enough to extrapolate; the fastest probe is used to keep JIT warm-up and other
+     * load from pushing the cost down.
+     */
+    public static int calibrate(Duration target) {
+        String probeHash = hash("calibration-probe", PROBE_ROUNDS);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.checkpw("calibration-probe", probeHash);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        int cost = PROBE_ROUNDS;
+        long estimate = fastest;
+        while (cost < MAX_ROUNDS && estimate * 2 <= target.toNanos()) {
+            estimate *= 2;
+            cost++;
+        }
+        return Math.max(MIN_ROUNDS, cost);
+    }
 }
@@ -0,0 +1,76 @@
+package com.hotelease.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Collects how long each startup phase took so slow launches can be compared between releases. Phases are
+ * summed durations; milestones such as the first frame are points in time measured from process start.
+ */
+public final class StartupTimings {
+
+    private static final System.Logger LOGGER = System.getLogger(StartupTimings.class.getName());
+    private static final Map<String, Long> PHASE_NANOS = new LinkedHashMap<>();
+    private static final Map<String, Long> MILESTONE_NANOS = new LinkedHashMap<>();
+    private static final long REFERENCE_NANOS = System.nanoTime();
+    private static final long PROCESS_AGE_AT_REFERENCE_NANOS = ProcessHandle.current().info().startInstant()
+            .map(start -> Duration.between(start, Instant.now()).toNanos())
+            .orElse(0L);
+
+    private StartupTimings() {
+    }
+
+    public static void time(String phase, Runnable work) {
+        time(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> T time(String phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static synchronized void record(String phase, long nanos) {
+        PHASE_NANOS.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Records the first time {@code milestone} is reached; later calls for the same name are ignored.
+     */
+    public static synchronized void milestone(String milestone) {
+        MILESTONE_NANOS.putIfAbsent(milestone, PROCESS_AGE_AT_REFERENCE_NANOS + System.nanoTime() - REFERENCE_NANOS);
+    }
+
+    public static synchronized Map<String, Duration> milestones() {
+        Map<String, Duration> milestones = new LinkedHashMap<>();
+        MILESTONE_NANOS.forEach((milestone, nanos) -> milestones.put(milestone, Duration.ofNanos(nanos)));
+        return milestones;
+    }
+
+    public static synchronized Map<String, Duration> snapshot() {
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        PHASE_NANOS.forEach((phase, nanos) -> phases.put(phase, Duration.ofNanos(nanos)));
+        return phases;
+    }
+
+    public static void report() {
+        LOGGER.log(System.Logger.Level.INFO, "Startup timings: {0}; since process start: {1}",
+                summarize(snapshot()), summarize(milestones()));
+    }
+
+    private static String summarize(Map<String, Duration> timings) {
+        return timings.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue().toMillis() + " ms")
+                .collect(Collectors.joining(", "));
+    }
+}
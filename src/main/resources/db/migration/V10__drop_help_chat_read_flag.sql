@@ -0,0 +1,2 @@
+-- The per-message read flag, replaced by the read marks of V9.
+ALTER TABLE HELP_CHATS DROP COLUMN IF EXISTS IS_READ_BY_STAFF;
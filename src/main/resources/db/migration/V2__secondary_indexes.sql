@@ -0,0 +1,25 @@
+-- Access-path indexes for every query issued by the JDBC repositories.
+-- USERS.USERNAME and USERS.EMAIL, ROLES.NAME, ROOMS.ROOM_NUMBER and BILLS.INVOICE_NUMBER are already
+-- indexed through their UNIQUE constraints; USER_ROLES lookups use its primary key. Keyset page queries
+-- order by (sort key, ID), so the indexes they filter on end with ID and a page is read straight off the
+-- index instead of sorting every row that matches the filter.
+
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_CHECK_IN ON BOOKINGS (CHECK_IN, ID);
+
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_GUEST_CHECK_IN ON BOOKINGS (GUEST_USERNAME, CHECK_IN, ID);
+
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_GUEST_ROOM ON BOOKINGS (GUEST_USERNAME, ROOM_NUMBER);
+
+CREATE INDEX IF NOT EXISTS IDX_HELP_CHATS_CONVERSATION ON HELP_CHATS (GUEST_USERNAME, ROOM_NUMBER, RECIPIENT_ROLE, CREATED_AT);
+
+CREATE INDEX IF NOT EXISTS IDX_HELP_CHATS_RECIPIENT_ROLE ON HELP_CHATS (RECIPIENT_ROLE, GUEST_USERNAME, ROOM_NUMBER);
+
+CREATE INDEX IF NOT EXISTS IDX_BILLS_ISSUED_DATE ON BILLS (ISSUED_DATE DESC, ID DESC);
+
+CREATE INDEX IF NOT EXISTS IDX_BILLS_STATUS_ISSUED_DATE ON BILLS (STATUS, ISSUED_DATE DESC, ID DESC);
+
+CREATE INDEX IF NOT EXISTS IDX_BILLS_GUEST_ISSUED_DATE ON BILLS (GUEST_USERNAME, ISSUED_DATE DESC, ID DESC);
+
+CREATE INDEX IF NOT EXISTS IDX_BILLS_GUEST_STATUS_ISSUED_DATE ON BILLS (GUEST_USERNAME, STATUS, ISSUED_DATE DESC, ID DESC);
+
+CREATE INDEX IF NOT EXISTS IDX_ROOMS_STATUS ON ROOMS (STATUS, ROOM_NUMBER);
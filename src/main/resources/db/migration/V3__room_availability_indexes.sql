@@ -0,0 +1,7 @@
+-- Date-aware availability probes each room's bookings for one that ends after the requested check-in.
+-- Keyed on CHECK_OUT, the probe skips every past stay; keyed on CHECK_IN it would read the room's full
+-- history.
+
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ROOM_CHECK_OUT ON BOOKINGS (ROOM_NUMBER, CHECK_OUT);
+
+CREATE INDEX IF NOT EXISTS IDX_ROOMS_TYPE ON ROOMS (ROOM_TYPE, ROOM_NUMBER);
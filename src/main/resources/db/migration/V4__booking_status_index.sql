@@ -0,0 +1,3 @@
+-- The booking interval index loads only the bookings that still hold a room at startup. Without an index
+-- on STATUS that load scans the whole booking history.
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_STATUS ON BOOKINGS (STATUS);
@@ -0,0 +1,7 @@
+-- Small name/value store for application state that has to survive restarts, such as the fingerprint of
+-- the default users last seeded at startup.
+CREATE TABLE IF NOT EXISTS APP_SETTINGS (
+    NAME VARCHAR(100) PRIMARY KEY,
+    SETTING_VALUE VARCHAR(1000) NOT NULL,
+    UPDATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
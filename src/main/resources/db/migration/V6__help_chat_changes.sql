@@ -0,0 +1,15 @@
+-- Append-only log of help chat writes. Every client sharing the database polls it for ids above the last
+-- one it has seen, so a message sent from one desktop shows up on the others without a manual refresh.
+-- ORIGIN identifies the writing process, which has already notified its own views. Old rows are pruned
+-- by CHANGED_AT.
+CREATE TABLE IF NOT EXISTS HELP_CHAT_CHANGES (
+    ID IDENTITY PRIMARY KEY,
+    GUEST_USERNAME VARCHAR(100) NOT NULL,
+    ROOM_NUMBER VARCHAR(20) NOT NULL,
+    RECIPIENT_ROLE VARCHAR(50) NOT NULL,
+    CHANGE_TYPE VARCHAR(20) NOT NULL,
+    ORIGIN VARCHAR(36) NOT NULL,
+    CHANGED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS IDX_HELP_CHAT_CHANGES_CHANGED_AT ON HELP_CHAT_CHANGES (CHANGED_AT);
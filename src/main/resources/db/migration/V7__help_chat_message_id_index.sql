@@ -0,0 +1,4 @@
+-- Help chat views load the newest page of a conversation, then page backwards or fetch the messages above
+-- the last id they show. All three read this index newest first; H2 cannot walk an ascending index in
+-- reverse, hence ID DESC.
+CREATE INDEX IF NOT EXISTS IDX_HELP_CHATS_CONVERSATION_ID ON HELP_CHATS (GUEST_USERNAME, ROOM_NUMBER, RECIPIENT_ROLE, ID DESC);
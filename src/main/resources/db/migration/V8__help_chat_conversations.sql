@@ -0,0 +1,26 @@
+-- One row per help chat conversation, kept up to date in the same transaction as each message insert and
+-- mark-read, so the staff inbox reads this table instead of aggregating HELP_CHATS. GUEST_NAME comes from
+-- the guest's latest booking of the room when a message is written; a guest with several bookings of the
+-- same room no longer turns into several rows.
+CREATE TABLE IF NOT EXISTS HELP_CHAT_CONVERSATIONS (
+    GUEST_USERNAME VARCHAR(100) NOT NULL,
+    ROOM_NUMBER VARCHAR(20) NOT NULL,
+    RECIPIENT_ROLE VARCHAR(50) NOT NULL,
+    GUEST_NAME VARCHAR(150),
+    LAST_MESSAGE_AT TIMESTAMP NOT NULL,
+    UNREAD_COUNT BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (GUEST_USERNAME, ROOM_NUMBER, RECIPIENT_ROLE)
+);
+
+CREATE INDEX IF NOT EXISTS IDX_HELP_CHAT_CONVERSATIONS_ROLE ON HELP_CHAT_CONVERSATIONS (RECIPIENT_ROLE, LAST_MESSAGE_AT);
+
+INSERT INTO HELP_CHAT_CONVERSATIONS (GUEST_USERNAME, ROOM_NUMBER, RECIPIENT_ROLE, GUEST_NAME, LAST_MESSAGE_AT, UNREAD_COUNT)
+SELECT HC.GUEST_USERNAME, HC.ROOM_NUMBER, HC.RECIPIENT_ROLE,
+       (SELECT B.GUEST_NAME FROM BOOKINGS B
+        WHERE B.GUEST_USERNAME = HC.GUEST_USERNAME AND B.ROOM_NUMBER = HC.ROOM_NUMBER
+        ORDER BY B.ID DESC LIMIT 1),
+       MAX(HC.CREATED_AT),
+       SUM(CASE WHEN HC.SENDER_TYPE = 'GUEST' AND HC.IS_READ_BY_STAFF = FALSE THEN 1 ELSE 0 END)
+FROM HELP_CHATS HC
+WHERE NOT EXISTS (SELECT 1 FROM HELP_CHAT_CONVERSATIONS)
+GROUP BY HC.GUEST_USERNAME, HC.ROOM_NUMBER, HC.RECIPIENT_ROLE;
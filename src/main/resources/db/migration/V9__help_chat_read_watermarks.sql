@@ -0,0 +1,30 @@
+-- Read state moves from a flag on every message to two high-water marks per conversation: the newest
+-- message id staff have read and the newest one the guest has read. Marking read updates one summary row,
+-- and unread counts cover only the messages above a mark. The guest's mark also gives staff read receipts.
+-- IS_READ_BY_STAFF is dropped by V10, so this script still finds it if it has to run again.
+ALTER TABLE HELP_CHAT_CONVERSATIONS ADD COLUMN IF NOT EXISTS LAST_MESSAGE_ID BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE HELP_CHAT_CONVERSATIONS ADD COLUMN IF NOT EXISTS STAFF_READ_MESSAGE_ID BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE HELP_CHAT_CONVERSATIONS ADD COLUMN IF NOT EXISTS GUEST_READ_MESSAGE_ID BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE HELP_CHAT_CONVERSATIONS ADD COLUMN IF NOT EXISTS GUEST_UNREAD_COUNT BIGINT DEFAULT 0 NOT NULL;
+
+-- Staff have read up to just before their oldest unread guest message. Guests never had read state, so
+-- their existing history counts as read.
+UPDATE HELP_CHAT_CONVERSATIONS C SET
+    LAST_MESSAGE_ID = (SELECT MAX(HC.ID) FROM HELP_CHATS HC
+                       WHERE HC.GUEST_USERNAME = C.GUEST_USERNAME AND HC.ROOM_NUMBER = C.ROOM_NUMBER
+                         AND HC.RECIPIENT_ROLE = C.RECIPIENT_ROLE),
+    STAFF_READ_MESSAGE_ID = COALESCE(
+            (SELECT MIN(HC.ID) - 1 FROM HELP_CHATS HC
+             WHERE HC.GUEST_USERNAME = C.GUEST_USERNAME AND HC.ROOM_NUMBER = C.ROOM_NUMBER
+               AND HC.RECIPIENT_ROLE = C.RECIPIENT_ROLE AND HC.SENDER_TYPE = 'GUEST' AND HC.IS_READ_BY_STAFF = FALSE),
+            (SELECT MAX(HC.ID) FROM HELP_CHATS HC
+             WHERE HC.GUEST_USERNAME = C.GUEST_USERNAME AND HC.ROOM_NUMBER = C.ROOM_NUMBER
+               AND HC.RECIPIENT_ROLE = C.RECIPIENT_ROLE));
+
+UPDATE HELP_CHAT_CONVERSATIONS C SET
+    GUEST_READ_MESSAGE_ID = LAST_MESSAGE_ID,
+    GUEST_UNREAD_COUNT = 0,
+    UNREAD_COUNT = (SELECT COUNT(*) FROM HELP_CHATS HC
+                    WHERE HC.GUEST_USERNAME = C.GUEST_USERNAME AND HC.ROOM_NUMBER = C.ROOM_NUMBER
+                      AND HC.RECIPIENT_ROLE = C.RECIPIENT_ROLE AND HC.SENDER_TYPE = 'GUEST'
+                      AND HC.ID > C.STAFF_READ_MESSAGE_ID);